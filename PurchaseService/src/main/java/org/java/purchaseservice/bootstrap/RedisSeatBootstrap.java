@@ -24,13 +24,14 @@ public class RedisSeatBootstrap implements ApplicationRunner {
 	}
 
 
+	// no-op when the inventory already exists, re-initialization goes through the admin endpoint
 	@Override
 	public void run(ApplicationArguments args) {
-		log.info("[RedisSeatBootstrap] init seats: eventId={}, venueId={}", eventId, venueId);
+		log.info("[RedisSeatBootstrap] ensure seats: eventId={}, venueId={}", eventId, venueId);
 
 		try {
-			seatOccupiedService.initializeAllZonesForEvent(eventId, venueId);
-			log.info("[RedisSeatBootstrap] finished");
+			boolean initialized = seatOccupiedService.ensureEventInventory(eventId, venueId);
+			log.info("[RedisSeatBootstrap] finished, initialized={}", initialized);
 		} catch (Exception e) {
 			log.warn("[RedisSeatBootstrap] failed: {}", e.toString(), e);
 		}
@@ -52,4 +52,58 @@ public class RedisLuaConfig {
 		script.setResultType(Long.class);
 		return script;
 	}
-}
\ No newline at end of file
+
+	@Bean(name = "releaseLockScript")
+	public DefaultRedisScript<Long> releaseLockScript() {
+		DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+		ClassPathResource res = new ClassPathResource("lua/releaseLock.lua");
+
+		try {
+			String lua = Files.readString(Paths.get(res.getURI()), StandardCharsets.UTF_8);
+			log.trace("[RedisLuaConfig]Loaded Lua script for releaseLock:\n{}", lua);
+			script.setScriptText(lua);
+		} catch (Exception e) {
+			log.error("Failed to load releaseLock.lua from classpath", e);
+			throw new IllegalStateException("Cannot load Lua script", e);
+		}
+
+		script.setResultType(Long.class);
+		return script;
+	}
+
+	@Bean(name = "renewLockScript")
+	public DefaultRedisScript<Long> renewLockScript() {
+		DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+		ClassPathResource res = new ClassPathResource("lua/renewLock.lua");
+
+		try {
+			String lua = Files.readString(Paths.get(res.getURI()), StandardCharsets.UTF_8);
+			log.trace("[RedisLuaConfig]Loaded Lua script for renewLock:\n{}", lua);
+			script.setScriptText(lua);
+		} catch (Exception e) {
+			log.error("Failed to load renewLock.lua from classpath", e);
+			throw new IllegalStateException("Cannot load Lua script", e);
+		}
+
+		script.setResultType(Long.class);
+		return script;
+	}
+
+	@Bean(name = "mergeZoneInventoryScript")
+	public DefaultRedisScript<Long> mergeZoneInventoryScript() {
+		DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+		ClassPathResource res = new ClassPathResource("lua/mergeZoneInventory.lua");
+
+		try {
+			String lua = Files.readString(Paths.get(res.getURI()), StandardCharsets.UTF_8);
+			log.trace("[RedisLuaConfig]Loaded Lua script for mergeZoneInventory:\n{}", lua);
+			script.setScriptText(lua);
+		} catch (Exception e) {
+			log.error("Failed to load mergeZoneInventory.lua from classpath", e);
+			throw new IllegalStateException("Cannot load Lua script", e);
+		}
+
+		script.setResultType(Long.class);
+		return script;
+	}
+}
@@ -0,0 +1,42 @@
+package org.java.purchaseservice.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.java.purchaseservice.service.redis.SeatInventoryRebuildService;
+import org.java.purchaseservice.service.redis.SeatInventoryRebuildService.RebuildResult;
+import org.java.purchaseservice.service.redis.SeatOccupiedService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+// Destructive inventory operations, only exposed when tickets.admin.enabled=true
+@RestController
+@RequestMapping("/api/v1/admin/events")
+@ConditionalOnProperty(name = "tickets.admin.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class InventoryAdminController {
+
+	private final SeatOccupiedService seatOccupiedService;
+	private final SeatInventoryRebuildService seatInventoryRebuildService;
+
+	@PostMapping("/{eventId}/inventory/reinitialize")
+	public ResponseEntity<String> reinitialize(@PathVariable("eventId") String eventId,
+	                                           @RequestParam("venueId") String venueId) {
+		long version = seatOccupiedService.reinitializeEventInventory(eventId, venueId);
+		String message = String.format("Inventory for event %s re-initialized, version %d", eventId, version);
+		return ResponseEntity.ok(message);
+	}
+
+	// recover bitmaps and counters from MySQL after a Redis failover or flush
+	@PostMapping("/{eventId}/inventory/rebuild")
+	public ResponseEntity<String> rebuild(@PathVariable("eventId") String eventId,
+	                                      @RequestParam("venueId") String venueId) {
+		RebuildResult result = seatInventoryRebuildService.rebuildEventInventory(eventId, venueId);
+		String message = String.format("Inventory for event %s rebuilt from %d tickets (%d skipped) in %d ms, version %d",
+				eventId, result.ticketsApplied(), result.ticketsSkipped(), result.elapsedMs(), result.version());
+		return ResponseEntity.ok(message);
+	}
+}
@@ -1,7 +1,7 @@
 package org.java.purchaseservice.dto;
 
 import lombok.*;
-import org.java.purchaseservice.model.TicketStatus;
+import org.java.ticketingcore.model.TicketStatus;
 
 import java.time.Instant;
 
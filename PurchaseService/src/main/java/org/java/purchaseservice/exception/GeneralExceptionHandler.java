@@ -15,6 +15,12 @@ public class GeneralExceptionHandler {
 		return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Missing required parameter: " + name);
 	}
 
+	// e.g. a seat label SeatKey cannot parse
+	@ExceptionHandler(IllegalArgumentException.class)
+	public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid request: " + ex.getMessage());
+	}
+
 	@ExceptionHandler(ZoneFullException.class)
 	public ResponseEntity<String> handleZoneFull(ZoneFullException ex) {
 		String errorMessage = "Zone Full: " + ex.getMessage();
@@ -32,4 +38,9 @@ public class GeneralExceptionHandler {
 		String errorMessage = "Seat Occupied: " + ex.getMessage();
 		return ResponseEntity.status(HttpStatus.CONFLICT).body("Redis Error--" + errorMessage);
 	}
+
+	@ExceptionHandler(InventoryBusyException.class)
+	public ResponseEntity<String> handleInventoryBusy(InventoryBusyException ex) {
+		return ResponseEntity.status(HttpStatus.CONFLICT).body("Redis Error--" + ex.getMessage());
+	}
 }
@@ -0,0 +1,7 @@
+package org.java.purchaseservice.exception;
+
+public class InventoryBusyException extends RuntimeException {
+	public InventoryBusyException(String message) {
+		super(message);
+	}
+}
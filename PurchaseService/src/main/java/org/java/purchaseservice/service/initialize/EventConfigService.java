@@ -7,8 +7,8 @@ import org.springframework.boot.ApplicationRunner;
 import org.springframework.stereotype.Component;
 
 
-//Initialize all zones through SeatOccupiedService's initializeAllZonesForEvent Function
-//
+//Ensure all zones exist through SeatOccupiedService's ensureEventInventory Function
+//No-op when the event's inventory is already initialized
 @Component
 @RequiredArgsConstructor
 public class EventConfigService implements ApplicationRunner {
@@ -19,6 +19,6 @@ public class EventConfigService implements ApplicationRunner {
 		String venueId = "Venue1";
 		String eventId = "Event1";
 
-		seatService.initializeAllZonesForEvent(eventId, venueId);
+		seatService.ensureEventInventory(eventId, venueId);
 	}
 }
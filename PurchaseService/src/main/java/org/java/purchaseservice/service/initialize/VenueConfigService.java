@@ -1,6 +1,6 @@
 package org.java.purchaseservice.service.initialize;
 
-import org.java.purchaseservice.service.redis.RedisKeyUtil;
+import org.java.ticketingcore.redis.RedisKeyUtil;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -31,8 +31,16 @@ public class VenueConfigService implements InitializingBean {
 	}
 
 
-	// Add the venue and venue's zone into Redis
-	public void initializeVenueZone(String venueId, int zoneId, int rowCount, int colCount) {
+	// Add the venue and venue's zone into Redis; false when Redis already holds this layout
+	public boolean initializeVenueZone(String venueId, int zoneId, int rowCount, int colCount) {
+		String venueZonesKey = RedisKeyUtil.getZoneSetKey(venueId);
+		if (getRowCount(venueId, zoneId) == rowCount
+				&& getSeatPerRow(venueId, zoneId) == colCount
+				&& getZoneCapacity(venueId, zoneId) == rowCount * colCount
+				&& Boolean.TRUE.equals(redisTemplate.opsForSet().isMember(venueZonesKey, zoneId))) {
+			return false;
+		}
+
 		// row count in a zone for the venue
 		String rowCountKey = RedisKeyUtil.getRowCountKey(venueId, zoneId);
 		redisTemplate.opsForValue().set(rowCountKey, rowCount); // row count for zone
@@ -46,8 +54,8 @@ public class VenueConfigService implements InitializingBean {
 		redisTemplate.opsForValue().set(capacityKey, rowCount * colCount); //Zone capacity
 
 		// get all zones in the set for venue
-		String venueZonesKey = RedisKeyUtil.getZoneSetKey(venueId);
 		redisTemplate.opsForSet().add(venueZonesKey, zoneId);
+		return true;
 	}
 
 
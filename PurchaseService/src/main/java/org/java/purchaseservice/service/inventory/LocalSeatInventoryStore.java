@@ -0,0 +1,150 @@
+package org.java.purchaseservice.service.inventory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.java.purchaseservice.service.initialize.VenueConfigService;
+import org.java.ticketingcore.seat.SeatKey;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * In-JVM inventory for single-node deployments, tests and benchmarks: no Redis round trip per seat.
+ * A zone is created from the venue layout on first use with every seat free. Bitmaps live off-heap
+ * and seats are claimed and released by CAS on their 64-bit word, so buyers of one zone contend only
+ * on the zone's remaining counter. Nothing is persisted or published on the seat change channel:
+ * a restart forgets sold seats, so this store must not serve an event that already has sales.
+ * <p>
+ * Under contention a buyer may see ALREADY_OCCUPIED for a seat whose claim another buyer is just
+ * undoing because the zone is full, or ZONE_FULL just before a release gives a seat back; both are
+ * rejections the Redis store could have returned in a different interleaving.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "tickets.inventory.store", havingValue = "local")
+public class LocalSeatInventoryStore implements SeatInventoryStore {
+	private final VenueConfigService venueConfigService;
+	private final Map<String, Map<Integer, ZoneInventory>> eventZones = new ConcurrentHashMap<>();
+
+	public LocalSeatInventoryStore(VenueConfigService venueConfigService) {
+		this.venueConfigService = venueConfigService;
+	}
+
+	@Override
+	public int occupy(String eventId, String venueId, long seat) {
+		return zone(eventId, venueId, SeatKey.zoneId(seat)).occupy(seat);
+	}
+
+	@Override
+	public int release(String eventId, String venueId, long seat) {
+		return zone(eventId, venueId, SeatKey.zoneId(seat)).release(seat);
+	}
+
+	private ZoneInventory zone(String eventId, String venueId, int zoneId) {
+		ZoneInventory zone = eventZones.computeIfAbsent(eventId, e -> new ConcurrentHashMap<>()).get(zoneId);
+		if (zone != null) {
+			return zone;
+		}
+		// the layout is read once per zone, computeIfAbsent locks only this zone's bin meanwhile
+		return eventZones.get(eventId).computeIfAbsent(zoneId, z -> {
+			int rowCount = venueConfigService.getRowCount(venueId, zoneId);
+			int seatPerRow = venueConfigService.getSeatPerRow(venueId, zoneId);
+			int capacity = venueConfigService.getZoneCapacity(venueId, zoneId);
+			if (rowCount <= 0 || seatPerRow <= 0) {
+				throw new IllegalArgumentException("Zone " + zoneId + " is not configured for venue " + venueId);
+			}
+			log.info("[LocalSeatInventoryStore] zone created: event={}, zone={}, rowCount={}, seatPerRow={}, "
+					+ "capacity={}", eventId, zoneId, rowCount, seatPerRow, capacity);
+			return new ZoneInventory(rowCount, seatPerRow, capacity);
+		});
+	}
+
+	// one zone's bitmap and counters, same bit order as SETBIT so the buffer holds the Redis bitmap bytes
+	private static final class ZoneInventory {
+		private static final VarHandle WORDS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+		private final int rowCount;
+		private final int seatPerRow;
+		private final ByteBuffer bitmap;
+		private final AtomicInteger zoneRemaining;
+		private final AtomicIntegerArray rowRemaining;
+
+		ZoneInventory(int rowCount, int seatPerRow, int capacity) {
+			this.rowCount = rowCount;
+			this.seatPerRow = seatPerRow;
+			int words = (int) (((long) rowCount * seatPerRow + 63) / 64);
+			// atomic access to a direct buffer view needs 8-byte aligned words
+			this.bitmap = ByteBuffer.allocateDirect(words * Long.BYTES + Long.BYTES - 1).alignedSlice(Long.BYTES);
+			this.zoneRemaining = new AtomicInteger(capacity);
+			this.rowRemaining = new AtomicIntegerArray(rowCount);
+			for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+				rowRemaining.set(rowIndex, seatPerRow);
+			}
+		}
+
+		int occupy(long seat) {
+			int bitPos = SeatKey.bitPosition(seat, rowCount, seatPerRow);
+			int rowIndex = SeatKey.rowIndex(seat);
+			int offset = (bitPos >>> 6) * Long.BYTES;
+			long mask = 1L << 63 - (bitPos & 63);
+
+			// claiming the bit first keeps the script's order: an occupied seat wins over a full zone
+			long word;
+			do {
+				word = (long) WORDS.getVolatile(bitmap, offset);
+				if ((word & mask) != 0) {
+					return ALREADY_OCCUPIED;
+				}
+			} while (!WORDS.compareAndSet(bitmap, offset, word, word | mask));
+
+			if (!tryDecrement(zoneRemaining)) {
+				clearBit(offset, mask);
+				return ZONE_FULL;
+			}
+			// the row had a free bit, so its counter is positive
+			rowRemaining.decrementAndGet(rowIndex);
+			return OCCUPIED;
+		}
+
+		int release(long seat) {
+			int bitPos = SeatKey.bitPosition(seat, rowCount, seatPerRow);
+			int rowIndex = SeatKey.rowIndex(seat);
+			if (!clearBit((bitPos >>> 6) * Long.BYTES, 1L << 63 - (bitPos & 63))) {
+				return NOT_OCCUPIED;
+			}
+			rowRemaining.incrementAndGet(rowIndex);
+			zoneRemaining.incrementAndGet();
+			return RELEASED;
+		}
+
+		// false when the bit was already clear
+		private boolean clearBit(int offset, long mask) {
+			long word;
+			do {
+				word = (long) WORDS.getVolatile(bitmap, offset);
+				if ((word & mask) == 0) {
+					return false;
+				}
+			} while (!WORDS.compareAndSet(bitmap, offset, word, word & ~mask));
+			return true;
+		}
+
+		private static boolean tryDecrement(AtomicInteger counter) {
+			int remaining;
+			do {
+				remaining = counter.get();
+				if (remaining <= 0) {
+					return false;
+				}
+			} while (!counter.compareAndSet(remaining, remaining - 1));
+			return true;
+		}
+	}
+}
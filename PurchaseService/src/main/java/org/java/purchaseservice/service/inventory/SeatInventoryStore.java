@@ -0,0 +1,24 @@
+package org.java.purchaseservice.service.inventory;
+
+/**
+ * Seat occupancy of an event: one bit per seat plus a remaining counter per zone and per row.
+ * Seats are {@link org.java.ticketingcore.seat.SeatKey} values; a column beyond the zone's seats per
+ * row throws IllegalArgumentException. Result codes are those of lua/occupySeat.lua and
+ * lua/releaseSeat.lua, so every implementation answers the same way for the same history.
+ * Selected with {@code tickets.inventory.store} (redis, the default, or local).
+ */
+public interface SeatInventoryStore {
+	// occupy results, checked in this order
+	int OCCUPIED = 0;
+	int ALREADY_OCCUPIED = 1;
+	int ZONE_FULL = 2;
+	int ROW_FULL = 3;
+
+	// release results
+	int NOT_OCCUPIED = 0;
+	int RELEASED = 1;
+
+	int occupy(String eventId, String venueId, long seat);
+
+	int release(String eventId, String venueId, long seat);
+}
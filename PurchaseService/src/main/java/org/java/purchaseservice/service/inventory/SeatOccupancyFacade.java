@@ -0,0 +1,64 @@
+package org.java.purchaseservice.service.inventory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.java.purchaseservice.exception.RowFullException;
+import org.java.purchaseservice.exception.SeatOccupiedException;
+import org.java.purchaseservice.exception.ZoneFullException;
+import org.java.ticketingcore.seat.SeatKey;
+import org.springframework.stereotype.Service;
+
+@Service
+@Slf4j
+public class SeatOccupancyFacade {
+	private final SeatInventoryStore seatInventoryStore;
+
+	public SeatOccupancyFacade(SeatInventoryStore seatInventoryStore) {
+		this.seatInventoryStore = seatInventoryStore;
+	}
+
+	/**
+	 * Check row && zone full
+	 * check if a seat taken
+	 * update 'bit' occupancy and update counter
+	 */
+
+	public void tryOccupySeat(String eventId, String venueId, int zoneId, String row, String col) {
+		log.debug("[SeatOccupancyFacade] tryOccupySeat start: event={}, venue={}, zone={}, row={}, col={}",
+				eventId, venueId, zoneId, row, col);
+
+		// labels are parsed once; a malformed seat fails here with IllegalArgumentException, before the store
+		long seat = SeatKey.parse(zoneId, row, col);
+		int res = seatInventoryStore.occupy(eventId, venueId, seat);
+
+		switch (res) {
+			case SeatInventoryStore.OCCUPIED:
+				log.trace(
+						"[SeatOccupancyFacade] Seat occupied successfully: event={}, venue={}, zone={}, row={}, col={}",
+						eventId, venueId, zoneId, row, col);
+				return;
+			case SeatInventoryStore.ALREADY_OCCUPIED:
+				log.warn("[SeatOccupancyFacade] Seat already occupied: event={}, zone={}, row={}, col={}",
+						eventId, zoneId, row, col);
+				throw new SeatOccupiedException("Seat already occupied.");
+			case SeatInventoryStore.ZONE_FULL:
+				log.warn("[SeatOccupancyFacade] Zone full: event={}, zone={}", eventId, zoneId);
+				throw new ZoneFullException("Zone already Full.");
+			case SeatInventoryStore.ROW_FULL:
+				log.warn("[SeatOccupancyFacade] Row full: event={}, zone={}, row={}", eventId, zoneId, row);
+				throw new RowFullException("Row already Full.");
+			default:
+				log.error("[SeatOccupancyFacade] Unknown result from seat inventory: {}", res);
+				throw new RuntimeException("Unknown seat inventory return code: " + res);
+		}
+	}
+
+	public void releaseSeat(String eventId, String venueId, int zoneId, String row, String col) {
+		log.debug("[SeatOccupancyFacade] releaseSeat start: event={}, venue={}, zone={}, row={}, col={}",
+				eventId, venueId, zoneId, row, col);
+
+		int res = seatInventoryStore.release(eventId, venueId, SeatKey.parse(zoneId, row, col));
+
+		log.trace("[SeatOccupancyFacade] Seat released: event={}, venue={}, zone={}, row={}, col={}, released={}",
+				eventId, venueId, zoneId, row, col, res == SeatInventoryStore.RELEASED);
+	}
+}
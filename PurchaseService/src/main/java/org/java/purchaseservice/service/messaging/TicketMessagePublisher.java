@@ -5,10 +5,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import io.awspring.cloud.sns.core.SnsTemplate;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.java.purchaseservice.dto.MqDTO;
+import org.java.ticketingcore.dto.MqDTO;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
@@ -22,13 +24,16 @@ public class TicketMessagePublisher {
 
     public void publishTicketCreated(MqDTO ticketMessage) {
         try {
+            // consumer measures publish-to-receive from here
+            ticketMessage.setPublishedAt(Instant.now());
             String message = objectMapper.writeValueAsString(ticketMessage);
 
             snsTemplate.convertAndSend(
                     ticketTopicArn,
                     message);
 
-            log.info("Successfully published ticket message: ticketId={}", ticketMessage.getTicketId());
+            log.info("Successfully published ticket message: ticketId={}, traceId={}", ticketMessage.getTicketId(),
+                    ticketMessage.getTraceId());
         } catch (Exception e) {
             log.error("Failed to publish ticket message: ticketId={}, error={}",
                     ticketMessage.getTicketId(), e.getMessage(), e);
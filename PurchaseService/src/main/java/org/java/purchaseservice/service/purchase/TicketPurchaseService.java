@@ -2,18 +2,18 @@ package org.java.purchaseservice.service.purchase;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.java.purchaseservice.dto.MqDTO;
+import org.java.ticketingcore.dto.MqDTO;
 import org.java.purchaseservice.dto.TicketCreationDTO;
 import org.java.purchaseservice.dto.TicketPurchaseRequestDTO;
 import org.java.purchaseservice.dto.TicketRespondDTO;
 import org.java.purchaseservice.exception.CreateTicketException;
 import org.java.purchaseservice.exception.SeatOccupiedException;
 import org.java.purchaseservice.mapper.TicketMapper;
-import org.java.purchaseservice.model.TicketInfo;
-import org.java.purchaseservice.model.TicketStatus;
+import org.java.ticketingcore.model.TicketInfo;
+import org.java.ticketingcore.model.TicketStatus;
 import org.java.purchaseservice.service.TicketPurchaseServiceInterface;
 import org.java.purchaseservice.service.messaging.TicketMessagePublisher;
-import org.java.purchaseservice.service.redis.SeatOccupiedRedisFacade;
+import org.java.purchaseservice.service.inventory.SeatOccupancyFacade;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,7 +25,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TicketPurchaseService implements TicketPurchaseServiceInterface {
 
-	private final SeatOccupiedRedisFacade seatOccupiedRedisFacade;
+	private final SeatOccupancyFacade seatOccupancyFacade;
 	private final TicketMapper ticketMapper;
 	private final TicketMessagePublisher ticketMessagePublisher;
 
@@ -37,9 +37,9 @@ public class TicketPurchaseService implements TicketPurchaseServiceInterface {
 		log.info("[TicketPurchaseService] purchaseTicket start: eventId={}, zone={}, row={}, col={}", dto.getEventId(),
 				dto.getZoneId(), dto.getRow(), dto.getColumn());
 
-		// Part 1: Redis - Set Redis seat occupancy to a True - Lua script
+		// Part 1: occupy the seat in the inventory store (Redis Lua script by default)
 		try {
-			seatOccupiedRedisFacade.tryOccupySeat(dto.getEventId(), dto.getVenueId(), dto.getZoneId(), dto.getRow(),
+			seatOccupancyFacade.tryOccupySeat(dto.getEventId(), dto.getVenueId(), dto.getZoneId(), dto.getRow(),
 					dto.getColumn());
 			log.debug("[TicketPurchaseService] seat occupied OK for eventId={}, seat={}-{}", dto.getEventId(),
 					dto.getRow(), dto.getColumn());
@@ -75,6 +75,8 @@ public class TicketPurchaseService implements TicketPurchaseServiceInterface {
 					.column(dto.getColumn())
 					.createdOn(now)
 					.status(creation.getStatus())
+					// the random ticket UUID is already a 128-bit W3C trace id, so the ticket id finds the trace
+					.traceId(ticketId.replace("-", ""))
 					.build();
 
 			// Publish message to SNS for downstream processing
@@ -91,10 +93,10 @@ public class TicketPurchaseService implements TicketPurchaseServiceInterface {
 		}
 	}
 
-	// Release seat from Redis
+	// Release seat in the inventory store
 	private void safeReleaseSeat(TicketPurchaseRequestDTO dto, String ticketId, Exception original) {
 		try {
-			seatOccupiedRedisFacade.releaseSeat(dto.getEventId(), dto.getVenueId(), dto.getZoneId(), dto.getRow(),
+			seatOccupancyFacade.releaseSeat(dto.getEventId(), dto.getVenueId(), dto.getZoneId(), dto.getRow(),
 					dto.getColumn());
 			log.info("[TicketPurchaseService] seat released after failure, ticketId={}", ticketId);
 		} catch (Exception re) {
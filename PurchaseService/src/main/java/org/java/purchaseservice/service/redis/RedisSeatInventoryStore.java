@@ -0,0 +1,100 @@
+package org.java.purchaseservice.service.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.java.purchaseservice.service.initialize.VenueConfigService;
+import org.java.purchaseservice.service.inventory.SeatInventoryStore;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.java.ticketingcore.seat.SeatKey;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * The shared inventory: bitmaps and counters written by SeatOccupiedService, changed only through
+ * the Lua scripts so every instance sees one order of occupies and releases. Each change is
+ * published on the event's seat change channel for QueryService.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "tickets.inventory.store", havingValue = "redis", matchIfMissing = true)
+public class RedisSeatInventoryStore implements SeatInventoryStore {
+	private final VenueConfigService venueConfigService;
+	private final DefaultRedisScript<Long> tryOccupySeatScript; // load lua script method
+	private final DefaultRedisScript<Long> tryReleaseSeatScript; // load lua script method
+	private final StringRedisTemplate stringRedisTemplate;
+
+	public RedisSeatInventoryStore(
+			VenueConfigService venueConfigService,
+			StringRedisTemplate stringRedisTemplate,
+			@Qualifier("tryOccupySeatScript") DefaultRedisScript<Long> tryOccupySeatScript,
+			@Qualifier("tryReleaseSeatScript") DefaultRedisScript<Long> tryReleaseSeatScript) {
+		this.venueConfigService = venueConfigService;
+		this.stringRedisTemplate = stringRedisTemplate;
+		this.tryOccupySeatScript = tryOccupySeatScript;
+		this.tryReleaseSeatScript = tryReleaseSeatScript;
+	}
+
+	@Override
+	public int occupy(String eventId, String venueId, long seat) {
+		int zoneId = SeatKey.zoneId(seat);
+		int bitPos = SeatKey.bitPosition(seat, venueConfigService.getRowCount(venueId, zoneId),
+				venueConfigService.getSeatPerRow(venueId, zoneId));
+
+		String bitmapKey = RedisKeyUtil.getZoneBitMapKey(eventId, zoneId);
+		String zoneRemainKey = RedisKeyUtil.getZoneRemainedSeats(eventId, zoneId);
+		String rowRemainKey = RedisKeyUtil.getRowRemainedSeats(eventId, zoneId, SeatKey.rowIndex(seat));
+		log.trace("[RedisSeatInventoryStore] Lua keys: bitmap={}, zoneRem={}, rowRem={}, bitPos={}",
+				bitmapKey, zoneRemainKey, rowRemainKey, bitPos);
+
+		Long res;
+		try {
+			res = stringRedisTemplate.execute(
+					tryOccupySeatScript,
+					List.of(bitmapKey, zoneRemainKey, rowRemainKey),
+					String.valueOf(bitPos),
+					RedisKeyUtil.getSeatChangeChannel(eventId),
+					seatLabel(seat));
+			log.debug("[RedisSeatInventoryStore] Lua script execution returned: {}", res);
+
+		} catch (Exception ex) {
+			log.error("""
+					[RedisSeatInventoryStore] !!! Lua script execution FAILED !!!
+					  KEYS = [{}, {}, {}]
+					  ARGV = [{}]
+					  Exception: {}""",
+					bitmapKey, zoneRemainKey, rowRemainKey, bitPos, ex.toString(), ex);
+			throw ex;
+		}
+		if (res == null) {
+			throw new IllegalStateException("No result from occupySeat.lua for event " + eventId);
+		}
+		return res.intValue();
+	}
+
+	@Override
+	public int release(String eventId, String venueId, long seat) {
+		int zoneId = SeatKey.zoneId(seat);
+		int bitPos = SeatKey.bitPosition(seat, venueConfigService.getRowCount(venueId, zoneId),
+				venueConfigService.getSeatPerRow(venueId, zoneId));
+
+		Long res = stringRedisTemplate.execute(
+				tryReleaseSeatScript,
+				List.of(RedisKeyUtil.getZoneBitMapKey(eventId, zoneId),
+						RedisKeyUtil.getZoneRemainedSeats(eventId, zoneId),
+						RedisKeyUtil.getRowRemainedSeats(eventId, zoneId, SeatKey.rowIndex(seat))),
+				String.valueOf(bitPos),
+				RedisKeyUtil.getSeatChangeChannel(eventId),
+				seatLabel(seat));
+		return res == null ? NOT_OCCUPIED : res.intValue();
+	}
+
+	// "zoneId,row,col" as parsed by QueryService's SeatChangeHub
+	private static String seatLabel(long seat) {
+		return SeatKey.zoneId(seat) + "," + SeatKey.rowLabel(SeatKey.rowIndex(seat)) + ","
+				+ SeatKey.colLabel(SeatKey.colIndex(seat));
+	}
+}
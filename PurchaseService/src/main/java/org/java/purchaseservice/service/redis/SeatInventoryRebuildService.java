@@ -0,0 +1,163 @@
+package org.java.purchaseservice.service.redis;
+
+import lombok.extern.slf4j.Slf4j;
+import org.java.purchaseservice.exception.InventoryBusyException;
+import org.java.purchaseservice.service.redis.SeatOccupiedService.ZoneLayout;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.java.ticketingcore.seat.SeatKey;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.java.purchaseservice.service.redis.SeatOccupiedService.bytes;
+
+/**
+ * Recovery tool for a failed-over or flushed Redis: rebuilds an event's zone bitmaps and
+ * row/zone remaining counters from the ticket rows persisted by the consumer.
+ * The rebuilt bitmaps are ORed into the live ones rather than written over them, so seats sold
+ * while the rebuild runs, or still in flight on SNS/SQS, stay taken and purchases need not pause.
+ */
+@Slf4j
+@Service
+public class SeatInventoryRebuildService {
+	// public for SeatInventoryRebuildIndexTest, which EXPLAINs it against the migrated schema
+	public static final String SOLD_SEATS_SQL = """
+			select zone_id, row_label, col_label
+			from ticket
+			where event_id = ? and status <> 'CANCELLED'
+			""";
+
+	private final JdbcTemplate streamingJdbcTemplate;
+	private final StringRedisTemplate stringRedisTemplate;
+	private final SeatOccupiedService seatOccupiedService;
+	private final byte[] mergeZoneInventoryScript;
+
+	public SeatInventoryRebuildService(
+			DataSource dataSource,
+			StringRedisTemplate stringRedisTemplate,
+			SeatOccupiedService seatOccupiedService,
+			@Qualifier("mergeZoneInventoryScript") DefaultRedisScript<Long> mergeZoneInventoryScript) {
+		// Connector/J only streams row by row with a forward-only cursor and fetch size MIN_VALUE,
+		// any other fetch size buffers the whole result set in the heap
+		this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+		this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+		this.stringRedisTemplate = stringRedisTemplate;
+		this.seatOccupiedService = seatOccupiedService;
+		this.mergeZoneInventoryScript = bytes(mergeZoneInventoryScript.getScriptAsString());
+	}
+
+	public RebuildResult rebuildEventInventory(String eventId, String venueId) {
+		RebuildResult result = seatOccupiedService.withInitLock(eventId, () -> doRebuild(eventId, venueId));
+		if (result == null) {
+			throw new InventoryBusyException("Inventory initialization already running for event " + eventId);
+		}
+		return result;
+	}
+
+	private RebuildResult doRebuild(String eventId, String venueId) {
+		long start = System.nanoTime();
+		List<ZoneLayout> layouts = seatOccupiedService.loadZoneLayouts(venueId);
+
+		// zone ids are small and dense, index state by zone id instead of boxing into a map
+		int maxZoneId = layouts.stream().mapToInt(ZoneLayout::zoneId).max().orElse(0);
+		ZoneState[] zones = new ZoneState[maxZoneId + 1];
+		for (ZoneLayout layout : layouts) {
+			zones[layout.zoneId()] = new ZoneState(layout);
+		}
+
+		int[] applied = new int[1];
+		int[] skipped = new int[1];
+		streamingJdbcTemplate.query(SOLD_SEATS_SQL, (RowCallbackHandler) rs -> {
+			int zoneId = rs.getInt(1);
+			ZoneState zone = zoneId >= 0 && zoneId < zones.length ? zones[zoneId] : null;
+			if (zone != null && zone.occupy(rs.getString(2), rs.getString(3))) {
+				applied[0]++;
+			} else {
+				skipped[0]++;
+			}
+		}, eventId);
+		long readNanos = System.nanoTime() - start;
+
+		// one merge script per zone, all zones in one pipeline; each script is atomic with occupy/release
+		List<Object> remaining = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			for (ZoneState zone : zones) {
+				if (zone != null) {
+					byte[][] keysAndArgs = zone.mergeKeysAndArgs(eventId);
+					connection.scriptingCommands().eval(mergeZoneInventoryScript, ReturnType.INTEGER,
+							keysAndArgs.length - 3, keysAndArgs);
+				}
+			}
+			return null;
+		});
+		long seatsRemaining = remaining.stream().mapToLong(r -> ((Number) r).longValue()).sum();
+		Long version = stringRedisTemplate.opsForValue().increment(RedisKeyUtil.getInventoryVersionKey(eventId));
+		// seats only in MySQL were never published, seat stream clients re-read the availability
+		stringRedisTemplate.convertAndSend(RedisKeyUtil.getSeatChangeChannel(eventId), RedisKeyUtil.SEAT_CHANGE_RESYNC);
+
+		long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+		log.warn("[SeatInventoryRebuild] event={} merged from MySQL: zones={}, applied={}, skipped={}, "
+						+ "remaining={}, readMs={}, totalMs={}, version={}",
+				eventId, layouts.size(), applied[0], skipped[0], seatsRemaining, readNanos / 1_000_000, elapsedMs,
+				version);
+		return new RebuildResult(eventId, layouts.size(), applied[0], skipped[0], elapsedMs,
+				version == null ? 0 : version);
+	}
+
+	public record RebuildResult(String eventId, int zones, int ticketsApplied, int ticketsSkipped,
+	                            long elapsedMs, long version) {
+	}
+
+	// in-memory image of one zone, same bit layout as SETBIT (bit 0 is the high bit of byte 0)
+	private static final class ZoneState {
+		private final ZoneLayout layout;
+		private final byte[] bitmap;
+
+		ZoneState(ZoneLayout layout) {
+			this.layout = layout;
+			this.bitmap = new byte[(layout.totalSeats() + 7) / 8];
+		}
+
+		// false for seats outside the layout or already counted
+		boolean occupy(String row, String col) {
+			int bitPos;
+			try {
+				long seat = SeatKey.parse(layout.zoneId(), row, col);
+				bitPos = SeatKey.bitPosition(seat, layout.rowCount(), layout.seatPerRow());
+			} catch (IllegalArgumentException e) {
+				return false;
+			}
+
+			int mask = 0x80 >>> (bitPos & 7);
+			if ((bitmap[bitPos >>> 3] & mask) != 0) {
+				return false;
+			}
+			bitmap[bitPos >>> 3] |= (byte) mask;
+			return true;
+		}
+
+		// keys and arguments in the order mergeZoneInventory.lua reads them
+		byte[][] mergeKeysAndArgs(String eventId) {
+			int zoneId = layout.zoneId();
+			int rowCount = layout.rowCount();
+			byte[][] keysAndArgs = new byte[rowCount + 6][];
+			keysAndArgs[0] = bytes(RedisKeyUtil.getZoneBitMapKey(eventId, zoneId));
+			keysAndArgs[1] = bytes(RedisKeyUtil.getZoneRemainedSeats(eventId, zoneId));
+			keysAndArgs[2] = bytes(RedisKeyUtil.getZoneBitMapRebuildKey(eventId, zoneId));
+			for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+				keysAndArgs[3 + rowIndex] = bytes(RedisKeyUtil.getRowRemainedSeats(eventId, zoneId, rowIndex));
+			}
+			keysAndArgs[rowCount + 3] = bitmap;
+			keysAndArgs[rowCount + 4] = bytes(String.valueOf(layout.seatPerRow()));
+			keysAndArgs[rowCount + 5] = bytes(String.valueOf(layout.totalSeats()));
+			return keysAndArgs;
+		}
+	}
+}
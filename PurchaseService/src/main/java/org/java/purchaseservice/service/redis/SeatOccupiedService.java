@@ -1,55 +1,219 @@
 package org.java.purchaseservice.service.redis;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.java.purchaseservice.exception.InventoryBusyException;
 import org.java.purchaseservice.service.initialize.VenueConfigService;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
-public class SeatOccupiedService {
-	private final RedisTemplate<String, byte[]> bitmapRedisTemplate;
+public class SeatOccupiedService implements DisposableBean {
 	private final StringRedisTemplate stringRedisTemplate;
 	private final VenueConfigService venueConfigService;
+	private final DefaultRedisScript<Long> releaseLockScript;
+	private final DefaultRedisScript<Long> renewLockScript;
+	// short, so a crashed instance does not block the next start; renewed while held, so a long rebuild keeps it
+	private final Duration initLockTtl;
+	private final ScheduledExecutorService lockRenewer;
 
-	public void initializeAllZonesForEvent(String eventId, String venueId) {
-		//
+	public SeatOccupiedService(
+			StringRedisTemplate stringRedisTemplate,
+			VenueConfigService venueConfigService,
+			@Qualifier("releaseLockScript") DefaultRedisScript<Long> releaseLockScript,
+			@Qualifier("renewLockScript") DefaultRedisScript<Long> renewLockScript,
+			@Value("${tickets.inventory.init-lock-ttl:PT60S}") Duration initLockTtl) {
+		this.stringRedisTemplate = stringRedisTemplate;
+		this.venueConfigService = venueConfigService;
+		this.releaseLockScript = releaseLockScript;
+		this.renewLockScript = renewLockScript;
+		this.initLockTtl = initLockTtl;
+		this.lockRenewer = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+				.name("inventory-lock-renew")
+				.daemon(true)
+				.factory());
+	}
+
+	/**
+	 * Start-up entry point, safe to call from every instance.
+	 * Only the instance holding the event's init lock writes the inventory, and only when
+	 * no inventory version exists yet, so scaling out never resets sold seats.
+	 *
+	 * @return true if this call initialized the inventory
+	 */
+	public boolean ensureEventInventory(String eventId, String venueId) {
+		String versionKey = RedisKeyUtil.getInventoryVersionKey(eventId);
+		if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(versionKey))) {
+			log.info("[SeatOccupied][Init] inventory exists for event={}, version={}, skip",
+					eventId, stringRedisTemplate.opsForValue().get(versionKey));
+			return false;
+		}
+
+		Boolean initialized = withInitLock(eventId, () -> {
+			// re-check under the lock, another instance may have finished in between
+			if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(versionKey))) {
+				return false;
+			}
+			// bitmaps written before versioning existed are live inventory as well, adopt them as version 1
+			if (hasZoneBitmaps(eventId, venueId)) {
+				stringRedisTemplate.opsForValue().setIfAbsent(versionKey, "1");
+				log.info("[SeatOccupied][Init] adopted unversioned inventory for event={}", eventId);
+				return false;
+			}
+			initializeAllZonesForEvent(eventId, venueId);
+			Long version = stringRedisTemplate.opsForValue().increment(versionKey);
+			log.info("[SeatOccupied][Init] inventory initialized for event={}, version={}", eventId, version);
+			return true;
+		});
+
+		if (initialized == null) {
+			log.info("[SeatOccupied][Init] another instance is initializing event={}, skip", eventId);
+			return false;
+		}
+		return initialized;
+	}
+
+	/**
+	 * Admin operation: wipes the event's bitmaps and counters and rebuilds them from the venue layout.
+	 * Every sold seat of the event is released, so this must never run on the start-up path.
+	 *
+	 * @return the new inventory version
+	 */
+	public long reinitializeEventInventory(String eventId, String venueId) {
+		Long version = withInitLock(eventId, () -> {
+			initializeAllZonesForEvent(eventId, venueId);
+			Long next = stringRedisTemplate.opsForValue().increment(RedisKeyUtil.getInventoryVersionKey(eventId));
+			// every release was silent, seat stream clients re-read the availability
+			stringRedisTemplate.convertAndSend(RedisKeyUtil.getSeatChangeChannel(eventId),
+					RedisKeyUtil.SEAT_CHANGE_RESYNC);
+			return next;
+		});
+		if (version == null) {
+			throw new InventoryBusyException("Inventory initialization already running for event " + eventId);
+		}
+		log.warn("[SeatOccupied][Init] inventory re-initialized for event={}, version={}", eventId, version);
+		return version;
+	}
+
+	// unconditionally overwrite every zone of the event, callers must hold the init lock
+	void initializeAllZonesForEvent(String eventId, String venueId) {
+		// read the layout first, the pipeline below cannot see results of other commands
+		List<ZoneLayout> layouts = loadZoneLayouts(venueId);
+
+		// one round trip for the whole event instead of one per key
+		stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			for (ZoneLayout layout : layouts) {
+				int zoneId = layout.zoneId();
+				connection.stringCommands().set(
+						bytes(RedisKeyUtil.getZoneBitMapKey(eventId, zoneId)),
+						new byte[(layout.totalSeats() + 7) / 8]);
+				connection.stringCommands().set(
+						bytes(RedisKeyUtil.getZoneRemainedSeats(eventId, zoneId)),
+						bytes(String.valueOf(layout.totalSeats())));
+
+				byte[] seatPerRow = bytes(String.valueOf(layout.seatPerRow()));
+				for (int rowIndex = 0; rowIndex < layout.rowCount(); rowIndex++) {
+					connection.stringCommands().set(
+							bytes(RedisKeyUtil.getRowRemainedSeats(eventId, zoneId, rowIndex)), seatPerRow);
+				}
+			}
+			return null;
+		});
+		log.debug("[SeatOccupied][Init] wrote {} zones for event={}", layouts.size(), eventId);
+	}
+
+	List<ZoneLayout> loadZoneLayouts(String venueId) {
 		Set<Object> zoneIds = venueConfigService.getVenueZones(venueId);
 		if (zoneIds == null || zoneIds.isEmpty()) {
 			throw new IllegalStateException("Venue " + venueId + " has no configured zones.");
 		}
 
+		List<ZoneLayout> layouts = new ArrayList<>(zoneIds.size());
 		for (Object z : zoneIds) {
 			int zoneId = Integer.parseInt(z.toString());
-			initializeEventSeat(eventId, venueId, zoneId);
+			int rowCount = venueConfigService.getRowCount(venueId, zoneId);
+			int seatPerRow = venueConfigService.getSeatPerRow(venueId, zoneId);
+			int totalSeats = venueConfigService.getZoneCapacity(venueId, zoneId);
+			log.trace("[SeatOccupied][Init] zone={} config at: rowCount={}, seatPerRow={}, totalSeats={}",
+					zoneId, rowCount, seatPerRow, totalSeats);
+			layouts.add(new ZoneLayout(zoneId, rowCount, seatPerRow, totalSeats));
 		}
+		return layouts;
 	}
 
-	public void initializeEventSeat(String eventId, String venueId, int zoneId) {
-		String bitmapKey = RedisKeyUtil.getZoneBitMapKey(eventId, zoneId);
-		String zoneRemKey = RedisKeyUtil.getZoneRemainedSeats(eventId, zoneId);
-		stringRedisTemplate.delete(bitmapKey);
-		stringRedisTemplate.delete(zoneRemKey);
+	private boolean hasZoneBitmaps(String eventId, String venueId) {
+		Set<Object> zoneIds = venueConfigService.getVenueZones(venueId);
+		if (zoneIds == null || zoneIds.isEmpty()) {
+			return false;
+		}
+		List<String> bitmapKeys = zoneIds.stream()
+				.map(z -> RedisKeyUtil.getZoneBitMapKey(eventId, Integer.parseInt(z.toString())))
+				.toList();
+		Long existing = stringRedisTemplate.countExistingKeys(bitmapKeys);
+		return existing != null && existing > 0;
+	}
 
-		int rowCount = venueConfigService.getRowCount(venueId, zoneId);
-		int seatPerRow = venueConfigService.getSeatPerRow(venueId, zoneId);
-		int totalSeats = venueConfigService.getZoneCapacity(venueId, zoneId);
-		log.trace("[SeatOccupied][Init] zone={} config at: rowCount={}, seatPerRow={}, totalSeats={}",
-				zoneId, rowCount, seatPerRow, totalSeats);
+	// run the action while holding the event's init lock, null when another instance holds it
+	<T> T withInitLock(String eventId, Supplier<T> action) {
+		String lockKey = RedisKeyUtil.getInventoryLockKey(eventId);
+		String token = UUID.randomUUID().toString();
 
-		byte[] initialBitmap = new byte[(totalSeats + 7) / 8];
-		bitmapRedisTemplate.opsForValue().set(bitmapKey, initialBitmap);
+		Boolean acquired = stringRedisTemplate.opsForValue().setIfAbsent(lockKey, token, initLockTtl);
+		if (!Boolean.TRUE.equals(acquired)) {
+			return null;
+		}
+		// extend the TTL every third of it, so the lock outlives a rebuild of any length but not a crash
+		long renewMs = Math.max(1, initLockTtl.toMillis() / 3);
+		ScheduledFuture<?> renewal = lockRenewer.scheduleAtFixedRate(
+				() -> renewInitLock(eventId, lockKey, token), renewMs, renewMs, TimeUnit.MILLISECONDS);
+		try {
+			return action.get();
+		} finally {
+			renewal.cancel(false);
+			stringRedisTemplate.execute(releaseLockScript, List.of(lockKey), token);
+		}
+	}
 
-		stringRedisTemplate.opsForValue().set(zoneRemKey, String.valueOf(totalSeats));
-		for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
-			String rowKey = RedisKeyUtil.getRowRemainedSeats(eventId, zoneId, rowIndex);
-			stringRedisTemplate.delete(rowKey);
-			stringRedisTemplate.opsForValue().set(rowKey, String.valueOf(seatPerRow));
+	private void renewInitLock(String eventId, String lockKey, String token) {
+		try {
+			Long renewed = stringRedisTemplate.execute(renewLockScript, List.of(lockKey), token,
+					String.valueOf(initLockTtl.toMillis()));
+			if (renewed == null || renewed == 0) {
+				log.warn("[SeatOccupied][Init] init lock for event={} no longer held by this instance", eventId);
+			}
+		} catch (RuntimeException e) {
+			// keep the schedule alive, the next renewal may reach Redis again
+			log.warn("[SeatOccupied][Init] init lock renewal failed for event={}: {}", eventId, e.getMessage());
 		}
 	}
+
+	@Override
+	public void destroy() {
+		lockRenewer.shutdownNow();
+	}
+
+	static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	record ZoneLayout(int zoneId, int rowCount, int seatPerRow, int totalSeats) {
+	}
 }
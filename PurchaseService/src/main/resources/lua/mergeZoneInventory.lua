@@ -0,0 +1,26 @@
+-- KEYS[1]=bitmapKey
+-- KEYS[2]=zoneRemainKey
+-- KEYS[3]=staging key for the rebuilt bitmap
+-- KEYS[4..]=rowRemainKey of every row, in row order
+-- ARGV[1]=bitmap rebuilt from MySQL
+-- ARGV[2]=seatPerRow
+-- ARGV[3]=totalSeats
+-- ORs the rebuilt bitmap into the live one and recounts the counters from the union,
+-- atomic with occupy/release so seats sold during the rebuild are kept
+
+redis.call("SET", KEYS[3], ARGV[1])
+redis.call("BITOP", "OR", KEYS[1], KEYS[1], KEYS[3])
+redis.call("DEL", KEYS[3])
+
+local seatPerRow = tonumber(ARGV[2])
+local taken = 0
+for i = 4, #KEYS do
+  local first = (i - 4) * seatPerRow
+  local rowTaken = redis.call("BITCOUNT", KEYS[1], first, first + seatPerRow - 1, "BIT")
+  redis.call("SET", KEYS[i], seatPerRow - rowTaken)
+  taken = taken + rowTaken
+end
+
+local zoneRem = tonumber(ARGV[3]) - taken
+redis.call("SET", KEYS[2], zoneRem)
+return zoneRem
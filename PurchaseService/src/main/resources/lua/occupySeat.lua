@@ -4,6 +4,8 @@
 -- KEYS[2]=zoneRemainKey
 -- KEYS[3]=rowRemainKey
 -- ARGV[1]=bitPos
+-- ARGV[2]=seat change channel (optional)
+-- ARGV[3]=seat as "zoneId,row,col"
 
 
 local pos = tonumber(ARGV[1])
@@ -51,4 +53,9 @@ redis.log(redis.LOG_NOTICE,
         string.format("[Lua] occupied; new zoneRem=%s, new rowRem=%s", newZone, newRow)
 )
 
+-- published in the same script, so listeners see changes in the order they were applied
+if ARGV[2] then
+  redis.call("PUBLISH", ARGV[2], ARGV[3] .. ",1," .. newZone)
+end
+
 return 0
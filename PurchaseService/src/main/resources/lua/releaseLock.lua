@@ -0,0 +1,7 @@
+-- KEYS[1]=lockKey
+-- ARGV[1]=owner token
+-- only the owner that acquired the lock may delete it
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('DEL', KEYS[1])
+end
+return 0
@@ -1,13 +1,16 @@
 -- KEYS[1]=bitmapKey  KEYS[2]=zoneRemainKey  KEYS[3]=rowRemainKey
--- ARGV[1]=bitPos
+-- ARGV[1]=bitPos  ARGV[2]=seat change channel (optional)  ARGV[3]=seat as "zoneId,row,col"
 local pos = tonumber(ARGV[1])
 if not pos or pos < 0 then error("Invalid bit offset: "..ARGV[1]) end
 
 local wasOcc = redis.call('GETBIT', KEYS[1], pos)
 if wasOcc == 1 then
     redis.call('SETBIT', KEYS[1], pos, 0)
-    redis.call('INCR',   KEYS[2])
+    local newZone = redis.call('INCR', KEYS[2])
     redis.call('INCR',   KEYS[3])
+    if ARGV[2] then
+        redis.call('PUBLISH', ARGV[2], ARGV[3] .. ',0,' .. newZone)
+    end
     return 1  -- released
 end
 return 0
@@ -0,0 +1,8 @@
+-- KEYS[1]=lockKey
+-- ARGV[1]=owner token
+-- ARGV[2]=ttl in milliseconds
+-- only the owner that acquired the lock may extend it
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+end
+return 0
@@ -0,0 +1,18 @@
+package org.java.purchaseservice;
+
+import org.java.purchaseservice.service.initialize.VenueConfigService;
+import org.java.purchaseservice.service.inventory.LocalSeatInventoryStore;
+import org.java.purchaseservice.service.inventory.SeatInventoryStore;
+
+class LocalSeatInventoryStoreTest extends SeatInventoryStoreContract {
+
+	@Override
+	protected SeatInventoryStore newStore(VenueConfigService venueConfig) {
+		return new LocalSeatInventoryStore(venueConfig);
+	}
+
+	// zones are created free on first use
+	@Override
+	protected void initializeEvent(String eventId, String venueId) {
+	}
+}
@@ -0,0 +1,96 @@
+package org.java.purchaseservice;
+
+import org.java.purchaseservice.config.RedisLuaConfig;
+import org.java.purchaseservice.service.initialize.VenueConfigService;
+import org.java.purchaseservice.service.inventory.SeatInventoryStore;
+import org.java.purchaseservice.service.redis.RedisSeatInventoryStore;
+import org.java.purchaseservice.service.redis.SeatOccupiedService;
+import org.junit.jupiter.api.AfterAll;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.java.ticketingcore.seat.SeatKey;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.java.purchaseservice.service.inventory.SeatInventoryStore.ALREADY_OCCUPIED;
+import static org.java.purchaseservice.service.inventory.SeatInventoryStore.OCCUPIED;
+
+// the Lua scripts against a throwaway Redis, skipped when Docker is not available
+@Testcontainers(disabledWithoutDocker = true)
+class RedisSeatInventoryStoreTest extends SeatInventoryStoreContract {
+	private static final RedisLuaConfig LUA = new RedisLuaConfig();
+
+	@Container
+	static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+	private static LettuceConnectionFactory connectionFactory;
+	private static StringRedisTemplate redis;
+
+	@BeforeAll
+	static void connect() {
+		connectionFactory = new LettuceConnectionFactory(
+				new RedisStandaloneConfiguration(REDIS.getHost(), REDIS.getMappedPort(6379)));
+		connectionFactory.afterPropertiesSet();
+		redis = new StringRedisTemplate(connectionFactory);
+	}
+
+	@AfterAll
+	static void disconnect() {
+		connectionFactory.destroy();
+	}
+
+	@Override
+	protected SeatInventoryStore newStore(VenueConfigService venueConfig) {
+		return new RedisSeatInventoryStore(venueConfig, redis, LUA.tryOccupySeatScript(), LUA.tryReleaseSeatScript());
+	}
+
+	// the bitmaps and counters as written at start-up
+	@Override
+	protected void initializeEvent(String eventId, String venueId) {
+		new SeatOccupiedService(redis, venueConfig, LUA.releaseLockScript(), LUA.renewLockScript(), Duration.ofSeconds(60))
+				.reinitializeEventInventory(eventId, venueId);
+	}
+
+	@Test
+	@DisplayName("a bitmap rebuilt from MySQL is ORed into the live one, seats sold since stay taken")
+	void mergeZoneInventory_keepsLiveSeats() {
+		// given: A-1 sold after the rebuild read MySQL, which only had B-1
+		assertThat(store.occupy(eventId, VENUE_ID, SeatKey.parse(1, "A", "1"))).isEqualTo(OCCUPIED);
+		byte[] rebuilt = new byte[3];
+		rebuilt[10 >>> 3] = (byte) (0x80 >>> (10 & 7));
+
+		// when
+		Long remaining = redis.execute((RedisCallback<Long>) connection -> connection.scriptingCommands().eval(
+				bytes(LUA.mergeZoneInventoryScript().getScriptAsString()), ReturnType.INTEGER, 5,
+				bytes(RedisKeyUtil.getZoneBitMapKey(eventId, 1)),
+				bytes(RedisKeyUtil.getZoneRemainedSeats(eventId, 1)),
+				bytes(RedisKeyUtil.getZoneBitMapRebuildKey(eventId, 1)),
+				bytes(RedisKeyUtil.getRowRemainedSeats(eventId, 1, 0)),
+				bytes(RedisKeyUtil.getRowRemainedSeats(eventId, 1, 1)),
+				rebuilt, bytes("10"), bytes("20")));
+
+		// then
+		assertThat(remaining).isEqualTo(18L);
+		assertThat(redis.opsForValue().get(RedisKeyUtil.getRowRemainedSeats(eventId, 1, 0))).isEqualTo("9");
+		assertThat(redis.opsForValue().get(RedisKeyUtil.getRowRemainedSeats(eventId, 1, 1))).isEqualTo("9");
+		assertThat(redis.hasKey(RedisKeyUtil.getZoneBitMapRebuildKey(eventId, 1))).isFalse();
+		assertThat(store.occupy(eventId, VENUE_ID, SeatKey.parse(1, "A", "1"))).isEqualTo(ALREADY_OCCUPIED);
+		assertThat(store.occupy(eventId, VENUE_ID, SeatKey.parse(1, "B", "1"))).isEqualTo(ALREADY_OCCUPIED);
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+}
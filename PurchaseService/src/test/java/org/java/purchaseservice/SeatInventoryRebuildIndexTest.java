@@ -0,0 +1,79 @@
+package org.java.purchaseservice;
+
+import org.flywaydb.core.Flyway;
+import org.java.purchaseservice.service.redis.SeatInventoryRebuildService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// EXPLAINs the rebuild's own query against the consumer's migrations; skipped when Docker is not available
+@Testcontainers(disabledWithoutDocker = true)
+class SeatInventoryRebuildIndexTest {
+	private static final int TICKETS_PER_EVENT = 2000;
+
+	@Container
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0").withDatabaseName("ticketing");
+
+	private static JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	static void migrateAndSeed() {
+		Flyway.configure()
+				.dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+				.locations("filesystem:../RabbitCombinedConsumer/src/main/resources/db/migration")
+				.load()
+				.migrate();
+		jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(),
+				MYSQL.getPassword()));
+
+		// enough rows that the optimizer's choices match production instead of favouring full scans
+		jdbcTemplate.update("INSERT INTO venue VALUES ('V1', 'Seattle')");
+		for (int zone = 1; zone <= 4; zone++) {
+			jdbcTemplate.update("INSERT INTO zone VALUES ('V1', ?, ?, 26, 30)", zone, 50 * zone);
+		}
+		List<Object[]> tickets = new ArrayList<>();
+		for (int event = 1; event <= 5; event++) {
+			jdbcTemplate.update("INSERT INTO event VALUES (?, 'V1', 'Concert', 'MUSIC', CURRENT_DATE)", "E" + event);
+			for (int i = 0; i < TICKETS_PER_EVENT; i++) {
+				UUID ticketId = UUID.randomUUID();
+				byte[] ticketIdBytes = ByteBuffer.allocate(16)
+						.putLong(ticketId.getMostSignificantBits())
+						.putLong(ticketId.getLeastSignificantBits())
+						.array();
+				tickets.add(new Object[]{ticketIdBytes, "V1", "E" + event,
+						1 + i % 4, String.valueOf((char) ('A' + i / 30 % 26)), String.valueOf(1 + i % 30), "PAID",
+						Timestamp.from(Instant.now()), 1L});
+			}
+		}
+		jdbcTemplate.batchUpdate("""
+				INSERT INTO ticket(ticket_id, venue_id, event_id, zone_id, row_label, col_label, status, created_on,
+				                   ingest_id) VALUES (?,?,?,?,?,?,?,?,?)
+				""", tickets);
+		jdbcTemplate.execute("ANALYZE TABLE ticket");
+	}
+
+	@Test
+	void soldSeatsQuery_readsOnlyTheCoveringIndex() {
+		List<Map<String, Object>> plan = jdbcTemplate.queryForList("EXPLAIN "
+				+ SeatInventoryRebuildService.SOLD_SEATS_SQL, "E1");
+
+		assertThat(plan).hasSize(1);
+		assertThat(plan.get(0).get("key")).isEqualTo("idx_ticket_event_cover");
+		// "Using index": zone and seat labels come from the index entries, no clustered row is read
+		assertThat((String) plan.get(0).get("Extra")).contains("Using index");
+	}
+}
@@ -0,0 +1,176 @@
+package org.java.purchaseservice;
+
+import org.java.purchaseservice.service.initialize.VenueConfigService;
+import org.java.purchaseservice.service.inventory.SeatInventoryStore;
+import org.java.ticketingcore.seat.SeatKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.java.purchaseservice.service.inventory.SeatInventoryStore.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Behaviour every SeatInventoryStore shares, written against occupySeat.lua and releaseSeat.lua.
+ * Zone 1 has 2 rows of 10 seats, zone 2 the same grid but only 15 sellable seats; zone 3 is not
+ * configured. Every test starts from a fresh event.
+ */
+abstract class SeatInventoryStoreContract {
+	protected static final String VENUE_ID = "V1";
+
+	protected VenueConfigService venueConfig;
+	protected SeatInventoryStore store;
+	protected String eventId;
+
+	protected abstract SeatInventoryStore newStore(VenueConfigService venueConfig);
+
+	// every zone of the venue free, counters at the layout's values
+	protected abstract void initializeEvent(String eventId, String venueId);
+
+	@BeforeEach
+	void setUpStore() {
+		venueConfig = mock(VenueConfigService.class);
+		when(venueConfig.getVenueZones(VENUE_ID)).thenReturn(Set.of(1, 2));
+		layout(1, 2, 10, 20);
+		layout(2, 2, 10, 15);
+
+		store = newStore(venueConfig);
+		eventId = "E-" + UUID.randomUUID();
+		initializeEvent(eventId, VENUE_ID);
+	}
+
+	private void layout(int zoneId, int rowCount, int seatPerRow, int capacity) {
+		when(venueConfig.getRowCount(VENUE_ID, zoneId)).thenReturn(rowCount);
+		when(venueConfig.getSeatPerRow(VENUE_ID, zoneId)).thenReturn(seatPerRow);
+		when(venueConfig.getZoneCapacity(VENUE_ID, zoneId)).thenReturn(capacity);
+	}
+
+	private int occupy(int zoneId, String row, String col) {
+		return store.occupy(eventId, VENUE_ID, SeatKey.parse(zoneId, row, col));
+	}
+
+	private int release(int zoneId, String row, String col) {
+		return store.release(eventId, VENUE_ID, SeatKey.parse(zoneId, row, col));
+	}
+
+	@Test
+	@DisplayName("a free seat is occupied once")
+	void occupyOnce() {
+		assertThat(occupy(1, "A", "1")).isEqualTo(OCCUPIED);
+		assertThat(occupy(1, "A", "1")).isEqualTo(ALREADY_OCCUPIED);
+		assertThat(occupy(1, "A", "2")).isEqualTo(OCCUPIED);
+		assertThat(occupy(1, "B", "1")).isEqualTo(OCCUPIED);
+	}
+
+	@Test
+	@DisplayName("a released seat can be sold again, releasing a free seat changes nothing")
+	void releaseAndResell() {
+		assertThat(release(1, "A", "1")).isEqualTo(NOT_OCCUPIED);
+		assertThat(occupy(1, "A", "1")).isEqualTo(OCCUPIED);
+
+		assertThat(release(1, "A", "1")).isEqualTo(RELEASED);
+		assertThat(release(1, "A", "1")).isEqualTo(NOT_OCCUPIED);
+		assertThat(occupy(1, "A", "1")).isEqualTo(OCCUPIED);
+	}
+
+	@Test
+	@DisplayName("a zone sells its capacity, an occupied seat is reported before a full zone")
+	void zoneFull() {
+		for (int col = 1; col <= 10; col++) {
+			assertThat(occupy(2, "A", String.valueOf(col))).isEqualTo(OCCUPIED);
+		}
+		for (int col = 1; col <= 5; col++) {
+			assertThat(occupy(2, "B", String.valueOf(col))).isEqualTo(OCCUPIED);
+		}
+
+		assertThat(occupy(2, "B", "6")).isEqualTo(ZONE_FULL);
+		assertThat(occupy(2, "A", "1")).isEqualTo(ALREADY_OCCUPIED);
+
+		assertThat(release(2, "A", "1")).isEqualTo(RELEASED);
+		assertThat(occupy(2, "B", "6")).isEqualTo(OCCUPIED);
+		assertThat(occupy(2, "B", "7")).isEqualTo(ZONE_FULL);
+	}
+
+	@Test
+	@DisplayName("rows and columns beyond the layout and unconfigured zones are rejected")
+	void invalidSeats() {
+		assertThatThrownBy(() -> occupy(1, "C", "1")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> release(1, "C", "1")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> occupy(1, "A", "11")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> release(1, "A", "11")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> occupy(3, "A", "1")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	@DisplayName("events do not share seats")
+	void eventsAreIndependent() {
+		String otherEventId = "E-" + UUID.randomUUID();
+		initializeEvent(otherEventId, VENUE_ID);
+
+		assertThat(occupy(1, "A", "1")).isEqualTo(OCCUPIED);
+		assertThat(store.occupy(otherEventId, VENUE_ID, SeatKey.parse(1, "A", "1"))).isEqualTo(OCCUPIED);
+	}
+
+	@Test
+	@DisplayName("racing buyers sell every seat at most once and never more than the zone capacity")
+	void concurrentBuyers() throws Exception {
+		int buyers = 8;
+		List<Long> seats = new ArrayList<>();
+		for (int bit = 0; bit < 20; bit++) {
+			seats.add(SeatKey.fromBitPosition(2, bit, 10));
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(buyers);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Integer>> sold = new ArrayList<>();
+		try {
+			for (int i = 0; i < buyers; i++) {
+				List<Long> order = new ArrayList<>(seats);
+				Collections.shuffle(order);
+				sold.add(pool.submit(() -> {
+					start.await();
+					int count = 0;
+					for (long seat : order) {
+						if (store.occupy(eventId, VENUE_ID, seat) == OCCUPIED) {
+							count++;
+						}
+					}
+					return count;
+				}));
+			}
+			start.countDown();
+
+			int total = 0;
+			for (Future<Integer> f : sold) {
+				total += f.get();
+			}
+			assertThat(total).isEqualTo(15);
+		} finally {
+			pool.shutdownNow();
+		}
+
+		// the counters agree with the bitmap afterwards
+		int occupied = 0;
+		for (long seat : seats) {
+			int res = store.occupy(eventId, VENUE_ID, seat);
+			assertThat(res).isIn(ALREADY_OCCUPIED, ZONE_FULL);
+			if (res == ALREADY_OCCUPIED) {
+				occupied++;
+			}
+		}
+		assertThat(occupied).isEqualTo(15);
+	}
+}
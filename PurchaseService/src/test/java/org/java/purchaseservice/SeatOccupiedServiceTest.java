@@ -0,0 +1,142 @@
+package org.java.purchaseservice;
+
+import org.java.purchaseservice.exception.InventoryBusyException;
+import org.java.purchaseservice.service.initialize.VenueConfigService;
+import org.java.purchaseservice.service.redis.SeatOccupiedService;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SeatOccupiedServiceTest {
+
+	private static final String VERSION_KEY = "event:E1:inventory:version";
+	private static final String LOCK_KEY = "event:E1:inventory:lock";
+
+	private StringRedisTemplate redis;
+	private ValueOperations<String, String> ops;
+	private VenueConfigService venueConfig;
+	private DefaultRedisScript<Long> releaseLock;
+	private DefaultRedisScript<Long> renewLock;
+	private SeatOccupiedService svc;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		redis = mock(StringRedisTemplate.class);
+		ops = mock(ValueOperations.class);
+		venueConfig = mock(VenueConfigService.class);
+		releaseLock = new DefaultRedisScript<>("return 1", Long.class);
+		renewLock = new DefaultRedisScript<>("return 1", Long.class);
+		when(redis.opsForValue()).thenReturn(ops);
+		when(venueConfig.getVenueZones("V1")).thenReturn(Set.of(1));
+		when(venueConfig.getRowCount("V1", 1)).thenReturn(2);
+		when(venueConfig.getSeatPerRow("V1", 1)).thenReturn(10);
+		when(venueConfig.getZoneCapacity("V1", 1)).thenReturn(20);
+
+		svc = new SeatOccupiedService(redis, venueConfig, releaseLock, renewLock, Duration.ofSeconds(60));
+	}
+
+	@Test
+	void ensureEventInventory_whenVersionExists_isNoOp() {
+		when(redis.hasKey(VERSION_KEY)).thenReturn(true);
+
+		assertThat(svc.ensureEventInventory("E1", "V1")).isFalse();
+
+		verify(ops, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+		verify(redis, never()).executePipelined(any(RedisCallback.class));
+	}
+
+	@Test
+	void ensureEventInventory_whenLockHeldByAnotherInstance_skips() {
+		when(redis.hasKey(VERSION_KEY)).thenReturn(false);
+		when(ops.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(false);
+
+		assertThat(svc.ensureEventInventory("E1", "V1")).isFalse();
+
+		verify(redis, never()).executePipelined(any(RedisCallback.class));
+		verify(ops, never()).increment(VERSION_KEY);
+	}
+
+	@Test
+	void ensureEventInventory_whenUnversionedBitmapsExist_adoptsWithoutWiping() {
+		when(redis.hasKey(VERSION_KEY)).thenReturn(false);
+		when(ops.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+		when(redis.countExistingKeys(List.of("event:E1:zone:1:occupied"))).thenReturn(1L);
+
+		assertThat(svc.ensureEventInventory("E1", "V1")).isFalse();
+
+		verify(ops).setIfAbsent(VERSION_KEY, "1");
+		verify(redis, never()).executePipelined(any(RedisCallback.class));
+	}
+
+	@Test
+	void ensureEventInventory_whenAbsent_initializesAndBumpsVersion() {
+		when(redis.hasKey(VERSION_KEY)).thenReturn(false);
+		when(ops.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+		when(redis.countExistingKeys(anyCollection())).thenReturn(0L);
+		when(ops.increment(VERSION_KEY)).thenReturn(1L);
+
+		assertThat(svc.ensureEventInventory("E1", "V1")).isTrue();
+
+		verify(redis).executePipelined(any(RedisCallback.class));
+		verify(ops).increment(VERSION_KEY);
+		// lock released by its owner
+		verify(redis).execute(eq(releaseLock), eq(List.of(LOCK_KEY)), any());
+	}
+
+	@Test
+	void reinitializeEventInventory_whenLockHeld_throwsBusy() {
+		when(ops.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(false);
+
+		assertThatThrownBy(() -> svc.reinitializeEventInventory("E1", "V1"))
+				.isInstanceOf(InventoryBusyException.class);
+
+		verify(redis, never()).executePipelined(any(RedisCallback.class));
+	}
+
+	@Test
+	void reinitializeEventInventory_publishesResync() {
+		when(ops.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+		when(ops.increment(VERSION_KEY)).thenReturn(3L);
+
+		assertThat(svc.reinitializeEventInventory("E1", "V1")).isEqualTo(3L);
+
+		verify(redis).convertAndSend(RedisKeyUtil.getSeatChangeChannel("E1"), RedisKeyUtil.SEAT_CHANGE_RESYNC);
+	}
+
+	@Test
+	void withInitLock_renewsTheLockUntilReleased() throws Exception {
+		// 90ms TTL, renewed every 30ms; the pipelined write outlives the TTL
+		SeatOccupiedService shortLock = new SeatOccupiedService(redis, venueConfig, releaseLock, renewLock,
+				Duration.ofMillis(90));
+		when(ops.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class))).thenReturn(true);
+		when(redis.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+			Thread.sleep(200);
+			return List.of();
+		});
+		when(ops.increment(VERSION_KEY)).thenReturn(2L);
+
+		assertThat(shortLock.reinitializeEventInventory("E1", "V1")).isEqualTo(2L);
+
+		verify(redis, atLeast(2)).execute(eq(renewLock), eq(List.of(LOCK_KEY)), anyString(), eq("90"));
+		verify(redis).execute(eq(releaseLock), eq(List.of(LOCK_KEY)), any());
+		// no renewal once the lock is released
+		clearInvocations(redis);
+		Thread.sleep(100);
+		verify(redis, never()).execute(eq(renewLock), anyList(), any(Object[].class));
+		shortLock.destroy();
+	}
+}
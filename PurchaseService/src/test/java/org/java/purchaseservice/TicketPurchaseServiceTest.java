@@ -5,11 +5,11 @@ import org.java.purchaseservice.dto.TicketRespondDTO;
 import org.java.purchaseservice.exception.CreateTicketException;
 import org.java.purchaseservice.exception.SeatOccupiedException;
 import org.java.purchaseservice.mapper.TicketMapper;
-import org.java.purchaseservice.model.TicketInfo;
-import org.java.purchaseservice.model.TicketStatus;
+import org.java.ticketingcore.model.TicketInfo;
+import org.java.ticketingcore.model.TicketStatus;
 import org.java.purchaseservice.service.messaging.TicketMessagePublisher;
 import org.java.purchaseservice.service.purchase.TicketPurchaseService;
-import org.java.purchaseservice.service.redis.SeatOccupiedRedisFacade;
+import org.java.purchaseservice.service.inventory.SeatOccupancyFacade;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -22,7 +22,7 @@ class TicketPurchaseServiceTest {
 	@Test
 	void purchaseTicket_success_publishesMessageAndReturnsDTO() throws Exception {
 		// mocks
-		SeatOccupiedRedisFacade seat = mock(SeatOccupiedRedisFacade.class);
+		SeatOccupancyFacade seat = mock(SeatOccupancyFacade.class);
 		TicketMessagePublisher messagePublisher = mock(TicketMessagePublisher.class);
 		TicketMapper ticketMapper = mock(TicketMapper.class);
 
@@ -63,6 +63,8 @@ class TicketPurchaseServiceTest {
 			assertThat(msg.getTicketId()).isNotBlank();
 			assertThat(msg.getCreatedOn()).isNotNull();
 			assertThat(msg.getStatus()).isEqualTo(TicketStatus.PAID);
+			// W3C trace-id: the ticket UUID without dashes, 32 lowercase hex chars
+			assertThat(msg.getTraceId()).isEqualTo(msg.getTicketId().replace("-", "")).matches("[0-9a-f]{32}");
 			return true;
 		}));
 
@@ -77,7 +79,7 @@ class TicketPurchaseServiceTest {
 
 	@Test
 	void purchaseTicket_whenSeatAlreadyOccupied_throws_andNoMessagePublished() {
-		SeatOccupiedRedisFacade seat = mock(SeatOccupiedRedisFacade.class);
+		SeatOccupancyFacade seat = mock(SeatOccupancyFacade.class);
 		TicketMessagePublisher messagePublisher = mock(TicketMessagePublisher.class);
 		TicketMapper ticketMapper = mock(TicketMapper.class);
 
@@ -95,7 +97,7 @@ class TicketPurchaseServiceTest {
 
 	@Test
 	void purchaseTicket_whenMessagePublishingFails_releaseSeat_andThrowCreateTicketException() {
-		SeatOccupiedRedisFacade seat = mock(SeatOccupiedRedisFacade.class);
+		SeatOccupancyFacade seat = mock(SeatOccupancyFacade.class);
 		TicketMessagePublisher messagePublisher = mock(TicketMessagePublisher.class);
 		TicketMapper ticketMapper = mock(TicketMapper.class);
 
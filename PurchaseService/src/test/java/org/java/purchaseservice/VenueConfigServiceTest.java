@@ -0,0 +1,78 @@
+package org.java.purchaseservice;
+
+import org.java.purchaseservice.service.initialize.VenueConfigService;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.ValueOperations;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class VenueConfigServiceTest {
+
+	private RedisTemplate<String, Object> redisTemplate;
+	private ValueOperations<String, Object> values;
+	private SetOperations<String, Object> sets;
+	private VenueConfigService svc;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		redisTemplate = mock(RedisTemplate.class);
+		values = mock(ValueOperations.class);
+		sets = mock(SetOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(values);
+		when(redisTemplate.opsForSet()).thenReturn(sets);
+
+		svc = new VenueConfigService(redisTemplate);
+	}
+
+	// the 100 zones of Venue1 as a previous start left them
+	private void storedLayout(int rowCount, int colCount) {
+		for (int zoneId = 1; zoneId <= 100; zoneId++) {
+			when(values.get(RedisKeyUtil.getRowCountKey("Venue1", zoneId))).thenReturn(rowCount);
+			when(values.get(RedisKeyUtil.getSeatPerRowKey("Venue1", zoneId))).thenReturn(colCount);
+			when(values.get(RedisKeyUtil.getZoneCapacityKey("Venue1", zoneId))).thenReturn(rowCount * colCount);
+		}
+		when(sets.isMember(eq(RedisKeyUtil.getZoneSetKey("Venue1")), anyInt())).thenReturn(true);
+	}
+
+	@Test
+	void afterPropertiesSet_onEmptyRedis_seeds() {
+		svc.afterPropertiesSet();
+
+		verify(values).set(RedisKeyUtil.getRowCountKey("Venue1", 1), 26);
+		verify(sets).add(RedisKeyUtil.getZoneSetKey("Venue1"), 100);
+	}
+
+	@Test
+	void afterPropertiesSet_whenLayoutUnchanged_writesNothing() {
+		storedLayout(26, 30);
+
+		svc.afterPropertiesSet();
+
+		verify(values, never()).set(anyString(), any());
+		verify(sets, never()).add(anyString(), any());
+	}
+
+	@Test
+	void afterPropertiesSet_whenLayoutChanged_rewritesIt() {
+		storedLayout(26, 20);
+
+		svc.afterPropertiesSet();
+
+		verify(values).set(RedisKeyUtil.getSeatPerRowKey("Venue1", 1), 30);
+	}
+
+	@Test
+	void initializeVenueZone_reportsWhetherTheLayoutChanged() {
+		storedLayout(26, 30);
+
+		assertThat(svc.initializeVenueZone("Venue1", 1, 26, 30)).isFalse();
+		assertThat(svc.initializeVenueZone("Venue1", 1, 20, 30)).isTrue();
+	}
+}
@@ -0,0 +1,45 @@
+package org.java.queryservice.config;
+
+import org.java.queryservice.service.availability.SeatChangeHub;
+import org.java.queryservice.service.cache.ReferenceDataCache;
+import org.java.queryservice.service.cache.TicketCacheInvalidationListener;
+import org.java.queryservice.service.cache.VenueLayoutListener;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class RedisListenerConfig {
+
+	// one pub/sub connection per instance: ticket cache invalidations, venue layout changes and one PSUBSCRIBE
+	// for all seat changes
+	@Bean
+	public RedisMessageListenerContainer redisListenerContainer(
+			RedisConnectionFactory connectionFactory,
+			TicketCacheInvalidationListener ticketCacheListener,
+			VenueLayoutListener venueLayoutListener,
+			SeatChangeHub seatChangeHub) {
+		RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+		container.setConnectionFactory(connectionFactory);
+		container.setTaskExecutor(redisListenerExecutor());
+		container.addMessageListener(ticketCacheListener, new ChannelTopic(RedisKeyUtil.getTicketInvalidationChannel()));
+		container.addMessageListener(venueLayoutListener, new ChannelTopic(ReferenceDataCache.LAYOUT_CHANNEL));
+		container.addMessageListener(seatChangeHub, new PatternTopic(SeatChangeHub.CHANNEL_PATTERN));
+		return container;
+	}
+
+	// a single dispatcher keeps seat changes in publish order; the default executor starts a thread per message
+	@Bean
+	public ThreadPoolTaskExecutor redisListenerExecutor() {
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(1);
+		executor.setMaxPoolSize(1);
+		executor.setThreadNamePrefix("redis-listener-");
+		return executor;
+	}
+}
@@ -0,0 +1,68 @@
+package org.java.queryservice.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+// only active when reader hosts are configured, otherwise Boot's single datasource stays in place
+@Slf4j
+@Configuration
+@EnableScheduling
+@ConditionalOnExpression("!'${query.datasource.readers.hosts:}'.isBlank()")
+public class ReadReplicaDataSourceConfig {
+
+	// the spring.datasource.* settings Boot would have used for its own pool
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariDataSource writerDataSource(DataSourceProperties properties) {
+		HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		dataSource.setPoolName("query-writer");
+		return dataSource;
+	}
+
+	@Bean
+	public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(
+			HikariDataSource writerDataSource,
+			MeterRegistry meterRegistry,
+			@Value("${query.datasource.readers.hosts}") String hosts,
+			@Value("${query.datasource.readers.default-port:3306}") int defaultPort,
+			@Value("${query.datasource.readers.maximum-pool-size:30}") int poolSize,
+			@Value("${query.datasource.readers.max-lag:PT2S}") Duration maxLag,
+			@Value("${query.datasource.readers.lag-query:}") String lagQuery) {
+		List<String> readerUrls = Arrays.stream(hosts.split(","))
+				.map(String::trim)
+				.filter(StringUtils::hasText)
+				.map(host -> readerUrl(writerDataSource.getJdbcUrl(), host, defaultPort))
+				.toList();
+		log.info("[ReadReplicaDataSourceConfig] read-only transactions routed to {} reader(s), maxLag={}",
+				readerUrls.size(), maxLag);
+		return new ReadReplicaRoutingDataSource(writerDataSource, readerUrls, poolSize, maxLag, lagQuery,
+				meterRegistry);
+	}
+
+	@Bean
+	@Primary
+	public LazyConnectionDataSourceProxy dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+		return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+	}
+
+	// writer URL with its host:port swapped, database and driver parameters stay identical
+	static String readerUrl(String writerUrl, String host, int defaultPort) {
+		String hostAndPort = host.contains(":") ? host : host + ":" + defaultPort;
+		return writerUrl.replaceFirst("//[^/]+/", "//" + hostAndPort + "/");
+	}
+}
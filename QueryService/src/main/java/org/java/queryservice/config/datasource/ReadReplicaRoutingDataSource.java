@@ -0,0 +1,197 @@
+package org.java.queryservice.config.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to the reader endpoints, round robin, and everything
+ * else to the writer. A reader only takes traffic while its last lag check succeeded and reported a
+ * replica lag within the configured bound; with no healthy reader, or when a reader refuses a
+ * connection, reads fall back to the writer.
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager opens the connection
+ * before the read-only flag of the transaction is published, the proxy defers that until the first
+ * statement.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+	private static final long UNKNOWN_LAG = -1;
+	private static final int LAG_QUERY_TIMEOUT_SECONDS = 2;
+
+	private final HikariDataSource writer;
+	private final List<Reader> readers;
+	private final AtomicInteger nextReader = new AtomicInteger();
+	private final long maxLagMs;
+	private final String lagQuery;
+	private final Counter readerRoutes;
+	private final Counter writerRoutes;
+
+	public ReadReplicaRoutingDataSource(HikariDataSource writer, List<String> readerUrls, int readerPoolSize,
+	                                    Duration maxLag, String lagQuery, MeterRegistry meterRegistry) {
+		this.writer = writer;
+		this.maxLagMs = maxLag.toMillis();
+		this.lagQuery = lagQuery;
+		this.readers = new ArrayList<>(readerUrls.size());
+		for (int i = 0; i < readerUrls.size(); i++) {
+			Reader reader = new Reader("query-reader-" + (i + 1),
+					readerPool(writer, readerUrls.get(i), "query-reader-" + (i + 1), readerPoolSize, meterRegistry));
+			Gauge.builder("query.datasource.replica.lag", reader, r -> r.lagMs)
+					.description("Replica lag of the reader in ms from the last check, -1 when unknown")
+					.tag("reader", reader.name)
+					.register(meterRegistry);
+			readers.add(reader);
+		}
+		this.readerRoutes = routeCounter(meterRegistry, "reader");
+		this.writerRoutes = routeCounter(meterRegistry, "writer");
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return writer.getConnection();
+		}
+		Reader reader = pickHealthyReader();
+		if (reader != null) {
+			try {
+				Connection connection = reader.pool.getConnection();
+				readerRoutes.increment();
+				return connection;
+			} catch (SQLException e) {
+				// out of rotation until the next lag check sees it again
+				reader.healthy = false;
+				log.warn("[ReadReplicaRouting] {} refused a connection, reading from the writer: {}", reader.name,
+						e.getMessage());
+			}
+		}
+		writerRoutes.increment();
+		return writer.getConnection();
+	}
+
+	// the writer's pool decides, as for every connection that is not a read; Hikari itself rejects per-call
+	// credentials with SQLFeatureNotSupportedException, the SQLException callers are prepared for
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		return writer.getConnection(username, password);
+	}
+
+	@Scheduled(fixedDelayString = "${query.datasource.readers.lag-check-interval-ms:1000}")
+	public void checkReaders() {
+		for (Reader reader : readers) {
+			boolean wasHealthy = reader.healthy;
+			long lag;
+			try {
+				lag = measureLagMs(reader);
+			} catch (Exception e) {
+				lag = UNKNOWN_LAG;
+				log.debug("[ReadReplicaRouting] lag check failed on {}: {}", reader.name, e.getMessage());
+			}
+			reader.lagMs = lag;
+			reader.healthy = lag != UNKNOWN_LAG && lag <= maxLagMs;
+			if (reader.healthy != wasHealthy) {
+				log.info("[ReadReplicaRouting] {} {} (lagMs={}, maxLagMs={})", reader.name,
+						reader.healthy ? "back in rotation" : "out of rotation", lag, maxLagMs);
+			}
+		}
+	}
+
+	// round robin, skipping readers that failed their last check
+	private Reader pickHealthyReader() {
+		int start = nextReader.getAndIncrement();
+		for (int i = 0; i < readers.size(); i++) {
+			Reader reader = readers.get(Math.floorMod(start + i, readers.size()));
+			if (reader.healthy) {
+				return reader;
+			}
+		}
+		return null;
+	}
+
+	private long measureLagMs(Reader reader) throws SQLException {
+		try (Connection connection = reader.pool.getConnection();
+		     Statement statement = connection.createStatement()) {
+			statement.setQueryTimeout(LAG_QUERY_TIMEOUT_SECONDS);
+			if (StringUtils.hasText(lagQuery)) {
+				// custom query returns the lag in ms, no row means unknown
+				try (ResultSet rs = statement.executeQuery(lagQuery)) {
+					if (!rs.next()) {
+						return UNKNOWN_LAG;
+					}
+					long lag = rs.getLong(1);
+					return rs.wasNull() ? UNKNOWN_LAG : lag;
+				}
+			}
+			try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+				if (!rs.next()) {
+					// not a replica, nothing to lag behind
+					return 0;
+				}
+				// null while the replication threads are stopped
+				long seconds = rs.getLong("Seconds_Behind_Source");
+				return rs.wasNull() ? UNKNOWN_LAG : seconds * 1000;
+			}
+		}
+	}
+
+	@Override
+	public void destroy() {
+		readers.forEach(reader -> reader.pool.close());
+	}
+
+	// same driver settings and credentials as the writer, only the host and pool differ
+	private static HikariDataSource readerPool(HikariDataSource writer, String url, String poolName, int poolSize,
+	                                           MeterRegistry meterRegistry) {
+		HikariConfig config = new HikariConfig();
+		writer.copyStateTo(config);
+		config.setJdbcUrl(url);
+		config.setPoolName(poolName);
+		config.setMaximumPoolSize(poolSize);
+		// -1 (unset) means as many as the maximum, and the setter rejects it
+		if (config.getMinimumIdle() > poolSize) {
+			config.setMinimumIdle(poolSize);
+		}
+		config.setReadOnly(true);
+		config.setMetricRegistry(null);
+		config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+		// start without a connection so a reader that is down does not stop the service from starting
+		config.setInitializationFailTimeout(-1);
+		return new HikariDataSource(config);
+	}
+
+	private static Counter routeCounter(MeterRegistry meterRegistry, String target) {
+		return Counter.builder("query.datasource.read.routes")
+				.description("Read-only transactions by the endpoint that served them")
+				.tag("target", target)
+				.register(meterRegistry);
+	}
+
+	private static final class Reader {
+		private final String name;
+		private final HikariDataSource pool;
+		// writer serves reads until the first check has passed
+		private volatile boolean healthy;
+		private volatile long lagMs = UNKNOWN_LAG;
+
+		Reader(String name, HikariDataSource pool) {
+			this.name = name;
+			this.pool = pool;
+		}
+	}
+}
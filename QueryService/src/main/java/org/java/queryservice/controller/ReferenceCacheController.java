@@ -0,0 +1,40 @@
+package org.java.queryservice.controller;
+
+import org.java.queryservice.dto.CacheRegionStatsDTO;
+import org.java.queryservice.service.cache.ReferenceDataCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+// operator endpoints for the Venue/Zone/Event second-level cache
+@RestController
+@RequestMapping("/api/v1/cache/reference")
+public class ReferenceCacheController {
+	private final ReferenceDataCache referenceDataCache;
+
+	public ReferenceCacheController(ReferenceDataCache referenceDataCache) {
+		this.referenceDataCache = referenceDataCache;
+	}
+
+	@GetMapping("/stats")
+	public ResponseEntity<List<CacheRegionStatsDTO>> stats() {
+		return ResponseEntity.ok(referenceDataCache.stats());
+	}
+
+	@DeleteMapping("/venues/{venueId}")
+	public ResponseEntity<Void> evictVenue(@PathVariable("venueId") String venueId) {
+		referenceDataCache.evictVenue(venueId);
+		return ResponseEntity.noContent().build();
+	}
+
+	@DeleteMapping
+	public ResponseEntity<Void> evictAll() {
+		referenceDataCache.evictAll();
+		return ResponseEntity.noContent().build();
+	}
+}
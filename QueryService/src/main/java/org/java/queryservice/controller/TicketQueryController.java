@@ -1,27 +1,63 @@
 package org.java.queryservice.controller;
 
 import org.java.queryservice.dto.ErrorMessage;
+import org.java.queryservice.dto.EventAvailabilityDTO;
+import org.java.queryservice.dto.SalesSummaryDTO;
+import org.java.queryservice.dto.SalesVersionDTO;
 import org.java.queryservice.dto.TicketInfoDTO;
+import org.java.queryservice.dto.TicketLookupDTO;
+import org.java.queryservice.dto.TicketLookupRequestDTO;
+import org.java.queryservice.dto.TicketPageDTO;
+import org.java.queryservice.dto.TicketSearchDTO;
+import org.java.queryservice.dto.TicketSearchPageDTO;
 import org.java.queryservice.exception.TicketNotFoundException;
 import org.java.queryservice.service.QueryServiceInterface;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1")
 public class TicketQueryController {
+	private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+	private static final String SERVER_TIMING_HEADER = "Server-Timing";
+	private static final String ALLOCATED_BYTES_HEADER = "X-Query-Allocated-Bytes";
+	private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+	private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+	private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
 
 	private final QueryServiceInterface queryService;
+	private final CacheControl ticketCacheControl;
+	private final Duration defaultStaleness;
 
-	public TicketQueryController(QueryServiceInterface queryService) {
+	public TicketQueryController(
+			QueryServiceInterface queryService,
+			@Value("${query.http-cache.ticket-max-age:PT1M}") Duration ticketMaxAge,
+			@Value("${query.aggregate-cache.default-staleness-ms:10000}") long defaultStalenessMs) {
 		this.queryService = queryService;
+		this.defaultStaleness = Duration.ofMillis(defaultStalenessMs);
+		// per-ticket data, only the caller's own cache may keep it
+		this.ticketCacheControl = CacheControl.maxAge(ticketMaxAge).cachePrivate();
 	}
 
 	@GetMapping("/health")
@@ -29,35 +65,158 @@ public class TicketQueryController {
 		return ResponseEntity.ok("Query Service is healthy! Available endpoints: /tickets/{id}, /tickets, /tickets/count/{eventId}");
 	}
 
+	// revalidation goes through TicketCache, so a 304 usually costs no database read;
+	// ETag only: a status change keeps created_on, so it cannot serve as Last-Modified
 	@GetMapping("/tickets/{ticketId}")
-	public ResponseEntity<?> getTicket(@PathVariable("ticketId") String ticketId) {
+	public ResponseEntity<?> getTicket(@PathVariable("ticketId") String ticketId, WebRequest request) {
 		try {
 			TicketInfoDTO ticketInfoDTO = queryService.getTicket(ticketId);
-			return ResponseEntity.ok(ticketInfoDTO);
+			String etag = "\"" + ticketInfoDTO.getStatus() + "-" + ticketInfoDTO.getCreatedOn().toEpochMilli() + "\"";
+			if (request.checkNotModified(etag)) {
+				return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(ticketCacheControl).build();
+			}
+			return ResponseEntity.ok().eTag(etag).cacheControl(ticketCacheControl).body(ticketInfoDTO);
 		} catch (TicketNotFoundException e) {
 			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(new ErrorMessage("TicketID not found: " + ticketId));
 		}
 	}
 
+	// bulk resolve, e.g. scanning gates: {"ticketIds": [...]} -> found tickets plus the ids that do not exist
+	@PostMapping("/tickets/lookup")
+	public ResponseEntity<TicketLookupDTO> lookupTickets(@RequestBody TicketLookupRequestDTO request) {
+		return ResponseEntity.ok(queryService.lookupTickets(request.getTicketIds()));
+	}
+
+	// keyset pagination: pass the X-Next-Cursor header of a page as "after" to get the next one
 	@GetMapping("/tickets")
-	public ResponseEntity<List<TicketInfoDTO>> getAllSoldTickets() {
-		List<TicketInfoDTO> tickets = queryService.getAllSoldTickets();
-		return ResponseEntity.ok(tickets);
+	public ResponseEntity<List<TicketInfoDTO>> getSoldTickets(
+			@RequestParam(value = "after", required = false) String after,
+			@RequestParam(value = "limit", defaultValue = "100") int limit) {
+		TicketPageDTO page = queryService.getSoldTicketsPage(after, limit);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (page.getNextCursor() != null) {
+			response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+		}
+		return response.body(page.getTickets());
 	}
 
+	// filters: eventId, zoneId, status, createdFrom/createdTo (ISO-8601 instants); paged like /tickets.
+	// Server-Timing and X-Query-Allocated-Bytes report what the query cost
+	@GetMapping("/tickets/search")
+	public ResponseEntity<List<TicketInfoDTO>> searchTickets(
+			@ModelAttribute TicketSearchDTO filter,
+			@RequestParam(value = "after", required = false) String after,
+			@RequestParam(value = "limit", defaultValue = "100") int limit) {
+		TicketSearchPageDTO page = queryService.searchTickets(filter, after, limit);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+				.header(SERVER_TIMING_HEADER, String.format("db;dur=%.3f", page.getElapsedMicros() / 1000.0))
+				.header(ALLOCATED_BYTES_HEADER, String.valueOf(page.getAllocatedBytes()));
+		if (page.getNextCursor() != null) {
+			response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+		}
+		return response.body(page.getTickets());
+	}
+
+	// every ticket (optionally of one event) as NDJSON, streamed straight from the result set
+	@GetMapping(value = "/tickets", params = "format=ndjson")
+	public ResponseEntity<StreamingResponseBody> streamSoldTickets(
+			@RequestParam(value = "eventId", required = false) String eventId) {
+		StreamingResponseBody body = out -> queryService.streamSoldTickets(eventId, out);
+		return ResponseEntity.ok()
+				.contentType(NDJSON)
+				.body(body);
+	}
+
+	// one event's sales as a CSV download, gzip=true compresses it on the fly (.csv.gz)
+	@GetMapping("/tickets/export/{eventId}")
+	public ResponseEntity<StreamingResponseBody> exportSales(
+			@PathVariable("eventId") String eventId,
+			@RequestParam(value = "gzip", defaultValue = "false") boolean gzip) {
+		StreamingResponseBody body = out -> queryService.exportSales(eventId, gzip, out);
+		String filename = "sales-" + eventId + (gzip ? ".csv.gz" : ".csv");
+		return ResponseEntity.ok()
+				.contentType(gzip ? GZIP : CSV)
+				.header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build()
+						.toString())
+				.body(body);
+	}
+
+	// maxStalenessMs: how old an answer the caller accepts, 0 reads the rollup directly
 	@GetMapping("/tickets/count/{eventId}")
-	public ResponseEntity<String> countSoldByEvent(@PathVariable("eventId") String eventId) {
-		int count = queryService.countTicketSoldByEvent(eventId);
-		String message = String.format("Tickets sold for event %s is %d", eventId, count);
-		return ResponseEntity.ok(message);
+	public ResponseEntity<String> countSoldByEvent(
+			@PathVariable("eventId") String eventId,
+			@RequestParam(value = "maxStalenessMs", required = false) Long maxStalenessMs,
+			WebRequest request) {
+		Duration staleness = staleness(maxStalenessMs);
+		return conditionalOnSales(eventId, staleness, request, () -> {
+			int count = queryService.countTicketSoldByEvent(eventId, staleness);
+			return String.format("Tickets sold for event %s is %d", eventId, count);
+		});
+	}
+
+	@GetMapping("/tickets/summary/{eventId}")
+	public ResponseEntity<SalesSummaryDTO> getSalesSummary(@PathVariable("eventId") String eventId) {
+		return ResponseEntity.ok(queryService.getSalesSummary(eventId));
+	}
+
+	// live seats from the purchase inventory in Redis, ahead of the MySQL-based count by the whole pipeline
+	@GetMapping("/tickets/availability/{venueId}/{eventId}")
+	public ResponseEntity<EventAvailabilityDTO> getAvailability(
+			@PathVariable("venueId") String venueId,
+			@PathVariable("eventId") String eventId) {
+		return ResponseEntity.ok(queryService.getAvailability(venueId, eventId));
+	}
+
+	// SSE: a "snapshot" event, then "delta" events with the seats taken/released per tick; on "resync" re-read
+	// the endpoint above. zoneId limits the deltas to one zone
+	@GetMapping(value = "/tickets/availability/{venueId}/{eventId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter streamAvailability(
+			@PathVariable("venueId") String venueId,
+			@PathVariable("eventId") String eventId,
+			@RequestParam(value = "zoneId", required = false) Integer zoneId) {
+		return queryService.streamAvailability(venueId, eventId, zoneId);
 	}
 
 	@GetMapping("/tickets/revenue/{venueId}/{eventId}")
 	public ResponseEntity<String> getRevenue(
 			@PathVariable("venueId") String venueId,
-			@PathVariable("eventId") String eventId) {
-		BigDecimal revenue = queryService.sumRevenueByVenueAndEvent(venueId, eventId);
-		String message = String.format("Revenue for event %s in venue %s: $%s", eventId, venueId, revenue);
-		return ResponseEntity.ok(message);
+			@PathVariable("eventId") String eventId,
+			@RequestParam(value = "maxStalenessMs", required = false) Long maxStalenessMs,
+			WebRequest request) {
+		Duration staleness = staleness(maxStalenessMs);
+		return conditionalOnSales(eventId, staleness, request, () -> {
+			BigDecimal revenue = queryService.sumRevenueByVenueAndEvent(venueId, eventId, staleness);
+			return String.format("Revenue for event %s in venue %s: $%s", eventId, venueId, revenue);
+		});
+	}
+
+	private Duration staleness(Long maxStalenessMs) {
+		return maxStalenessMs == null ? defaultStaleness : Duration.ofMillis(maxStalenessMs);
+	}
+
+	// validators come from the rollup version, checked before the answer is computed so a match skips it;
+	// the version is read first, a write in between only makes the body newer than its ETag.
+	// Edge caches may keep the answer until it is as stale as the caller accepts, counting the time it
+	// already spent in the aggregate cache, and revalidate after that. Event-wide totals, nothing per buyer,
+	// so they are public unlike tickets
+	private ResponseEntity<String> conditionalOnSales(String eventId, Duration staleness, WebRequest request,
+	                                                  Supplier<String> answer) {
+		SalesVersionDTO version = queryService.getSalesVersion(eventId, staleness);
+		String etag = "\"" + version.getVersion() + "\"";
+		long lastModified = version.getLastModified() == null ? -1 : version.getLastModified().toEpochMilli();
+		Duration maxAge = staleness.minusMillis(version.getAgeMillis());
+		CacheControl cacheControl = maxAge.toSeconds() > 0
+				? CacheControl.maxAge(maxAge).cachePublic()
+				: CacheControl.noCache().cachePublic();
+
+		boolean notModified = request.checkNotModified(etag, lastModified);
+		ResponseEntity.BodyBuilder response = notModified
+				? ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+				: ResponseEntity.ok();
+		response.eTag(etag).cacheControl(cacheControl);
+		if (lastModified >= 0) {
+			response.lastModified(lastModified);
+		}
+		return notModified ? response.build() : response.body(answer.get());
 	}
 }
\ No newline at end of file
@@ -0,0 +1,19 @@
+package org.java.queryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheRegionStatsDTO {
+	private String region;
+	private long hits;
+	private long misses;
+	private long puts;
+	private double hitRatio; // hits / (hits + misses), 0 before the first lookup
+	private long elementsInMemory; // -1 when the JCache provider does not report it
+}
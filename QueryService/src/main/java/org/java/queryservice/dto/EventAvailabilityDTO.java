@@ -0,0 +1,23 @@
+package org.java.queryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventAvailabilityDTO {
+	private String eventId;
+	private String venueId;
+	// changes whenever the inventory is re-initialized or rebuilt
+	private long inventoryVersion;
+	private long sold;
+	private long remaining;
+	private long capacity;
+	private List<ZoneAvailabilityDTO> zones;
+}
@@ -0,0 +1,24 @@
+package org.java.queryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// validator of an event's count/revenue answers: sum of the rollup row versions and their newest updated_at
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SalesVersionDTO {
+	private long version;
+	private Instant lastModified; // null while the event has no sales
+	private long ageMillis; // age of the cached aggregate it was read from, 0 when read from the rollup
+
+	// read straight from the rollup
+	public SalesVersionDTO(long version, Instant lastModified) {
+		this(version, lastModified, 0);
+	}
+}
@@ -0,0 +1,18 @@
+package org.java.queryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// one SSE "delta" frame: the zones of the event that changed since the previous tick
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class SeatDeltaDTO {
+	private String eventId;
+	private List<ZoneDeltaDTO> zones;
+}
@@ -4,7 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
-import org.java.queryservice.model.TicketStatus;
+import org.java.ticketingcore.model.TicketStatus;
 
 import java.time.Instant;
 
@@ -0,0 +1,18 @@
+package org.java.queryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// found tickets and the requested ids without a ticket, both in request order with duplicates removed
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketLookupDTO {
+	private List<TicketInfoDTO> tickets;
+	private List<String> missing;
+}
@@ -0,0 +1,17 @@
+package org.java.queryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketPageDTO {
+	private List<TicketInfoDTO> tickets;
+	private String nextCursor; // null on the last page
+}
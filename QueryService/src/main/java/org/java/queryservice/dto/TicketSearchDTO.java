@@ -0,0 +1,22 @@
+package org.java.queryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.java.ticketingcore.model.TicketStatus;
+
+import java.time.Instant;
+
+// ticket search filters, bound from the query string; null fields are not filtered on
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketSearchDTO {
+	private String eventId;
+	private Integer zoneId;
+	private TicketStatus status;
+	private Instant createdFrom; // inclusive
+	private Instant createdTo;   // exclusive
+}
@@ -0,0 +1,19 @@
+package org.java.queryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TicketSearchPageDTO {
+	private List<TicketInfoDTO> tickets;
+	private String nextCursor; // null on the last page
+	private long elapsedMicros;
+	private long allocatedBytes; // heap allocated by the request thread for the query, -1 if the JVM cannot tell
+}
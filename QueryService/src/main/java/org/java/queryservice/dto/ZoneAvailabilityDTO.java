@@ -0,0 +1,17 @@
+package org.java.queryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ZoneAvailabilityDTO {
+	private int zoneId;
+	private long sold;
+	private long remaining;
+	private long capacity;
+}
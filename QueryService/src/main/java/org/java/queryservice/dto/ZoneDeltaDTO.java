@@ -0,0 +1,21 @@
+package org.java.queryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+// seats as "row-col"; truncated means too many changes for one frame, re-read the zone's availability
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ZoneDeltaDTO {
+	private int zoneId;
+	private List<String> taken;
+	private List<String> released;
+	private long remaining;
+	private boolean truncated;
+}
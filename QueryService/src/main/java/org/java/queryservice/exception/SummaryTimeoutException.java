@@ -0,0 +1,8 @@
+package org.java.queryservice.exception;
+
+// answered with 503 and Retry-After by GeneralExceptionHandler
+public class SummaryTimeoutException extends RuntimeException {
+	public SummaryTimeoutException(String message) {
+		super(message);
+	}
+}
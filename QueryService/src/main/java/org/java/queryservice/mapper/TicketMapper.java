@@ -2,9 +2,12 @@ package org.java.queryservice.mapper;
 
 import org.java.queryservice.dto.TicketInfoDTO;
 import org.java.queryservice.model.TicketInfo;
+import org.java.queryservice.repository.mysql.TicketRow;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
+import java.util.UUID;
+
 @Mapper(componentModel = "spring")
 public interface TicketMapper {
 
@@ -12,4 +15,11 @@ public interface TicketMapper {
 	@Mapping(source = "row", target = "row")
 	@Mapping(source = "column", target = "column")
 	TicketInfoDTO toInfoDto(TicketInfo entity);
+
+	// search projection -> DTO, same field names as the entity
+	TicketInfoDTO toInfoDto(TicketRow row);
+
+	default String toTicketId(UUID ticketId) {
+		return ticketId == null ? null : ticketId.toString();
+	}
 }
@@ -0,0 +1,42 @@
+package org.java.queryservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// sales rollup written by the consumer together with each ticket insert, read-only here
+@Entity
+@Table(name = "event_zone_sales")
+@IdClass(EventZoneSalesId.class)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventZoneSales {
+	@Id
+	@Column(name = "event_id")
+	private String eventId;
+
+	@Id
+	@Column(name = "venue_id")
+	private String venueId;
+
+	@Id
+	@Column(name = "zone_id")
+	private int zoneId;
+
+	@Column(name = "ticket_count", nullable = false)
+	private long ticketCount;
+
+	@Column(name = "revenue", nullable = false)
+	private BigDecimal revenue;
+
+	@Column(name = "version", nullable = false)
+	private long version;
+
+	@Column(name = "updated_at", nullable = false)
+	private Instant updatedAt;
+}
@@ -0,0 +1,16 @@
+package org.java.queryservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class EventZoneSalesId implements Serializable {
+	private String eventId;
+	private String venueId;
+	private int zoneId;
+}
@@ -4,8 +4,12 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.java.ticketingcore.model.TicketStatus;
 
 import java.time.Instant;
+import java.util.UUID;
 
 @Entity
 @Table(name = "ticket")
@@ -13,9 +17,11 @@ import java.time.Instant;
 @AllArgsConstructor
 @NoArgsConstructor
 public class TicketInfo {
+	// BINARY(16), big-endian like MySQL UUID_TO_BIN without swap, so byte order matches string order
 	@Id
-	@Column(name = "ticket_id")
-	private String ticketId;
+	@Column(name = "ticket_id", columnDefinition = "binary(16)")
+	@JdbcTypeCode(SqlTypes.BINARY)
+	private UUID ticketId;
 
 	@Column(name = "venue_id")
 	private String venueId;
@@ -4,11 +4,15 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
 @Table(name = "venue")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -18,5 +22,6 @@ public class Venue {
 	private String venueId;
 
 	@OneToMany(mappedBy = "venue", cascade = CascadeType.ALL, fetch =  FetchType.LAZY)
+	@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 	private List<Zone> zones;
 }
@@ -5,15 +5,25 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "zone")
+@IdClass(ZoneId.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class Zone {
+	// zone ids repeat across venues, the key is (venue_id, zone_id)
+	@Id
+	@Column(name = "venue_id")
+	private String venueId;
+
 	@Id
 	@Column(name = "zone_id")
 	private int zoneId;
@@ -24,7 +34,7 @@ public class Zone {
 	private int colCount;
 
 	@ManyToOne(fetch = FetchType.LAZY)
-	@JoinColumn(name = "venue_id")
+	@JoinColumn(name = "venue_id", insertable = false, updatable = false)
 	@ToString.Exclude
 	private Venue venue;
 }
@@ -0,0 +1,15 @@
+package org.java.queryservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ZoneId implements Serializable {
+	private String venueId;
+	private int zoneId;
+}
@@ -2,8 +2,16 @@ package org.java.queryservice.repository.mysql;
 
 import org.java.queryservice.model.Event;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
 public interface EventRepository extends JpaRepository<Event, String> {
-}
\ No newline at end of file
+
+	// the foreign key column only, the venue itself is not loaded
+	@Query("SELECT e.venueID.venueId FROM Event e WHERE e.eventId = :eventId")
+	Optional<String> findVenueIdByEventId(@Param("eventId") String eventId);
+}
@@ -0,0 +1,41 @@
+package org.java.queryservice.repository.mysql;
+
+import org.java.queryservice.dto.SalesVersionDTO;
+import org.java.queryservice.model.EventZoneSales;
+import org.java.queryservice.model.EventZoneSalesId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+// both sums read at most one row per zone through the (event_id, venue_id, zone_id) primary key
+@Repository
+public interface EventZoneSalesRepository extends JpaRepository<EventZoneSales, EventZoneSalesId> {
+
+	@Query("select coalesce(sum(s.ticketCount), 0) from EventZoneSales s where s.eventId = :eventId")
+	long sumTicketCountByEventId(@Param("eventId") String eventId);
+
+	@Query("""
+			select coalesce(sum(s.revenue), 0)
+			from EventZoneSales s
+			where s.eventId = :eventId and s.venueId = :venueId
+			""")
+	BigDecimal sumRevenueByVenueAndEvent(@Param("venueId") String venueId, @Param("eventId") String eventId);
+
+	// validator for conditional requests: the rows the sums read, reduced to their versions
+	@Query("""
+			select new org.java.queryservice.dto.SalesVersionDTO(coalesce(sum(s.version), 0), max(s.updatedAt))
+			from EventZoneSales s
+			where s.eventId = :eventId
+			""")
+	SalesVersionDTO findSalesVersionByEventId(@Param("eventId") String eventId);
+
+	List<EventZoneSales> findByEventId(String eventId);
+
+	// zone rows changed since a watermark, for incremental refreshes of EventAggregateCache
+	List<EventZoneSales> findByEventIdAndUpdatedAtGreaterThanEqual(String eventId, Instant updatedAt);
+}
@@ -1,23 +1,40 @@
 package org.java.queryservice.repository.mysql;
 
 import org.java.queryservice.model.TicketInfo;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Repository
-public interface TicketInfoRepository extends JpaRepository<TicketInfo, String> {
+public interface TicketInfoRepository extends JpaRepository<TicketInfo, UUID> {
 
-	int countByEventId(String eventId);
+	// keyset pages in primary key order: the next page starts after the last ticket id returned
+	List<TicketInfo> findAllByOrderByTicketIdAsc(Limit limit);
 
-	@Query(value = """
-			select coalesce(sum(z.ticket_price), 0)
-			from ticket t
-					join zone z on z.zone_id = t.zone_id
-			where t.venue_id = :venueId and t.event_id = :eventId
-			""", nativeQuery = true)
-	BigDecimal sumRevenueByVenueAndEvent(@Param("venueId") String venueId, @Param("eventId") String eventId);
-}
\ No newline at end of file
+	List<TicketInfo> findByTicketIdGreaterThanOrderByTicketIdAsc(UUID ticketId, Limit limit);
+
+	// ticket cache refills read the writer (a read-write transaction), a lagging reader would put the row the
+	// consumer just invalidated back into Redis for the whole cache TTL
+	@Override
+	@Transactional
+	Optional<TicketInfo> findById(UUID ticketId);
+
+	// bulk lookup by primary key into the search projection, no entities; callers keep the IN list bounded.
+	// Also a cache refill, so it reads the writer as well
+	@Transactional
+	@Query("""
+			select new org.java.queryservice.repository.mysql.TicketRow(
+			    t.ticketId, t.venueId, t.eventId, t.zoneId, t.row, t.column, t.status, t.createdOn)
+			from TicketInfo t
+			where t.ticketId in :ticketIds
+			""")
+	List<TicketRow> findRowsByTicketIdIn(@Param("ticketIds") Collection<UUID> ticketIds);
+}
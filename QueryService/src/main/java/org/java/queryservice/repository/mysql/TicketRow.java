@@ -0,0 +1,11 @@
+package org.java.queryservice.repository.mysql;
+
+import org.java.ticketingcore.model.TicketStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+// ticket columns selected with a JPQL/Criteria constructor expression, never a managed entity
+public record TicketRow(UUID ticketId, String venueId, String eventId, int zoneId, String row, String column,
+                        TicketStatus status, Instant createdOn) {
+}
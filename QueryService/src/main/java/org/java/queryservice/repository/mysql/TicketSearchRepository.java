@@ -0,0 +1,68 @@
+package org.java.queryservice.repository.mysql;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.java.queryservice.dto.TicketSearchDTO;
+import org.java.queryservice.model.TicketInfo;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+// Filtered ticket search built with the Criteria API. Only the selected columns are read, into TicketRow
+// through a constructor expression, so no TicketInfo entity is created or kept in the persistence context
+@Repository
+public class TicketSearchRepository {
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	// keyset page in ticket_id order, rows are handed to the consumer as they come off the cursor
+	public void search(TicketSearchDTO filter, UUID afterTicketId, int limit, Consumer<TicketRow> consumer) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<TicketRow> query = cb.createQuery(TicketRow.class);
+		Root<TicketInfo> ticket = query.from(TicketInfo.class);
+		query.select(cb.construct(TicketRow.class,
+				ticket.get("ticketId"), ticket.get("venueId"), ticket.get("eventId"), ticket.get("zoneId"),
+				ticket.get("row"), ticket.get("column"), ticket.get("status"), ticket.get("createdOn")));
+
+		List<Predicate> where = new ArrayList<>();
+		if (filter.getEventId() != null) {
+			where.add(cb.equal(ticket.get("eventId"), filter.getEventId()));
+		}
+		if (filter.getZoneId() != null) {
+			where.add(cb.equal(ticket.get("zoneId"), filter.getZoneId()));
+		}
+		if (filter.getStatus() != null) {
+			where.add(cb.equal(ticket.get("status"), filter.getStatus()));
+		}
+		if (filter.getCreatedFrom() != null) {
+			where.add(cb.greaterThanOrEqualTo(ticket.<Instant>get("createdOn"), filter.getCreatedFrom()));
+		}
+		if (filter.getCreatedTo() != null) {
+			where.add(cb.lessThan(ticket.<Instant>get("createdOn"), filter.getCreatedTo()));
+		}
+		if (afterTicketId != null) {
+			where.add(cb.greaterThan(ticket.<UUID>get("ticketId"), afterTicketId));
+		}
+		query.where(where.toArray(Predicate[]::new))
+				.orderBy(cb.asc(ticket.get("ticketId")));
+
+		// fetch size MIN_VALUE makes Connector/J stream the rows instead of buffering the page first
+		try (Stream<TicketRow> rows = entityManager.createQuery(query)
+				.setMaxResults(limit)
+				.setHint(HibernateHints.HINT_FETCH_SIZE, Integer.MIN_VALUE)
+				.setHint(HibernateHints.HINT_READ_ONLY, true)
+				.getResultStream()) {
+			rows.forEach(consumer);
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package org.java.queryservice.repository.mysql;
+
+import org.java.queryservice.dto.TicketInfoDTO;
+import org.java.ticketingcore.model.TicketStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+// Row-by-row reads of the ticket table for exports, nothing is buffered in the heap
+@Repository
+public class TicketStreamRepository {
+	private static final String SELECT_SQL = """
+			select ticket_id, venue_id, event_id, zone_id, row_label, col_label, status, created_on
+			from ticket
+			""";
+
+	// seats held by a cancelled ticket are free again and not part of the sales breakdown
+	private static final String SOLD_SEATS_SQL = """
+			select row_label, col_label
+			from ticket
+			where event_id = ? and status <> 'CANCELLED'
+			""";
+
+	private final JdbcTemplate streamingJdbcTemplate;
+
+	public TicketStreamRepository(DataSource dataSource) {
+		// Connector/J only streams with a forward-only cursor and fetch size MIN_VALUE,
+		// any other fetch size reads the whole result set into memory first
+		this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+		this.streamingJdbcTemplate.setFetchSize(Integer.MIN_VALUE);
+	}
+
+	// the DTO passed to the consumer is reused between rows, do not keep a reference to it;
+	// a consumer that gives up with UncheckedIOException (client went away) cancels the query
+	public void forEachTicket(String eventId, Consumer<TicketInfoDTO> consumer) {
+		TicketInfoDTO dto = new TicketInfoDTO();
+		RowCallbackHandler handler = rs -> {
+			dto.setTicketId(toTicketId(rs.getBytes(1)));
+			dto.setVenueId(rs.getString(2));
+			dto.setEventId(rs.getString(3));
+			dto.setZoneId(rs.getInt(4));
+			dto.setRow(rs.getString(5));
+			dto.setColumn(rs.getString(6));
+			dto.setStatus(TicketStatus.valueOf(rs.getString(7)));
+			Timestamp createdOn = rs.getTimestamp(8);
+			dto.setCreatedOn(createdOn == null ? null : createdOn.toInstant());
+			try {
+				consumer.accept(dto);
+			} catch (UncheckedIOException e) {
+				// closing a streaming result set would read it to the end, holding the connection meanwhile
+				rs.getStatement().cancel();
+				throw e;
+			}
+		};
+		forEachTicketRow(eventId, handler);
+	}
+
+	// raw rows in SELECT_SQL column order, for exports that encode straight from the result set
+	public void forEachTicketRow(String eventId, RowCallbackHandler handler) {
+		// no order by: a sort would be materialized on the server before the first row is sent
+		if (eventId == null) {
+			streamingJdbcTemplate.query(SELECT_SQL, handler);
+		} else {
+			streamingJdbcTemplate.query(SELECT_SQL + "where event_id = ?", handler, eventId);
+		}
+	}
+
+	// seat labels only, served from the ticket(event_id, ...) covering index without row lookups;
+	// the query timeout stops the server if the first row is not produced within the budget
+	public void forEachSoldSeat(String eventId, int queryTimeoutSeconds, RowCallbackHandler handler) {
+		PreparedStatementCreator creator = con -> {
+			PreparedStatement ps = con.prepareStatement(SOLD_SEATS_SQL, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
+			ps.setString(1, eventId);
+			ps.setQueryTimeout(queryTimeoutSeconds);
+			return ps;
+		};
+		streamingJdbcTemplate.query(creator, handler);
+	}
+
+	// BINARY(16) ticket_id back to the UUID string the API exposes
+	private static String toTicketId(byte[] bytes) {
+		ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		return new UUID(buffer.getLong(), buffer.getLong()).toString();
+	}
+}
@@ -1,9 +1,20 @@
 package org.java.queryservice.repository.mysql;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.java.queryservice.model.Zone;
+import org.java.queryservice.model.ZoneId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface ZoneRepository extends JpaRepository<Zone, String> {
-}
\ No newline at end of file
+public interface ZoneRepository extends JpaRepository<Zone, ZoneId> {
+
+	// query cache holds the ids, the zones themselves come from the second-level cache
+	@Override
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	List<Zone> findAll();
+}
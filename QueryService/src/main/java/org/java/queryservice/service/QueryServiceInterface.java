@@ -1,16 +1,52 @@
 package org.java.queryservice.service;
 
+import org.java.queryservice.dto.EventAvailabilityDTO;
+import org.java.queryservice.dto.SalesSummaryDTO;
+import org.java.queryservice.dto.SalesVersionDTO;
 import org.java.queryservice.dto.TicketInfoDTO;
+import org.java.queryservice.dto.TicketLookupDTO;
+import org.java.queryservice.dto.TicketPageDTO;
+import org.java.queryservice.dto.TicketSearchDTO;
+import org.java.queryservice.dto.TicketSearchPageDTO;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 
 public interface QueryServiceInterface {
 	TicketInfoDTO getTicket(String ticketId);
 
-	List<TicketInfoDTO> getAllSoldTickets();
+	// many ids in one call: cache first, then chunked IN queries for the misses
+	TicketLookupDTO lookupTickets(List<String> ticketIds);
+
+	TicketPageDTO getSoldTicketsPage(String afterTicketId, int limit);
+
+	TicketSearchPageDTO searchTickets(TicketSearchDTO filter, String afterTicketId, int limit);
+
+	long streamSoldTickets(String eventId, OutputStream out) throws IOException;
+
+	long exportSales(String eventId, boolean gzip, OutputStream out) throws IOException;
 
 	int countTicketSoldByEvent(String eventId);
 
+	// answers may be up to maxStaleness old, served from EventAggregateCache
+	int countTicketSoldByEvent(String eventId, Duration maxStaleness);
+
 	BigDecimal sumRevenueByVenueAndEvent(String venueId, String eventId);
+
+	BigDecimal sumRevenueByVenueAndEvent(String venueId, String eventId, Duration maxStaleness);
+
+	// ETag/Last-Modified source for the count and revenue answers with the same maxStaleness
+	SalesVersionDTO getSalesVersion(String eventId, Duration maxStaleness);
+
+	SalesSummaryDTO getSalesSummary(String eventId);
+
+	// live sold/remaining seats from the Redis inventory, no database access
+	EventAvailabilityDTO getAvailability(String venueId, String eventId);
+
+	// availability snapshot followed by coalesced seat deltas; zoneId null streams every zone
+	SseEmitter streamAvailability(String venueId, String eventId, Integer zoneId);
 }
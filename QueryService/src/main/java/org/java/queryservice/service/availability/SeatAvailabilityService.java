@@ -0,0 +1,131 @@
+package org.java.queryservice.service.availability;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.java.queryservice.dto.EventAvailabilityDTO;
+import org.java.queryservice.dto.ZoneAvailabilityDTO;
+import org.java.queryservice.exception.InventoryNotFoundException;
+import org.java.queryservice.repository.mysql.EventRepository;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Live seat availability read from PurchaseService's Redis inventory instead of MySQL, so it is
+ * exact at the moment of the call and costs no database work. One pipelined round trip reads the
+ * inventory version plus, per zone, BITCOUNT of the occupied bitmap, the remaining-seat counter and
+ * the capacity. The commands are not one atomic snapshot: a purchase landing mid-pipeline can make a
+ * zone's sold + remaining differ from its capacity by the seats bought in between. The event must be held
+ * at the requested venue; that pairing comes from MySQL once and is cached like the zone ids.
+ */
+@Slf4j
+@Service
+public class SeatAvailabilityService {
+	private final StringRedisTemplate stringRedisTemplate;
+	private final EventRepository eventRepository;
+	// an event never moves venue
+	private final Cache<String, String> eventVenues;
+	// venue layouts change only when PurchaseService re-seeds them, no need to read the zone set per call
+	private final Cache<String, int[]> venueZones;
+	private final Timer readTimer;
+
+	public SeatAvailabilityService(
+			StringRedisTemplate stringRedisTemplate,
+			EventRepository eventRepository,
+			MeterRegistry meterRegistry,
+			@Value("${query.availability.zone-cache-ttl:PT1M}") Duration zoneCacheTtl) {
+		this.stringRedisTemplate = stringRedisTemplate;
+		this.eventRepository = eventRepository;
+		this.eventVenues = Caffeine.newBuilder()
+				.maximumSize(10_000)
+				.expireAfterWrite(zoneCacheTtl)
+				.build();
+		this.venueZones = Caffeine.newBuilder()
+				.maximumSize(1000)
+				.expireAfterWrite(zoneCacheTtl)
+				.build();
+		this.readTimer = Timer.builder("query.availability.read")
+				.description("Redis round trip of the availability endpoint")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry);
+	}
+
+	public EventAvailabilityDTO getAvailability(String venueId, String eventId) {
+		// otherwise another venue's capacities would be read against this event's bitmaps
+		String eventVenueId = eventVenues.get(eventId, id -> eventRepository.findVenueIdByEventId(id).orElse(null));
+		if (!venueId.equals(eventVenueId)) {
+			throw new InventoryNotFoundException("Event " + eventId + " is not held at venue " + venueId);
+		}
+		int[] zoneIds = venueZones.get(venueId, this::loadZoneIds);
+		if (zoneIds.length == 0) {
+			// not cached, the venue may be seeded later
+			venueZones.invalidate(venueId);
+			throw new InventoryNotFoundException("Venue " + venueId + " has no zones in the seat inventory");
+		}
+
+		long start = System.nanoTime();
+		List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+			connection.stringCommands().get(bytes(RedisKeyUtil.getInventoryVersionKey(eventId)));
+			for (int zoneId : zoneIds) {
+				connection.stringCommands().bitCount(bytes(RedisKeyUtil.getZoneBitMapKey(eventId, zoneId)));
+				connection.stringCommands().get(bytes(RedisKeyUtil.getZoneRemainedSeats(eventId, zoneId)));
+				connection.stringCommands().get(bytes(RedisKeyUtil.getZoneCapacityKey(venueId, zoneId)));
+			}
+			return null;
+		});
+		readTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+		if (results.get(0) == null) {
+			throw new InventoryNotFoundException("No seat inventory for event " + eventId);
+		}
+		List<ZoneAvailabilityDTO> zones = new ArrayList<>(zoneIds.length);
+		long sold = 0;
+		long remaining = 0;
+		long capacity = 0;
+		int i = 1;
+		for (int zoneId : zoneIds) {
+			long zoneSold = results.get(i) == null ? 0 : (Long) results.get(i);
+			Long zoneRemaining = toLong(results.get(i + 1));
+			Long zoneCapacity = toLong(results.get(i + 2));
+			i += 3;
+			long cap = zoneCapacity != null ? zoneCapacity : zoneSold + (zoneRemaining == null ? 0 : zoneRemaining);
+			long left = zoneRemaining != null ? zoneRemaining : Math.max(0, cap - zoneSold);
+			zones.add(new ZoneAvailabilityDTO(zoneId, zoneSold, left, cap));
+			sold += zoneSold;
+			remaining += left;
+			capacity += cap;
+		}
+		log.debug("[SeatAvailabilityService] eventId={} zones={} sold={} remaining={}", eventId, zoneIds.length, sold,
+				remaining);
+		return new EventAvailabilityDTO(eventId, venueId, toLong(results.get(0)), sold, remaining, capacity, zones);
+	}
+
+	// members are the zone ids PurchaseService wrote as JSON numbers, i.e. plain digits
+	private int[] loadZoneIds(String venueId) {
+		Set<String> members = stringRedisTemplate.opsForSet().members(RedisKeyUtil.getZoneSetKey(venueId));
+		if (members == null) {
+			return new int[0];
+		}
+		return members.stream().mapToInt(Integer::parseInt).sorted().toArray();
+	}
+
+	private static Long toLong(Object value) {
+		return value == null ? null : Long.valueOf(value.toString().trim());
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,416 @@
+package org.java.queryservice.service.availability;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.java.queryservice.dto.EventAvailabilityDTO;
+import org.java.queryservice.dto.SeatDeltaDTO;
+import org.java.queryservice.dto.ZoneDeltaDTO;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.java.ticketingcore.seat.SeatKey;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fans seat changes out to Server-Sent Event subscribers. PurchaseService's occupy/release scripts
+ * publish every change on {@code event:{eventId}:seats}; this instance holds a single PSUBSCRIBE for
+ * all events, folds the changes of events somebody is watching into per-zone deltas and sends them
+ * on a fixed tick, so a burst of purchases costs each connection one frame per tick and the JSON is
+ * serialized once per event (and zone filter) rather than once per connection.
+ * <p>
+ * Frames are written on virtual threads, one write in flight per connection. A connection still busy
+ * with the previous frame skips the tick and gets a {@code resync} event before its next delta; zone
+ * counters are absolute, only the seat lists of skipped ticks are lost, and the client re-reads the
+ * availability endpoint to recover them. A rebuild or re-initialization of the inventory publishes a
+ * resync on the channel, which every connection of the event gets on the next tick.
+ */
+@Slf4j
+@Component
+public class SeatChangeHub implements MessageListener, DisposableBean {
+	public static final String CHANNEL_PATTERN = RedisKeyUtil.getSeatChangeChannel("*");
+	private static final String CHANNEL_PREFIX = "event:";
+	private static final String CHANNEL_SUFFIX = ":seats";
+
+	private final ObjectMapper objectMapper;
+	private final Map<String, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+	// only events with at least one subscriber, changes of other events are dropped on arrival
+	private final Map<String, PendingChanges> pending = new ConcurrentHashMap<>();
+	private final AtomicInteger connections = new AtomicInteger();
+	private final ScheduledExecutorService ticker;
+	private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+	private final Counter framesSent;
+	private final Counter framesSkipped;
+
+	private final long emitterTimeoutMs;
+	private final long heartbeatNanos;
+	private final int maxSeatsPerZone;
+
+	public SeatChangeHub(
+			ObjectMapper objectMapper,
+			MeterRegistry meterRegistry,
+			@Value("${query.seat-stream.tick-ms:250}") long tickMs,
+			@Value("${query.seat-stream.emitter-timeout:PT30M}") Duration emitterTimeout,
+			@Value("${query.seat-stream.heartbeat:PT15S}") Duration heartbeat,
+			@Value("${query.seat-stream.max-seats-per-zone:500}") int maxSeatsPerZone) {
+		this.objectMapper = objectMapper;
+		this.emitterTimeoutMs = emitterTimeout.toMillis();
+		this.heartbeatNanos = heartbeat.toNanos();
+		this.maxSeatsPerZone = maxSeatsPerZone;
+
+		Gauge.builder("query.seat-stream.connections", connections, AtomicInteger::get)
+				.description("Open seat change SSE connections")
+				.register(meterRegistry);
+		this.framesSent = Counter.builder("query.seat-stream.frames")
+				.tag("result", "sent")
+				.register(meterRegistry);
+		this.framesSkipped = Counter.builder("query.seat-stream.frames")
+				.tag("result", "skipped")
+				.description("Frames not written because the connection was still busy with the previous one")
+				.register(meterRegistry);
+
+		this.ticker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+				.name("seat-stream-tick")
+				.daemon(true)
+				.factory());
+		this.ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+	}
+
+	// zoneId null subscribes to every zone of the event; the snapshot is the first event on the stream
+	public SseEmitter subscribe(String eventId, Integer zoneId, Supplier<EventAvailabilityDTO> snapshot) {
+		SseEmitter emitter = newEmitter();
+		Subscriber subscriber = new Subscriber(emitter, zoneId);
+		// register before reading the snapshot and buffer the deltas until it is sent, a change in between
+		// is delivered twice rather than missed; the subscriber starts out busy so no delta overtakes it
+		subscriber.writing.set(true);
+		subscribers.compute(eventId, (k, subs) -> {
+			if (subs == null) {
+				subs = new CopyOnWriteArrayList<>();
+				pending.put(k, new PendingChanges(maxSeatsPerZone));
+			}
+			subs.add(subscriber);
+			return subs;
+		});
+		connections.incrementAndGet();
+
+		Runnable remove = () -> unsubscribe(eventId, subscriber);
+		emitter.onCompletion(remove);
+		emitter.onTimeout(remove);
+		emitter.onError(e -> remove.run());
+		try {
+			// unknown venue or event fails here, before the response switches to text/event-stream
+			EventAvailabilityDTO current = snapshot.get();
+			emitter.send(SseEmitter.event().name("snapshot").data(current, MediaType.APPLICATION_JSON));
+			subscriber.lastSentNanos = System.nanoTime();
+			// zone counters are absolute, replaying a delta already in the snapshot is harmless
+			List<String> buffered;
+			while (!(buffered = subscriber.takeBuffered()).isEmpty()) {
+				for (String frame : buffered) {
+					emitter.send(SseEmitter.event().name("delta").data(frame, MediaType.APPLICATION_JSON));
+					framesSent.increment();
+				}
+			}
+		} catch (IOException e) {
+			emitter.completeWithError(e);
+		} catch (RuntimeException e) {
+			unsubscribe(eventId, subscriber);
+			throw e;
+		} finally {
+			subscriber.stopBuffering();
+		}
+		log.debug("[SeatChangeHub] subscribed event={}, zone={}, connections={}", eventId, zoneId, connections.get());
+		return emitter;
+	}
+
+	// payload "zoneId,row,col,taken,zoneRemaining", see PurchaseService occupySeat.lua / releaseSeat.lua,
+	// or a resync after the inventory was rebuilt
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+		String eventId = channel.substring(CHANNEL_PREFIX.length(), channel.length() - CHANNEL_SUFFIX.length());
+		PendingChanges changes = pending.get(eventId);
+		if (changes == null) {
+			return;
+		}
+		String body = new String(message.getBody(), StandardCharsets.UTF_8);
+		if (RedisKeyUtil.SEAT_CHANGE_RESYNC.equals(body)) {
+			changes.resync();
+			return;
+		}
+		String[] fields = body.split(",");
+		try {
+			changes.add(SeatKey.parse(Integer.parseInt(fields[0]), fields[1], fields[2]), "1".equals(fields[3]),
+					Long.parseLong(fields[4]));
+		} catch (RuntimeException e) {
+			log.warn("[SeatChangeHub] unreadable change on {}: {}", channel, e.toString());
+		}
+	}
+
+	SseEmitter newEmitter() {
+		return new SseEmitter(emitterTimeoutMs);
+	}
+
+	void tick() {
+		long now = System.nanoTime();
+		subscribers.forEach((eventId, subs) -> {
+			try {
+				tick(eventId, subs, now);
+			} catch (RuntimeException e) {
+				// an exception would cancel the schedule; the drained changes are gone, so every
+				// connection of the event gets a resync before its next frame
+				subs.forEach(subscriber -> subscriber.missed = true);
+				log.error("[SeatChangeHub] tick failed for event {}", eventId, e);
+			}
+		});
+	}
+
+	private void tick(String eventId, List<Subscriber> subs, long now) {
+		PendingChanges changes = pending.get(eventId);
+		boolean resync = changes != null && changes.takeResync();
+		if (resync) {
+			subs.forEach(subscriber -> subscriber.missed = true);
+		}
+		Map<Integer, ZoneDeltaDTO> zones = changes == null ? Map.of() : changes.drain();
+		// serialized at most once per distinct filter, not per connection
+		Map<Integer, String> frames = new HashMap<>();
+		for (Subscriber subscriber : subs) {
+			String frame = zones.isEmpty() ? null : frame(eventId, subscriber.zoneId, zones, frames);
+			// ALB and other proxies close idle connections, a comment line keeps quiet events open
+			if (frame != null || resync || now - subscriber.lastSentNanos > heartbeatNanos) {
+				offer(subscriber, frame, now);
+			}
+		}
+	}
+
+	private String frame(String eventId, Integer zoneId, Map<Integer, ZoneDeltaDTO> zones,
+	                     Map<Integer, String> frames) {
+		int key = zoneId == null ? -1 : zoneId;
+		if (zoneId != null && !zones.containsKey(zoneId)) {
+			return null;
+		}
+		return frames.computeIfAbsent(key, k -> {
+			List<ZoneDeltaDTO> selected = zoneId == null ? new ArrayList<>(zones.values()) : List.of(zones.get(zoneId));
+			try {
+				return objectMapper.writeValueAsString(new SeatDeltaDTO(eventId, selected));
+			} catch (JsonProcessingException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+	}
+
+	// frame null sends a heartbeat comment, or the resync still owed to the connection
+	private void offer(Subscriber subscriber, String frame, long now) {
+		if (subscriber.buffer(frame)) {
+			return;
+		}
+		if (!subscriber.writing.compareAndSet(false, true)) {
+			if (frame != null) {
+				subscriber.missed = true;
+				framesSkipped.increment();
+			}
+			return;
+		}
+		boolean resync = subscriber.missed;
+		subscriber.missed = false;
+		subscriber.lastSentNanos = now;
+		writers.execute(() -> {
+			try {
+				if (resync) {
+					subscriber.emitter.send(SseEmitter.event().name("resync").data(""));
+				} else if (frame == null) {
+					subscriber.emitter.send(SseEmitter.event().comment(""));
+				}
+				if (frame == null) {
+					return;
+				}
+				// already JSON, written as is by the String converter
+				subscriber.emitter.send(SseEmitter.event().name("delta").data(frame, MediaType.APPLICATION_JSON));
+				framesSent.increment();
+			} catch (IOException | IllegalStateException e) {
+				// client went away; completing triggers onCompletion, which unsubscribes
+				subscriber.emitter.completeWithError(e);
+			} finally {
+				subscriber.writing.set(false);
+			}
+		});
+	}
+
+	private void unsubscribe(String eventId, Subscriber subscriber) {
+		if (!subscriber.removed.compareAndSet(false, true)) {
+			return;
+		}
+		connections.decrementAndGet();
+		subscribers.computeIfPresent(eventId, (k, subs) -> {
+			subs.remove(subscriber);
+			if (subs.isEmpty()) {
+				pending.remove(eventId);
+				return null;
+			}
+			return subs;
+		});
+	}
+
+	@Override
+	public void destroy() {
+		ticker.shutdownNow();
+		subscribers.values().forEach(subs -> subs.forEach(s -> s.emitter.complete()));
+		writers.shutdownNow();
+	}
+
+	private static final class Subscriber {
+		final SseEmitter emitter;
+		final Integer zoneId;
+		final AtomicBoolean writing = new AtomicBoolean();
+		final AtomicBoolean removed = new AtomicBoolean();
+		volatile boolean missed;
+		volatile long lastSentNanos;
+		// deltas of ticks before the snapshot went out, null once it did
+		private List<String> buffered = new ArrayList<>();
+
+		Subscriber(SseEmitter emitter, Integer zoneId) {
+			this.emitter = emitter;
+			this.zoneId = zoneId;
+		}
+
+		// true while the snapshot is pending, the frame (heartbeats aside) is kept for after it
+		synchronized boolean buffer(String frame) {
+			if (buffered == null) {
+				return false;
+			}
+			if (frame != null) {
+				buffered.add(frame);
+			}
+			return true;
+		}
+
+		// the frames buffered so far; when there are none buffering ends and the tick takes over,
+		// under the same lock as buffer() so no frame falls in between
+		synchronized List<String> takeBuffered() {
+			if (buffered == null || buffered.isEmpty()) {
+				stopBuffering();
+				return List.of();
+			}
+			List<String> frames = buffered;
+			buffered = new ArrayList<>();
+			return frames;
+		}
+
+		synchronized void stopBuffering() {
+			if (buffered != null) {
+				buffered = null;
+				writing.set(false);
+			}
+		}
+	}
+
+	// written by the Redis listener thread, drained by the tick
+	private static final class PendingChanges {
+		private final int maxSeats;
+		private Map<Integer, ZoneChanges> zones = new HashMap<>();
+		private boolean resync;
+
+		PendingChanges(int maxSeats) {
+			this.maxSeats = maxSeats;
+		}
+
+		synchronized void resync() {
+			resync = true;
+		}
+
+		synchronized boolean takeResync() {
+			boolean taken = resync;
+			resync = false;
+			return taken;
+		}
+
+		synchronized void add(long seat, boolean taken, long remaining) {
+			zones.computeIfAbsent(SeatKey.zoneId(seat), id -> new ZoneChanges(id, maxSeats))
+					.add(seat, taken, remaining);
+		}
+
+		Map<Integer, ZoneDeltaDTO> drain() {
+			Map<Integer, ZoneChanges> drained;
+			synchronized (this) {
+				if (zones.isEmpty()) {
+					return Map.of();
+				}
+				drained = zones;
+				zones = new HashMap<>();
+			}
+			Map<Integer, ZoneDeltaDTO> deltas = new HashMap<>(drained.size() * 2);
+			drained.forEach((zoneId, changes) -> deltas.put(zoneId, changes.toDto()));
+			return deltas;
+		}
+	}
+
+	private static final class ZoneChanges {
+		final int zoneId;
+		final int maxSeats;
+		// packed SeatKeys in arrival order, turned into labels only when the frame is built
+		final Set<Long> taken = new LinkedHashSet<>();
+		final Set<Long> released = new LinkedHashSet<>();
+		boolean truncated;
+		long remaining;
+
+		ZoneChanges(int zoneId, int maxSeats) {
+			this.zoneId = zoneId;
+			this.maxSeats = maxSeats;
+		}
+
+		void add(long seat, boolean isTaken, long remaining) {
+			// channel order is script order, the last counter is the newest
+			this.remaining = remaining;
+			if (truncated) {
+				return;
+			}
+			// a seat taken and released within one tick cancels out
+			if (isTaken ? !released.remove(seat) : !taken.remove(seat)) {
+				(isTaken ? taken : released).add(seat);
+			}
+			if (taken.size() + released.size() > maxSeats) {
+				// past maxSeats the lists are dropped and the client re-reads the zone instead
+				truncated = true;
+				taken.clear();
+				released.clear();
+			}
+		}
+
+		ZoneDeltaDTO toDto() {
+			return new ZoneDeltaDTO(zoneId, labels(taken), labels(released), remaining, truncated);
+		}
+
+		private static List<String> labels(Set<Long> seats) {
+			List<String> labels = new ArrayList<>(seats.size());
+			for (long seat : seats) {
+				labels.add(SeatKey.label(seat));
+			}
+			return labels;
+		}
+	}
+}
@@ -0,0 +1,175 @@
+package org.java.queryservice.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.java.queryservice.dto.SalesVersionDTO;
+import org.java.queryservice.model.EventZoneSales;
+import org.java.queryservice.repository.mysql.EventZoneSalesRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-event sales aggregates for polling dashboards. Callers state how stale an answer they accept;
+ * a fresher one triggers a refresh, and concurrent callers of the same event share that refresh.
+ * Refreshes are incremental: only rollup rows whose updated_at is past the previous high-watermark
+ * are read and replace their zone (rollup rows hold absolute values, so re-reading one is harmless).
+ * The watermark trails the newest updated_at by a safety lag because updated_at is stamped at
+ * statement time, not commit time, and a periodic full read bounds anything still missed.
+ * Ticket created_on is not used as the watermark: it is set by the publisher, and SQS redeliveries
+ * insert rows far behind it.
+ */
+@Slf4j
+@Component
+public class EventAggregateCache {
+	private final EventZoneSalesRepository eventZoneSalesRepository;
+	private final Cache<String, EventAggregate> aggregates;
+	private final ConcurrentHashMap<String, CompletableFuture<EventAggregate>> inFlight = new ConcurrentHashMap<>();
+	private final Duration watermarkLag;
+	private final long fullRefreshNanos;
+	private final Counter hits;
+	private final Counter incrementalRefreshes;
+	private final Counter fullRefreshes;
+
+	public EventAggregateCache(
+			EventZoneSalesRepository eventZoneSalesRepository,
+			MeterRegistry meterRegistry,
+			@Value("${query.aggregate-cache.max-events:10000}") long maxEvents,
+			@Value("${query.aggregate-cache.watermark-lag:PT5S}") Duration watermarkLag,
+			@Value("${query.aggregate-cache.full-refresh-interval:PT1M}") Duration fullRefreshInterval) {
+		this.eventZoneSalesRepository = eventZoneSalesRepository;
+		this.watermarkLag = watermarkLag;
+		this.fullRefreshNanos = fullRefreshInterval.toNanos();
+		this.aggregates = Caffeine.newBuilder()
+				.maximumSize(maxEvents)
+				.expireAfterAccess(Duration.ofMinutes(30))
+				.build();
+		this.hits = refreshCounter(meterRegistry, "hit");
+		this.incrementalRefreshes = refreshCounter(meterRegistry, "incremental");
+		this.fullRefreshes = refreshCounter(meterRegistry, "full");
+	}
+
+	public EventAggregate get(String eventId, Duration maxStaleness) {
+		EventAggregate current = aggregates.getIfPresent(eventId);
+		if (current != null && current.ageNanos() <= maxStaleness.toNanos()) {
+			hits.increment();
+			return current;
+		}
+
+		CompletableFuture<EventAggregate> mine = new CompletableFuture<>();
+		CompletableFuture<EventAggregate> running = inFlight.putIfAbsent(eventId, mine);
+		if (running != null) {
+			// someone is already refreshing this event, its result is at least as fresh as asked for
+			try {
+				return running.join();
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException re ? re : e;
+			}
+		}
+		try {
+			EventAggregate refreshed = refresh(eventId, aggregates.getIfPresent(eventId));
+			aggregates.put(eventId, refreshed);
+			mine.complete(refreshed);
+			return refreshed;
+		} catch (RuntimeException e) {
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(eventId, mine);
+		}
+	}
+
+	private EventAggregate refresh(String eventId, EventAggregate previous) {
+		long now = System.nanoTime();
+		boolean full = previous == null || previous.watermark() == null
+				|| now - previous.fullRefreshAt() > fullRefreshNanos;
+		Map<String, EventZoneSales> zones;
+		List<EventZoneSales> changed;
+		if (full) {
+			zones = new HashMap<>();
+			changed = eventZoneSalesRepository.findByEventId(eventId);
+			fullRefreshes.increment();
+		} else {
+			zones = new HashMap<>(previous.zones());
+			changed = eventZoneSalesRepository.findByEventIdAndUpdatedAtGreaterThanEqual(eventId,
+					previous.watermark());
+			incrementalRefreshes.increment();
+		}
+
+		Instant newest = null;
+		for (EventZoneSales zone : changed) {
+			zones.put(zone.getVenueId() + ":" + zone.getZoneId(), zone);
+			if (newest == null || zone.getUpdatedAt().isAfter(newest)) {
+				newest = zone.getUpdatedAt();
+			}
+		}
+		Instant watermark = newest == null
+				? (previous == null ? null : previous.watermark())
+				: newest.minus(watermarkLag);
+		if (previous != null && previous.watermark() != null && watermark != null
+				&& watermark.isBefore(previous.watermark())) {
+			watermark = previous.watermark();
+		}
+		log.debug("[EventAggregateCache] eventId={} {} refresh read {} zone rows, watermark={}", eventId,
+				full ? "full" : "incremental", changed.size(), watermark);
+		return EventAggregate.of(zones, watermark, now, full ? now : previous.fullRefreshAt());
+	}
+
+	private static Counter refreshCounter(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("query.aggregate.cache")
+				.description("Aggregate lookups served from cache or by a refresh of the rollup rows")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+
+	// zones keyed by "venueId:zoneId"; totals are precomputed so reads are O(1)
+	public record EventAggregate(Map<String, EventZoneSales> zones, long ticketCount,
+	                             Map<String, BigDecimal> revenueByVenue, Instant watermark,
+	                             long refreshedAt, long fullRefreshAt) {
+
+		static EventAggregate of(Map<String, EventZoneSales> zones, Instant watermark, long refreshedAt,
+		                         long fullRefreshAt) {
+			long count = 0;
+			Map<String, BigDecimal> revenueByVenue = new HashMap<>();
+			for (EventZoneSales zone : zones.values()) {
+				count += zone.getTicketCount();
+				revenueByVenue.merge(zone.getVenueId(), zone.getRevenue(), BigDecimal::add);
+			}
+			return new EventAggregate(Map.copyOf(zones), count, Map.copyOf(revenueByVenue), watermark,
+					refreshedAt, fullRefreshAt);
+		}
+
+		public BigDecimal revenue(String venueId) {
+			return revenueByVenue.getOrDefault(venueId, BigDecimal.ZERO);
+		}
+
+		// the consumer bumps a zone's version on every rollup write, so the sum changes with any total
+		public SalesVersionDTO salesVersion() {
+			long version = 0;
+			Instant lastModified = null;
+			for (EventZoneSales zone : zones.values()) {
+				version += zone.getVersion();
+				if (lastModified == null || zone.getUpdatedAt().isAfter(lastModified)) {
+					lastModified = zone.getUpdatedAt();
+				}
+			}
+			return new SalesVersionDTO(version, lastModified, ageNanos() / 1_000_000);
+		}
+
+		long ageNanos() {
+			return System.nanoTime() - refreshedAt;
+		}
+	}
+}
@@ -0,0 +1,97 @@
+package org.java.queryservice.service.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.java.queryservice.dto.CacheRegionStatsDTO;
+import org.java.queryservice.model.Event;
+import org.java.queryservice.model.Venue;
+import org.java.queryservice.model.Zone;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Eviction and statistics for the Hibernate second-level cache holding Venue, Zone, Event and
+ * Venue.zones. The entities are READ_ONLY in this service, so entries only leave the cache by
+ * expiry (see application.conf) or through this class when a migration changed the venue's rows.
+ */
+@Slf4j
+@Component
+public class ReferenceDataCache {
+	public static final String LAYOUT_CHANNEL = RedisKeyUtil.getVenueLayoutChannel();
+	private static final String VENUE_ZONES_ROLE = Venue.class.getName() + ".zones";
+
+	private final Cache cache;
+	private final Statistics statistics;
+
+	public ReferenceDataCache(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		this.cache = sessionFactory.getCache();
+		this.statistics = sessionFactory.getStatistics();
+		for (String region : statistics.getSecondLevelCacheRegionNames()) {
+			registerRegionMeters(meterRegistry, region);
+		}
+	}
+
+	// a venue's zones changed: drop the venue, its zone collection, the zones and every cached query
+	public void evictVenue(String venueId) {
+		cache.evictEntityData(Venue.class, venueId);
+		cache.evictCollectionData(VENUE_ZONES_ROLE, venueId);
+		// zone keys are (venue_id, zone_id) and the venue's zone ids are unknown here, the region is small
+		cache.evictEntityData(Zone.class);
+		cache.evictQueryRegions();
+		log.info("[ReferenceDataCache] evicted layout of venue {}", venueId);
+	}
+
+	public void evictAll() {
+		cache.evictEntityData(Venue.class);
+		cache.evictEntityData(Zone.class);
+		cache.evictEntityData(Event.class);
+		cache.evictCollectionData(VENUE_ZONES_ROLE);
+		cache.evictQueryRegions();
+		log.info("[ReferenceDataCache] evicted all reference data");
+	}
+
+	public List<CacheRegionStatsDTO> stats() {
+		String[] regions = statistics.getSecondLevelCacheRegionNames();
+		Arrays.sort(regions);
+		List<CacheRegionStatsDTO> result = new ArrayList<>(regions.length);
+		for (String region : regions) {
+			CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+			if (stats == null) {
+				continue;
+			}
+			long hits = stats.getHitCount();
+			long misses = stats.getMissCount();
+			double hitRatio = hits + misses == 0 ? 0 : (double) hits / (hits + misses);
+			result.add(new CacheRegionStatsDTO(region, hits, misses, stats.getPutCount(), hitRatio,
+					Math.max(-1, stats.getElementCountInMemory())));
+		}
+		return result;
+	}
+
+	private void registerRegionMeters(MeterRegistry meterRegistry, String region) {
+		FunctionCounter.builder("query.reference-cache.requests", statistics, s -> count(s, region, true))
+				.tag("region", region)
+				.tag("result", "hit")
+				.register(meterRegistry);
+		FunctionCounter.builder("query.reference-cache.requests", statistics, s -> count(s, region, false))
+				.tag("region", region)
+				.tag("result", "miss")
+				.register(meterRegistry);
+	}
+
+	private static double count(Statistics statistics, String region, boolean hits) {
+		CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+		return stats == null ? 0 : hits ? stats.getHitCount() : stats.getMissCount();
+	}
+}
@@ -0,0 +1,176 @@
+package org.java.queryservice.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.java.queryservice.dto.TicketInfoDTO;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Ticket lookups: bounded local Caffeine tier, then a shared Redis tier, then the loader (MySQL).
+ * The consumer deletes the Redis entry and publishes the ticket id on
+ * {@link RedisKeyUtil#getTicketInvalidationChannel()}
+ * after every committed ticket write; {@link TicketCacheInvalidationListener} evicts the local tier.
+ * The consumer writes a short-lived tombstone rather than deleting, and refills use SET NX: a refill
+ * that read MySQL before the write and reaches Redis after the invalidation is dropped instead of
+ * caching the old row. Both tiers also expire, which bounds staleness if an invalidation is lost.
+ */
+@Slf4j
+@Component
+public class TicketCache {
+	private final Cache<String, TicketInfoDTO> local;
+	private final StringRedisTemplate stringRedisTemplate;
+	private final ObjectMapper objectMapper;
+	private final Duration redisTtl;
+	private final Counter localHits;
+	private final Counter redisHits;
+	private final Counter misses;
+
+	public TicketCache(
+			StringRedisTemplate stringRedisTemplate,
+			ObjectMapper objectMapper,
+			MeterRegistry meterRegistry,
+			@Value("${query.ticket-cache.local.max-size:100000}") long localMaxSize,
+			@Value("${query.ticket-cache.local.ttl:PT2M}") Duration localTtl,
+			@Value("${query.ticket-cache.redis.ttl:PT10M}") Duration redisTtl) {
+		this.stringRedisTemplate = stringRedisTemplate;
+		this.objectMapper = objectMapper;
+		this.redisTtl = redisTtl;
+		this.local = Caffeine.newBuilder()
+				.maximumSize(localMaxSize)
+				.expireAfterWrite(localTtl)
+				.recordStats()
+				.build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, local, "query.ticket.cache.local");
+		this.localHits = lookupCounter(meterRegistry, "local_hit");
+		this.redisHits = lookupCounter(meterRegistry, "redis_hit");
+		this.misses = lookupCounter(meterRegistry, "miss");
+	}
+
+	// null when the loader finds nothing; misses are not cached
+	public TicketInfoDTO get(String ticketId, Function<String, TicketInfoDTO> loader) {
+		boolean[] loaded = new boolean[1];
+		// concurrent lookups of the same id on this instance share one Redis/MySQL load
+		TicketInfoDTO dto = local.get(ticketId, id -> {
+			loaded[0] = true;
+			return loadShared(id, loader);
+		});
+		if (!loaded[0]) {
+			localHits.increment();
+		}
+		return dto;
+	}
+
+	// bulk get: local tier, then one MGET for the local misses, then a single loader call for the rest;
+	// ids the loader does not return are absent from the result and not cached
+	public Map<String, TicketInfoDTO> getAll(Set<String> ticketIds,
+	                                         Function<Set<String>, Map<String, TicketInfoDTO>> loader) {
+		int[] loaded = new int[1];
+		Map<String, TicketInfoDTO> found = local.getAll(ticketIds, ids -> {
+			loaded[0] = ids.size();
+			return loadAllShared(new LinkedHashSet<>(ids), loader);
+		});
+		localHits.increment(ticketIds.size() - loaded[0]);
+		return found;
+	}
+
+	public void evictLocal(Collection<String> ticketIds) {
+		local.invalidateAll(ticketIds);
+	}
+
+	private TicketInfoDTO loadShared(String ticketId, Function<String, TicketInfoDTO> loader) {
+		String key = RedisKeyUtil.getTicketViewKey(ticketId);
+		try {
+			String json = stringRedisTemplate.opsForValue().get(key);
+			if (json != null && !RedisKeyUtil.TICKET_VIEW_TOMBSTONE.equals(json)) {
+				redisHits.increment();
+				return objectMapper.readValue(json, TicketInfoDTO.class);
+			}
+		} catch (Exception e) {
+			log.debug("[TicketCache] Redis read failed for {}: {}", ticketId, e.toString());
+		}
+
+		misses.increment();
+		TicketInfoDTO dto = loader.apply(ticketId);
+		if (dto != null) {
+			try {
+				stringRedisTemplate.opsForValue().setIfAbsent(key, objectMapper.writeValueAsString(dto), redisTtl);
+			} catch (Exception e) {
+				log.debug("[TicketCache] Redis write failed for {}: {}", ticketId, e.toString());
+			}
+		}
+		return dto;
+	}
+
+	private Map<String, TicketInfoDTO> loadAllShared(Set<String> ticketIds,
+	                                                 Function<Set<String>, Map<String, TicketInfoDTO>> loader) {
+		List<String> ids = new ArrayList<>(ticketIds);
+		Map<String, TicketInfoDTO> result = new HashMap<>(ids.size() * 2);
+		try {
+			List<String> values = stringRedisTemplate.opsForValue()
+					.multiGet(ids.stream().map(RedisKeyUtil::getTicketViewKey).toList());
+			for (int i = 0; values != null && i < ids.size(); i++) {
+				if (values.get(i) != null && !RedisKeyUtil.TICKET_VIEW_TOMBSTONE.equals(values.get(i))) {
+					result.put(ids.get(i), objectMapper.readValue(values.get(i), TicketInfoDTO.class));
+				}
+			}
+		} catch (Exception e) {
+			log.debug("[TicketCache] Redis multi-read failed for {} ids: {}", ids.size(), e.toString());
+		}
+		redisHits.increment(result.size());
+
+		Set<String> remaining = new LinkedHashSet<>(ids);
+		remaining.removeAll(result.keySet());
+		if (remaining.isEmpty()) {
+			return result;
+		}
+		misses.increment(remaining.size());
+		Map<String, TicketInfoDTO> fromLoader = loader.apply(remaining);
+		result.putAll(fromLoader);
+		try {
+			Map<byte[], byte[]> values = new HashMap<>(fromLoader.size() * 2);
+			for (Map.Entry<String, TicketInfoDTO> entry : fromLoader.entrySet()) {
+				values.put(RedisKeyUtil.getTicketViewKey(entry.getKey()).getBytes(StandardCharsets.UTF_8),
+						objectMapper.writeValueAsBytes(entry.getValue()));
+			}
+			// one pipelined round trip for all SET NX, each with its own TTL
+			stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+				values.forEach((key, value) ->
+						connection.stringCommands().set(key, value, Expiration.from(redisTtl), SetOption.ifAbsent()));
+				return null;
+			});
+		} catch (Exception e) {
+			log.debug("[TicketCache] Redis multi-write failed for {} ids: {}", fromLoader.size(), e.toString());
+		}
+		return result;
+	}
+
+	private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("query.ticket.cache.lookups")
+				.description("Ticket lookups by cache result, misses go to MySQL")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+}
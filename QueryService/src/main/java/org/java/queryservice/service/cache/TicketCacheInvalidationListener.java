@@ -0,0 +1,25 @@
+package org.java.queryservice.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// payload is a comma separated list of ticket ids written in one consumer transaction
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TicketCacheInvalidationListener implements MessageListener {
+	private final TicketCache ticketCache;
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+		ticketCache.evictLocal(Arrays.asList(payload.split(",")));
+		log.debug("[TicketCache] evicted {}", payload);
+	}
+}
@@ -0,0 +1,24 @@
+package org.java.queryservice.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+// payload is the venue id, published by the consumer after a Flyway migration changed MySQL reference data
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class VenueLayoutListener implements MessageListener {
+	private final ReferenceDataCache referenceDataCache;
+
+	@Override
+	public void onMessage(Message message, byte[] pattern) {
+		String venueId = new String(message.getBody(), StandardCharsets.UTF_8);
+		referenceDataCache.evictVenue(venueId);
+		log.debug("[ReferenceDataCache] layout change of venue {}", venueId);
+	}
+}
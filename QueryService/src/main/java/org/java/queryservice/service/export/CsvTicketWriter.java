@@ -0,0 +1,181 @@
+package org.java.queryservice.service.export;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RFC 4180 CSV encoder writing straight into one fixed-size byte buffer that is flushed to the
+ * target stream whenever the next value might not fit, so an export of any length holds a single
+ * buffer. Values are encoded byte by byte without building per-row Strings; ticket ids are
+ * formatted from their 16 raw bytes. Not thread-safe, one instance per export.
+ */
+public class CsvTicketWriter {
+	private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+	// longest single write outside field(String): a UUID (36) or a long (20) plus separator
+	private static final int MAX_FIXED_WIDTH = 64;
+
+	private final OutputStream out;
+	private final byte[] buffer;
+	private int position;
+	private boolean rowStarted;
+	private long rows;
+
+	public CsvTicketWriter(OutputStream out, int bufferSize) {
+		this.out = out;
+		this.buffer = new byte[Math.max(bufferSize, 4 * MAX_FIXED_WIDTH)];
+	}
+
+	public void header(String... names) throws IOException {
+		for (String name : names) {
+			field(name);
+		}
+		endRow();
+		rows--;
+	}
+
+	public void field(String value) throws IOException {
+		separator();
+		if (value == null) {
+			return;
+		}
+		boolean quote = needsQuotes(value);
+		if (quote) {
+			put('"');
+		}
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '"') {
+				put('"');
+				put('"');
+			} else if (c < 0x80) {
+				put(c);
+			} else {
+				putNonAscii(value, i);
+				if (Character.isHighSurrogate(c)) {
+					i++;
+				}
+			}
+		}
+		if (quote) {
+			put('"');
+		}
+	}
+
+	public void field(long value) throws IOException {
+		separator();
+		ensure(MAX_FIXED_WIDTH);
+		if (value < 0) {
+			if (value == Long.MIN_VALUE) {
+				// cannot be negated; the separator is already written, so copy the digits directly
+				String digits = Long.toString(value);
+				for (int i = 0; i < digits.length(); i++) {
+					buffer[position++] = (byte) digits.charAt(i);
+				}
+				return;
+			}
+			buffer[position++] = '-';
+			value = -value;
+		}
+		int start = position;
+		do {
+			buffer[position++] = (byte) ('0' + value % 10);
+			value /= 10;
+		} while (value != 0);
+		reverse(start, position - 1);
+	}
+
+	public void field(BigDecimal value) throws IOException {
+		field(value == null ? null : value.toPlainString());
+	}
+
+	// BINARY(16) ticket id written as the canonical lower-case UUID string
+	public void uuidField(byte[] id) throws IOException {
+		separator();
+		if (id == null) {
+			return;
+		}
+		ensure(MAX_FIXED_WIDTH);
+		for (int i = 0; i < id.length; i++) {
+			if (i == 4 || i == 6 || i == 8 || i == 10) {
+				buffer[position++] = '-';
+			}
+			buffer[position++] = HEX[(id[i] >> 4) & 0xF];
+			buffer[position++] = HEX[id[i] & 0xF];
+		}
+	}
+
+	public void endRow() throws IOException {
+		put('\r');
+		put('\n');
+		rowStarted = false;
+		rows++;
+	}
+
+	// writes what is buffered; the target stream is neither flushed nor closed
+	public void drain() throws IOException {
+		if (position > 0) {
+			out.write(buffer, 0, position);
+			position = 0;
+		}
+	}
+
+	public long rows() {
+		return rows;
+	}
+
+	private void separator() throws IOException {
+		if (rowStarted) {
+			put(',');
+		}
+		rowStarted = true;
+	}
+
+	private static boolean needsQuotes(String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void putNonAscii(String value, int index) throws IOException {
+		int codePoint = value.codePointAt(index);
+		ensure(4);
+		if (codePoint < 0x800) {
+			buffer[position++] = (byte) (0xC0 | codePoint >> 6);
+		} else if (codePoint < 0x10000) {
+			buffer[position++] = (byte) (0xE0 | codePoint >> 12);
+			buffer[position++] = (byte) (0x80 | (codePoint >> 6 & 0x3F));
+		} else {
+			buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+			buffer[position++] = (byte) (0x80 | (codePoint >> 12 & 0x3F));
+			buffer[position++] = (byte) (0x80 | (codePoint >> 6 & 0x3F));
+		}
+		buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+	}
+
+	private void put(int b) throws IOException {
+		if (position == buffer.length) {
+			drain();
+		}
+		buffer[position++] = (byte) b;
+	}
+
+	private void ensure(int bytes) throws IOException {
+		if (buffer.length - position < bytes) {
+			drain();
+		}
+	}
+
+	private void reverse(int from, int to) {
+		while (from < to) {
+			byte b = buffer[from];
+			buffer[from++] = buffer[to];
+			buffer[to--] = b;
+		}
+	}
+}
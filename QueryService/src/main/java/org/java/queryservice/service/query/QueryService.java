@@ -1,67 +1,406 @@
 package org.java.queryservice.service.query;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.java.queryservice.dto.EventAvailabilityDTO;
+import org.java.queryservice.dto.SalesSummaryDTO;
+import org.java.queryservice.dto.SalesVersionDTO;
 import org.java.queryservice.dto.TicketInfoDTO;
+import org.java.queryservice.dto.TicketLookupDTO;
+import org.java.queryservice.dto.TicketPageDTO;
+import org.java.queryservice.dto.TicketSearchDTO;
+import org.java.queryservice.dto.TicketSearchPageDTO;
+import org.java.queryservice.exception.SummaryTimeoutException;
 import org.java.queryservice.exception.TicketNotFoundException;
 import org.java.queryservice.mapper.TicketMapper;
 import org.java.queryservice.model.TicketInfo;
+import org.java.queryservice.model.Zone;
+import org.java.queryservice.repository.mysql.EventZoneSalesRepository;
 import org.java.queryservice.repository.mysql.TicketInfoRepository;
+import org.java.queryservice.repository.mysql.TicketRow;
+import org.java.queryservice.repository.mysql.TicketSearchRepository;
+import org.java.queryservice.repository.mysql.TicketStreamRepository;
+import org.java.queryservice.repository.mysql.ZoneRepository;
+import org.java.queryservice.service.availability.SeatAvailabilityService;
+import org.java.queryservice.service.availability.SeatChangeHub;
+import org.java.queryservice.service.cache.EventAggregateCache;
+import org.java.queryservice.service.cache.EventAggregateCache.EventAggregate;
+import org.java.queryservice.service.cache.TicketCache;
+import org.java.queryservice.service.export.CsvTicketWriter;
 import org.java.queryservice.service.QueryServiceInterface;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class QueryService implements QueryServiceInterface {
+	static final int MAX_PAGE_SIZE = 1000;
+
 	private final TicketInfoRepository ticketInfoRepository;
+	private final TicketStreamRepository ticketStreamRepository;
+	private final TicketSearchRepository ticketSearchRepository;
+	private final ObjectMapper objectMapper;
+	private final EventZoneSalesRepository eventZoneSalesRepository;
+	private final ZoneRepository zoneRepository;
 	private final TicketMapper tickerMapper;
+	private final TicketCache ticketCache;
+	private final EventAggregateCache eventAggregateCache;
+	private final SeatAvailabilityService seatAvailabilityService;
+	private final SeatChangeHub seatChangeHub;
+	private final MeterRegistry meterRegistry;
+
+	@Value("${query.export.buffer-bytes:65536}")
+	private int exportBufferBytes;
+	@Value("${query.summary.budget-ms:3000}")
+	private long summaryBudgetMs;
+	@Value("${query.lookup.max-ids:1000}")
+	private int lookupMaxIds;
+	@Value("${query.lookup.chunk-size:500}")
+	private int lookupChunkSize;
 
-	// find ticket by ID
+	// find ticket by ID; no service transaction, a cache hit must not check out a connection
 	@Override
-	@Transactional(readOnly = true)
 	public TicketInfoDTO getTicket(String ticketId) {
 		log.debug("[QueryService][getTicket] start query ticketId={}", ticketId);
 
-		var ticketEntity = ticketInfoRepository.findById(ticketId)
-				.orElseThrow(() -> new TicketNotFoundException("Ticket not found with ID: " + ticketId));
+		// ids are UUIDs stored as BINARY(16), anything else cannot exist
+		TicketInfoDTO ticket = ticketCache.get(ticketId, id -> parseTicketId(id)
+				.flatMap(ticketInfoRepository::findById)
+				.map(tickerMapper::toInfoDto)
+				.orElse(null));
+		if (ticket == null) {
+			throw new TicketNotFoundException("Ticket not found with ID: " + ticketId);
+		}
+		return ticket;
+	}
+
+	// no service transaction either: ids served from the caches never check out a connection
+	@Override
+	public TicketLookupDTO lookupTickets(List<String> ticketIds) {
+		if (ticketIds == null || ticketIds.isEmpty()) {
+			throw new IllegalArgumentException("ticketIds must not be empty");
+		}
+		if (ticketIds.size() > lookupMaxIds) {
+			throw new IllegalArgumentException("At most " + lookupMaxIds + " ticketIds per lookup");
+		}
+		Set<String> requested = new LinkedHashSet<>(ticketIds);
+		Map<String, TicketInfoDTO> found = ticketCache.getAll(requested, this::loadTickets);
 
-		return tickerMapper.toInfoDto(ticketEntity);
+		List<TicketInfoDTO> tickets = new ArrayList<>(found.size());
+		List<String> missing = new ArrayList<>();
+		for (String ticketId : requested) {
+			TicketInfoDTO ticket = found.get(ticketId);
+			if (ticket != null) {
+				tickets.add(ticket);
+			} else {
+				missing.add(ticketId);
+			}
+		}
+		log.debug("[QueryService][lookupTickets] requested={}, found={}, missing={}", requested.size(),
+				tickets.size(), missing.size());
+		return new TicketLookupDTO(tickets, missing);
+	}
+
+	// cache misses by primary key, lookupChunkSize ids per IN list; results keyed by the id as requested
+	private Map<String, TicketInfoDTO> loadTickets(Set<String> ticketIds) {
+		Map<UUID, String> requestedIds = new HashMap<>(ticketIds.size() * 2);
+		for (String ticketId : ticketIds) {
+			parseTicketId(ticketId).ifPresent(uuid -> requestedIds.put(uuid, ticketId));
+		}
+		List<UUID> uuids = new ArrayList<>(requestedIds.keySet());
+		Map<String, TicketInfoDTO> loaded = new HashMap<>(uuids.size() * 2);
+		for (int from = 0; from < uuids.size(); from += lookupChunkSize) {
+			List<UUID> chunk = uuids.subList(from, Math.min(from + lookupChunkSize, uuids.size()));
+			for (TicketRow row : ticketInfoRepository.findRowsByTicketIdIn(chunk)) {
+				loaded.put(requestedIds.get(row.ticketId()), tickerMapper.toInfoDto(row));
+			}
+		}
+		return loaded;
 	}
 
 	@Override
 	@Transactional(readOnly = true)
 	public int countTicketSoldByEvent(String eventId) {
 		log.debug("[QueryService][countTicketSoldByEvent] start for eventId={}", eventId);
-		int count = ticketInfoRepository.countByEventId(eventId);
+		// summed from the per-zone rollup the consumer maintains, not counted from the ticket table
+		int count = Math.toIntExact(eventZoneSalesRepository.sumTicketCountByEventId(eventId));
 		log.debug("[QueryService][countTicketSoldByEvent] result={} for eventId={}", count, eventId);
 		return count;
 	}
 
+	@Override
+	public int countTicketSoldByEvent(String eventId, Duration maxStaleness) {
+		if (maxStaleness.isZero() || maxStaleness.isNegative()) {
+			return countTicketSoldByEvent(eventId);
+		}
+		return Math.toIntExact(eventAggregateCache.get(eventId, maxStaleness).ticketCount());
+	}
+
 	@Override
 	@Transactional(readOnly = true)
 	public BigDecimal sumRevenueByVenueAndEvent(String venueId, String eventId) {
 		log.debug("[QueryService][sumRevenueByVenueAndEvent] start venueId={},eventId={}", venueId, eventId);
-		BigDecimal revenue = ticketInfoRepository.sumRevenueByVenueAndEvent(venueId, eventId);
+		BigDecimal revenue = eventZoneSalesRepository.sumRevenueByVenueAndEvent(venueId, eventId);
 		log.debug("[QueryService][sumRevenueByVenueAndEvent] result={} for venueId={},eventId={}",
 				revenue, venueId, eventId);
 		return revenue == null ? BigDecimal.ZERO : revenue;
 	}
 
+	@Override
+	public BigDecimal sumRevenueByVenueAndEvent(String venueId, String eventId, Duration maxStaleness) {
+		if (maxStaleness.isZero() || maxStaleness.isNegative()) {
+			return sumRevenueByVenueAndEvent(venueId, eventId);
+		}
+		return eventAggregateCache.get(eventId, maxStaleness).revenue(venueId);
+	}
+
+	@Override
+	public SalesVersionDTO getSalesVersion(String eventId, Duration maxStaleness) {
+		if (maxStaleness.isZero() || maxStaleness.isNegative()) {
+			return eventZoneSalesRepository.findSalesVersionByEventId(eventId);
+		}
+		// from the same cached aggregate the answer is read from, a 304 costs no database work
+		return eventAggregateCache.get(eventId, maxStaleness).salesVersion();
+	}
+
 	@Override
 	@Transactional(readOnly = true)
-	public List<TicketInfoDTO> getAllSoldTickets() {
-		log.debug("[QueryService][getAllSoldTickets] start");
-		List<TicketInfo> tickets = ticketInfoRepository.findAll();
-		List<TicketInfoDTO> result = tickets.stream()
+	public TicketPageDTO getSoldTicketsPage(String afterTicketId, int limit) {
+		int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+		log.debug("[QueryService][getSoldTicketsPage] start after={}, limit={}", afterTicketId, pageSize);
+
+		// one extra row tells whether another page exists
+		Limit fetch = Limit.of(pageSize + 1);
+		List<TicketInfo> tickets = afterTicketId == null
+				? ticketInfoRepository.findAllByOrderByTicketIdAsc(fetch)
+				: ticketInfoRepository.findByTicketIdGreaterThanOrderByTicketIdAsc(parseTicketId(afterTicketId)
+						.orElseThrow(() -> new IllegalArgumentException("Invalid cursor: " + afterTicketId)), fetch);
+
+		boolean hasMore = tickets.size() > pageSize;
+		List<TicketInfoDTO> page = tickets.stream()
+				.limit(pageSize)
 				.map(tickerMapper::toInfoDto)
-				.collect(Collectors.toList());
-		log.debug("[QueryService][getAllSoldTickets] found {} tickets", result.size());
-		return result;
+				.toList();
+		String nextCursor = hasMore ? page.get(page.size() - 1).getTicketId() : null;
+		log.debug("[QueryService][getSoldTicketsPage] found {} tickets, nextCursor={}", page.size(), nextCursor);
+		return new TicketPageDTO(page, nextCursor);
+	}
+
+	// filtered keyset pages; elapsed time and heap allocated by the query are returned and recorded per call
+	@Override
+	@Transactional(readOnly = true)
+	public TicketSearchPageDTO searchTickets(TicketSearchDTO filter, String afterTicketId, int limit) {
+		int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+		UUID after = afterTicketId == null ? null : parseTicketId(afterTicketId)
+				.orElseThrow(() -> new IllegalArgumentException("Invalid cursor: " + afterTicketId));
+		if (filter.getCreatedFrom() != null && filter.getCreatedTo() != null
+				&& !filter.getCreatedFrom().isBefore(filter.getCreatedTo())) {
+			throw new IllegalArgumentException("createdFrom must be before createdTo");
+		}
+
+		long allocatedBefore = currentThreadAllocatedBytes();
+		long start = System.nanoTime();
+		List<TicketInfoDTO> page = new ArrayList<>(pageSize + 1);
+		// one extra row tells whether another page exists
+		ticketSearchRepository.search(filter, after, pageSize + 1, row -> page.add(tickerMapper.toInfoDto(row)));
+		long elapsedNanos = System.nanoTime() - start;
+		long allocated = allocatedBefore < 0 ? -1 : currentThreadAllocatedBytes() - allocatedBefore;
+
+		boolean hasMore = page.size() > pageSize;
+		List<TicketInfoDTO> tickets = hasMore ? page.subList(0, pageSize) : page;
+		String nextCursor = hasMore ? tickets.get(pageSize - 1).getTicketId() : null;
+
+		Timer.builder("query.search.latency")
+				.description("Ticket search query and projection time")
+				.publishPercentiles(0.5, 0.99)
+				.register(meterRegistry)
+				.record(elapsedNanos, TimeUnit.NANOSECONDS);
+		if (allocated >= 0) {
+			DistributionSummary.builder("query.search.allocated")
+					.description("Heap allocated per ticket search")
+					.baseUnit("bytes")
+					.register(meterRegistry)
+					.record(allocated);
+		}
+		log.debug("[QueryService][searchTickets] eventId={}, zoneId={}, status={}, rows={}, micros={}, allocatedBytes={}",
+				filter.getEventId(), filter.getZoneId(), filter.getStatus(), tickets.size(), elapsedNanos / 1000,
+				allocated);
+		return new TicketSearchPageDTO(tickets, nextCursor, elapsedNanos / 1000, allocated);
+	}
+
+	// NDJSON, one ticket per line, written while the rows are read; read-only so it runs on a reader
+	@Override
+	@Transactional(readOnly = true)
+	public long streamSoldTickets(String eventId, OutputStream out) throws IOException {
+		log.debug("[QueryService][streamSoldTickets] start eventId={}", eventId);
+		// keep Jackson from closing or flushing the response stream after every row
+		ObjectWriter writer = objectMapper.writerFor(TicketInfoDTO.class)
+				.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+				.without(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+		BufferedOutputStream buffered = new BufferedOutputStream(out, 1 << 16);
+		long[] count = new long[1];
+		try {
+			ticketStreamRepository.forEachTicket(eventId, dto -> {
+				try {
+					writer.writeValue(buffered, dto);
+					buffered.write('\n');
+					count[0]++;
+				} catch (IOException e) {
+					// client went away; the repository cancels the query and stops reading rows
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		buffered.flush();
+		log.debug("[QueryService][streamSoldTickets] wrote {} tickets for eventId={}", count[0], eventId);
+		return count[0];
+	}
+
+	// CSV of one event's tickets with the zone price, encoded from the result set into one reusable
+	// buffer and optionally gzipped; memory stays flat whatever the number of rows
+	@Override
+	@Transactional(readOnly = true)
+	public long exportSales(String eventId, boolean gzip, OutputStream out) throws IOException {
+		log.debug("[QueryService][exportSales] start eventId={}, gzip={}", eventId, gzip);
+		long start = System.nanoTime();
+		// venueId -> zoneId -> price, from the second-level cache once warm
+		Map<String, Map<Integer, BigDecimal>> zonePrices = new HashMap<>();
+		for (Zone zone : zoneRepository.findAll()) {
+			zonePrices.computeIfAbsent(zone.getVenueId(), v -> new HashMap<>()).put(zone.getZoneId(),
+					zone.getTicketPrice());
+		}
+
+		GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, exportBufferBytes) : null;
+		CsvTicketWriter csv = new CsvTicketWriter(gzip ? compressed : out, exportBufferBytes);
+		csv.header("ticket_id", "venue_id", "event_id", "zone_id", "row", "column", "status", "created_on",
+				"ticket_price");
+		try {
+			ticketStreamRepository.forEachTicketRow(eventId, rs -> {
+				try {
+					String venueId = rs.getString(2);
+					int zoneId = rs.getInt(4);
+					Timestamp createdOn = rs.getTimestamp(8);
+					csv.uuidField(rs.getBytes(1));
+					csv.field(venueId);
+					csv.field(rs.getString(3));
+					csv.field(zoneId);
+					csv.field(rs.getString(5));
+					csv.field(rs.getString(6));
+					csv.field(rs.getString(7));
+					csv.field(createdOn == null ? null : createdOn.toInstant().toString());
+					csv.field(zonePrices.getOrDefault(venueId, Map.of()).get(zoneId));
+					csv.endRow();
+				} catch (IOException e) {
+					// client went away; kill the query, closing a streaming result set would read it to the end
+					rs.getStatement().cancel();
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		csv.drain();
+		if (compressed != null) {
+			// trailer only, the response stream itself is closed by Spring
+			compressed.finish();
+		}
+		out.flush();
+		log.debug("[QueryService][exportSales] wrote {} tickets for eventId={}, gzip={}, elapsedMs={}", csv.rows(),
+				eventId, gzip, (System.nanoTime() - start) / 1_000_000);
+		return csv.rows();
+	}
+
+	// one streaming pass over the event's seats, no entities; gives up with 503 once the budget is spent
+	@Override
+	@Transactional(readOnly = true)
+	public SalesSummaryDTO getSalesSummary(String eventId) {
+		log.debug("[QueryService][getSalesSummary] start eventId={}", eventId);
+		long start = System.nanoTime();
+		long deadline = start + summaryBudgetMs * 1_000_000;
+		// totals from the rollup rows, refreshed incrementally; only the row/column breakdown scans tickets
+		EventAggregate aggregate = eventAggregateCache.get(eventId, Duration.ZERO);
+
+		SalesSummaryAggregator aggregator = new SalesSummaryAggregator();
+		int queryTimeoutSeconds = (int) Math.max(1, (summaryBudgetMs + 999) / 1000);
+		try {
+			ticketStreamRepository.forEachSoldSeat(eventId, queryTimeoutSeconds, rs -> {
+				aggregator.add(rs.getString(1), rs.getString(2));
+				if ((aggregator.seats() & 1023) == 0 && System.nanoTime() > deadline) {
+					// kill the query first, closing a streaming result set would otherwise read it to the end
+					rs.getStatement().cancel();
+					throw new SummaryTimeoutException("Sales summary for event " + eventId + " exceeded "
+							+ summaryBudgetMs + " ms after " + aggregator.seats() + " tickets");
+				}
+			});
+		} catch (QueryTimeoutException e) {
+			throw new SummaryTimeoutException("Sales summary for event " + eventId + " exceeded " + summaryBudgetMs
+					+ " ms");
+		}
+
+		SalesSummaryDTO summary = aggregator.toDto(eventId, aggregate.zones().values());
+		log.debug("[QueryService][getSalesSummary] eventId={}, tickets={}, seatsScanned={}, elapsedMs={}", eventId,
+				summary.getTotalTicketsSold(), aggregator.seats(), (System.nanoTime() - start) / 1_000_000);
+		return summary;
+	}
+
+	@Override
+	public EventAvailabilityDTO getAvailability(String venueId, String eventId) {
+		return seatAvailabilityService.getAvailability(venueId, eventId);
+	}
+
+	@Override
+	public SseEmitter streamAvailability(String venueId, String eventId, Integer zoneId) {
+		// read after the hub registered the connection, so no change falls between snapshot and deltas;
+		// an unknown venue or event still fails with 404
+		return seatChangeHub.subscribe(eventId, zoneId, () -> seatAvailabilityService.getAvailability(venueId, eventId));
+	}
+
+	// HotSpot counts allocations per thread; -1 on JVMs without it
+	private static long currentThreadAllocatedBytes() {
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+				&& threads.isThreadAllocatedMemoryEnabled()) {
+			return threads.getCurrentThreadAllocatedBytes();
+		}
+		return -1;
+	}
+
+	private static Optional<UUID> parseTicketId(String ticketId) {
+		try {
+			return Optional.of(UUID.fromString(ticketId));
+		} catch (IllegalArgumentException e) {
+			return Optional.empty();
+		}
 	}
 }
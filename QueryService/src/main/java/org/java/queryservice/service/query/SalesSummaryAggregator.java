@@ -0,0 +1,52 @@
+package org.java.queryservice.service.query;
+
+import org.java.queryservice.dto.SalesSummaryDTO;
+import org.java.queryservice.model.EventZoneSales;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+// Row and column counters for one pass over an event's sold seats; the label maps hold int[1] cells,
+// so a row costs no boxing and maps are only built once at the end. Event, venue, zone and revenue
+// totals are not counted here, they come from the consumer's event_zone_sales rollup rows.
+final class SalesSummaryAggregator {
+	private final Map<String, int[]> byRow = new HashMap<>();
+	private final Map<String, int[]> byColumn = new HashMap<>();
+	private int seats;
+
+	void add(String row, String column) {
+		seats++;
+		byRow.computeIfAbsent(row, k -> new int[1])[0]++;
+		byColumn.computeIfAbsent(column, k -> new int[1])[0]++;
+	}
+
+	int seats() {
+		return seats;
+	}
+
+	SalesSummaryDTO toDto(String eventId, Collection<EventZoneSales> zones) {
+		Map<String, Integer> byVenue = new HashMap<>();
+		Map<Integer, Integer> byZone = new HashMap<>();
+		int total = 0;
+		BigDecimal revenue = BigDecimal.ZERO;
+		for (EventZoneSales zone : zones) {
+			int count = Math.toIntExact(zone.getTicketCount());
+			total += count;
+			byVenue.merge(zone.getVenueId(), count, Integer::sum);
+			byZone.merge(zone.getZoneId(), count, Integer::sum);
+			revenue = revenue.add(zone.getRevenue());
+		}
+
+		Map<String, Integer> byEvent = new HashMap<>();
+		byEvent.put(eventId, total);
+		return new SalesSummaryDTO(total, byEvent, byVenue, byZone, toCounts(byRow), toCounts(byColumn), revenue);
+	}
+
+	private static Map<String, Integer> toCounts(Map<String, int[]> cells) {
+		Map<String, Integer> counts = new HashMap<>(cells.size() * 2);
+		cells.forEach((label, cell) -> counts.put(label, cell[0]));
+		return counts;
+	}
+}
@@ -0,0 +1,71 @@
+package org.java.queryservice.config.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadReplicaDataSourceConfigTest {
+
+	private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+			// Duration @Value parameters, converted by Boot's conversion service in the application
+			.withInitializer(context -> context.getBeanFactory()
+					.setConversionService(ApplicationConversionService.getSharedInstance()))
+			.withUserConfiguration(ReadReplicaDataSourceConfig.class)
+			.withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+			.withBean(DataSourceProperties.class, () -> {
+				DataSourceProperties properties = new DataSourceProperties();
+				properties.setUrl("jdbc:fake://writer:3306/ticketing?useSSL=true");
+				properties.setDriverClassName(FakeJdbcDriver.class.getName());
+				return properties;
+			});
+
+	@Test
+	@DisplayName("without reader hosts no routing is set up, every read stays on Boot's single datasource")
+	void noReaderHosts_noRouting() {
+		contextRunner
+				.withPropertyValues("query.datasource.readers.hosts=")
+				.run(context -> {
+					assertThat(context).doesNotHaveBean(ReadReplicaRoutingDataSource.class);
+					assertThat(context).doesNotHaveBean(LazyConnectionDataSourceProxy.class);
+				});
+	}
+
+	@Test
+	@DisplayName("reader hosts put a lazy routing datasource in front of the writer")
+	void readerHosts_routingDataSource() {
+		contextRunner
+				.withPropertyValues("query.datasource.readers.hosts=reader-1, reader-2:3307",
+						"query.datasource.readers.lag-query=select lag_ms")
+				.run(context -> {
+					assertThat(context).hasSingleBean(ReadReplicaRoutingDataSource.class);
+					DataSource dataSource = context.getBean(DataSource.class);
+					assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+					// outside a read-only transaction the first statement reaches the writer
+					try (Connection connection = dataSource.getConnection()) {
+						assertThat(connection.getMetaData().getURL())
+								.isEqualTo("jdbc:fake://writer:3306/ticketing?useSSL=true");
+					}
+				});
+	}
+
+	@Test
+	@DisplayName("reader URLs keep the writer's database and parameters")
+	void readerUrl() {
+		String writerUrl = "jdbc:mysql://writer.cluster:3306/ticketing?serverTimezone=UTC&useSSL=true";
+
+		assertThat(ReadReplicaDataSourceConfig.readerUrl(writerUrl, "reader-1", 3306))
+				.isEqualTo("jdbc:mysql://reader-1:3306/ticketing?serverTimezone=UTC&useSSL=true");
+		assertThat(ReadReplicaDataSourceConfig.readerUrl(writerUrl, "reader-2:3307", 3306))
+				.isEqualTo("jdbc:mysql://reader-2:3307/ticketing?serverTimezone=UTC&useSSL=true");
+	}
+}
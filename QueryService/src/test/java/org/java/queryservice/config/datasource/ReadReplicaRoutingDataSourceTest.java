@@ -0,0 +1,109 @@
+package org.java.queryservice.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReadReplicaRoutingDataSourceTest {
+	private static final String WRITER_URL = "jdbc:fake://writer:3306/ticketing";
+	private static final String READER_URL = "jdbc:fake://reader-1:3306/ticketing";
+
+	private HikariDataSource writer;
+	private MeterRegistry meterRegistry;
+	private ReadReplicaRoutingDataSource routing;
+
+	@BeforeEach
+	void setUp() {
+		FakeJdbcDriver.lagMs = 0;
+		writer = new HikariDataSource();
+		writer.setDriverClassName(FakeJdbcDriver.class.getName());
+		writer.setJdbcUrl(WRITER_URL);
+		writer.setConnectionTimeout(250);
+		writer.setMaximumPoolSize(2);
+		meterRegistry = new SimpleMeterRegistry();
+		// lag-query set, so the check reads FakeJdbcDriver.lagMs instead of SHOW REPLICA STATUS
+		routing = new ReadReplicaRoutingDataSource(writer, List.of(READER_URL), 2, Duration.ofSeconds(2),
+				"select lag_ms", meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+		routing.destroy();
+		writer.close();
+	}
+
+	private String connectedUrl(boolean readOnly) throws SQLException {
+		TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+		try (Connection connection = routing.getConnection()) {
+			return connection.getMetaData().getURL();
+		}
+	}
+
+	private double routes(String target) {
+		return meterRegistry.get("query.datasource.read.routes").tag("target", target).counter().count();
+	}
+
+	@Test
+	@DisplayName("read-only transactions go to a reader within the lag bound")
+	void readOnly_routedToReader() throws Exception {
+		routing.checkReaders();
+
+		assertEquals(READER_URL, connectedUrl(true));
+		assertEquals(1, routes("reader"));
+	}
+
+	@Test
+	@DisplayName("read-write transactions always go to the writer")
+	void writes_routedToWriter() throws Exception {
+		routing.checkReaders();
+
+		assertEquals(WRITER_URL, connectedUrl(false));
+		assertEquals(0, routes("reader"));
+		assertEquals(0, routes("writer"));
+	}
+
+	@Test
+	@DisplayName("reads stay on the writer until a reader passed its first lag check")
+	void readOnly_beforeFirstCheck_routedToWriter() throws Exception {
+		assertEquals(WRITER_URL, connectedUrl(true));
+		assertEquals(1, routes("writer"));
+	}
+
+	@Test
+	@DisplayName("a reader lagging past max-lag is taken out of rotation and back in once caught up")
+	void laggingReader_outOfRotation() throws Exception {
+		FakeJdbcDriver.lagMs = 5_000;
+		routing.checkReaders();
+		assertEquals(WRITER_URL, connectedUrl(true));
+
+		FakeJdbcDriver.lagMs = 100;
+		routing.checkReaders();
+		assertEquals(READER_URL, connectedUrl(true));
+	}
+
+	@Test
+	@DisplayName("a reader refusing connections falls back to the writer and leaves the rotation")
+	void refusingReader_fallsBackToWriter() throws Exception {
+		routing.checkReaders();
+		// closes the reader pools only, their getConnection now throws
+		routing.destroy();
+
+		assertEquals(WRITER_URL, connectedUrl(true));
+		assertEquals(WRITER_URL, connectedUrl(true));
+		assertEquals(0, routes("reader"));
+		assertEquals(2, routes("writer"));
+	}
+}
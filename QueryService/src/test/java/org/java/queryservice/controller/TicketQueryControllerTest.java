@@ -0,0 +1,94 @@
+package org.java.queryservice.controller;
+
+import org.java.queryservice.dto.SalesVersionDTO;
+import org.java.queryservice.dto.TicketInfoDTO;
+import org.java.queryservice.service.QueryServiceInterface;
+import org.java.ticketingcore.model.TicketStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class TicketQueryControllerTest {
+
+	private QueryServiceInterface queryService;
+	private MockMvc mockMvc;
+
+	@BeforeEach
+	void setUp() {
+		queryService = mock(QueryServiceInterface.class);
+		mockMvc = MockMvcBuilders
+				.standaloneSetup(new TicketQueryController(queryService, Duration.ofMinutes(1), 10_000))
+				.build();
+	}
+
+	@Test
+	@DisplayName("a ticket may only be kept by the caller's own cache")
+	void getTicket_privateCache() throws Exception {
+		// given
+		TicketInfoDTO ticket = new TicketInfoDTO();
+		ticket.setTicketId("T-1");
+		ticket.setStatus(TicketStatus.PAID);
+		ticket.setCreatedOn(Instant.parse("2025-01-02T03:04:05Z"));
+		when(queryService.getTicket("T-1")).thenReturn(ticket);
+
+		// when / then
+		mockMvc.perform(get("/api/v1/tickets/T-1"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "max-age=60, private"));
+	}
+
+	@Test
+	@DisplayName("max-age is what is left of the accepted staleness after the aggregate's age")
+	void count_maxAgeCountsAggregateAge() throws Exception {
+		// given
+		when(queryService.getSalesVersion(eq("E-1"), any()))
+				.thenReturn(new SalesVersionDTO(3, Instant.parse("2025-01-02T03:04:05Z"), 4_000));
+		when(queryService.countTicketSoldByEvent(eq("E-1"), any())).thenReturn(7);
+
+		// when / then
+		mockMvc.perform(get("/api/v1/tickets/count/E-1").param("maxStalenessMs", "10000"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "max-age=6, public"));
+	}
+
+	@Test
+	@DisplayName("without maxStalenessMs a fresh aggregate is still cacheable by edge caches")
+	void count_defaultStalenessCacheable() throws Exception {
+		// given
+		when(queryService.getSalesVersion(eq("E-1"), any()))
+				.thenReturn(new SalesVersionDTO(3, Instant.parse("2025-01-02T03:04:05Z"), 500));
+		when(queryService.countTicketSoldByEvent(eq("E-1"), any())).thenReturn(7);
+
+		// when / then
+		mockMvc.perform(get("/api/v1/tickets/count/E-1"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "max-age=9, public"));
+	}
+
+	@Test
+	@DisplayName("an aggregate already as old as the accepted staleness must be revalidated")
+	void count_agedOutNoCache() throws Exception {
+		// given
+		when(queryService.getSalesVersion(eq("E-1"), any()))
+				.thenReturn(new SalesVersionDTO(3, Instant.parse("2025-01-02T03:04:05Z"), 10_000));
+		when(queryService.countTicketSoldByEvent(eq("E-1"), any())).thenReturn(7);
+
+		// when / then
+		mockMvc.perform(get("/api/v1/tickets/count/E-1").param("maxStalenessMs", "10000"))
+				.andExpect(status().isOk())
+				.andExpect(header().string("Cache-Control", "no-cache, public"));
+	}
+}
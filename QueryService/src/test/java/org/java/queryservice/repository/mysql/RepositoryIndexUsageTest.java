@@ -0,0 +1,290 @@
+package org.java.queryservice.repository.mysql;
+
+import org.flywaydb.core.Flyway;
+import org.java.queryservice.dto.TicketSearchDTO;
+import org.java.ticketingcore.model.TicketStatus;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the repositories against a throwaway MySQL 8 migrated with the consumer's db/migration, records the
+ * SQL Hibernate and JdbcTemplate actually send together with its bound parameters, and EXPLAINs it, failing
+ * when a query stops using the index a migration created for it. Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = "spring.flyway.enabled=false")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({TicketStreamRepository.class, TicketSearchRepository.class,
+		RepositoryIndexUsageTest.RecordingDataSourceConfig.class})
+@Testcontainers(disabledWithoutDocker = true)
+class RepositoryIndexUsageTest {
+	private static final String MIGRATIONS = "filesystem:../RabbitCombinedConsumer/src/main/resources/db/migration";
+	private static final int TICKETS_PER_EVENT = 2000;
+	private static final UUID SAMPLE_TICKET_ID = UUID.randomUUID();
+	private static final List<RecordedStatement> STATEMENTS = new CopyOnWriteArrayList<>();
+
+	@Container
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0").withDatabaseName("ticketing");
+
+	private static JdbcTemplate explainJdbcTemplate;
+
+	@Autowired
+	private TicketInfoRepository ticketInfoRepository;
+	@Autowired
+	private EventZoneSalesRepository eventZoneSalesRepository;
+	@Autowired
+	private TicketStreamRepository ticketStreamRepository;
+	@Autowired
+	private TicketSearchRepository ticketSearchRepository;
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", MYSQL::getJdbcUrl);
+		registry.add("spring.datasource.username", MYSQL::getUsername);
+		registry.add("spring.datasource.password", MYSQL::getPassword);
+	}
+
+	@BeforeAll
+	static void migrateAndSeed() {
+		Flyway.configure()
+				.dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+				.locations(MIGRATIONS)
+				.load()
+				.migrate();
+		// outside the recording datasource, so EXPLAINs are not recorded themselves
+		explainJdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(),
+				MYSQL.getPassword()));
+
+		// enough rows that the optimizer's choices match production instead of favouring full scans
+		explainJdbcTemplate.update("INSERT INTO venue VALUES ('V1', 'Seattle')");
+		for (int zone = 1; zone <= 4; zone++) {
+			explainJdbcTemplate.update("INSERT INTO zone VALUES ('V1', ?, ?, 26, 30)", zone, 50 * zone);
+		}
+		List<Object[]> tickets = new ArrayList<>();
+		for (int event = 1; event <= 5; event++) {
+			explainJdbcTemplate.update("INSERT INTO event VALUES (?, 'V1', 'Concert', 'MUSIC', CURRENT_DATE)",
+					"E" + event);
+			for (int i = 0; i < TICKETS_PER_EVENT; i++) {
+				UUID ticketId = tickets.isEmpty() ? SAMPLE_TICKET_ID : UUID.randomUUID();
+				tickets.add(new Object[]{bytes(ticketId), "V1", "E" + event,
+						1 + i % 4, String.valueOf((char) ('A' + i / 30 % 26)), String.valueOf(1 + i % 30), "PAID",
+						Timestamp.from(Instant.now()), 1L});
+			}
+		}
+		explainJdbcTemplate.batchUpdate("""
+				INSERT INTO ticket(ticket_id, venue_id, event_id, zone_id, row_label, col_label, status, created_on,
+				                   ingest_id) VALUES (?,?,?,?,?,?,?,?,?)
+				""", tickets);
+		explainJdbcTemplate.update("""
+				INSERT INTO event_zone_sales (event_id, venue_id, zone_id, ticket_count, revenue, version)
+				SELECT t.event_id, t.venue_id, t.zone_id, COUNT(*), SUM(z.ticket_price), 1
+				FROM ticket t JOIN zone z ON z.venue_id = t.venue_id AND z.zone_id = t.zone_id
+				GROUP BY t.event_id, t.venue_id, t.zone_id
+				""");
+		explainJdbcTemplate.execute("ANALYZE TABLE ticket, event_zone_sales, zone");
+	}
+
+	@BeforeEach
+	void clearStatements() {
+		STATEMENTS.clear();
+	}
+
+	@Test
+	@DisplayName("ticket by id reads the primary key")
+	void ticketById() {
+		ticketInfoRepository.findById(SAMPLE_TICKET_ID);
+
+		assertLastQueryUses("PRIMARY");
+	}
+
+	@Test
+	@DisplayName("bulk lookup reads the primary key")
+	void bulkLookup() {
+		ticketInfoRepository.findRowsByTicketIdIn(List.of(SAMPLE_TICKET_ID, UUID.randomUUID()));
+
+		assertLastQueryUses("PRIMARY");
+	}
+
+	@Test
+	@DisplayName("keyset pages read the primary key in order")
+	void keysetPages() {
+		ticketInfoRepository.findAllByOrderByTicketIdAsc(Limit.of(101));
+		assertLastQueryUses("PRIMARY");
+
+		ticketInfoRepository.findByTicketIdGreaterThanOrderByTicketIdAsc(SAMPLE_TICKET_ID, Limit.of(101));
+		assertLastQueryUses("PRIMARY");
+	}
+
+	@Test
+	@DisplayName("event export and sales summary read only the covering index")
+	void eventStreams() {
+		ticketStreamRepository.forEachTicketRow("E1", rs -> {
+		});
+		assertLastQueryUses("idx_ticket_event_cover");
+
+		ticketStreamRepository.forEachSoldSeat("E1", 10, rs -> {
+		});
+		assertLastQueryUses("idx_ticket_event_cover");
+	}
+
+	@Test
+	@DisplayName("event-filtered search pages in ticket_id order through the (event_id, ticket_id) index")
+	void searchByEvent() {
+		TicketSearchDTO filter = new TicketSearchDTO();
+		filter.setEventId("E1");
+		filter.setStatus(TicketStatus.PAID);
+
+		ticketSearchRepository.search(filter, SAMPLE_TICKET_ID, 101, row -> {
+		});
+
+		assertLastQueryUses("idx_ticket_event_id");
+	}
+
+	@Test
+	@DisplayName("sold count, revenue and sales version read the rollup by its keys")
+	void salesRollup() {
+		eventZoneSalesRepository.sumTicketCountByEventId("E1");
+		assertLastQueryUses("PRIMARY", "idx_event_zone_sales_updated");
+
+		eventZoneSalesRepository.findSalesVersionByEventId("E1");
+		assertLastQueryUses("PRIMARY", "idx_event_zone_sales_updated");
+
+		eventZoneSalesRepository.sumRevenueByVenueAndEvent("V1", "E1");
+		assertLastQueryUses("PRIMARY");
+	}
+
+	@Test
+	@DisplayName("aggregate refreshes read the rollup by event and by the updated_at watermark")
+	void aggregateRefresh() {
+		eventZoneSalesRepository.findByEventId("E1");
+		assertLastQueryUses("PRIMARY", "idx_event_zone_sales_updated");
+
+		eventZoneSalesRepository.findByEventIdAndUpdatedAtGreaterThanEqual("E1", Instant.now().minusSeconds(5));
+		assertLastQueryUses("PRIMARY", "idx_event_zone_sales_updated");
+	}
+
+	// every table the plan reads must be read through one of the allowed keys
+	private static void assertLastQueryUses(String... allowedKeys) {
+		assertFalse(STATEMENTS.isEmpty(), "no statement recorded");
+		RecordedStatement statement = STATEMENTS.get(STATEMENTS.size() - 1);
+		Set<String> allowed = Set.of(allowedKeys);
+		List<String> tables = new ArrayList<>();
+		explainJdbcTemplate.query("EXPLAIN " + statement.sql(), (RowCallbackHandler) rs -> {
+			String table = rs.getString("table");
+			if (table == null) {
+				return;
+			}
+			tables.add(table);
+			String key = rs.getString("key");
+			String type = rs.getString("type");
+			assertTrue(key != null && allowed.contains(key), () -> statement.sql() + "\n" + table + " read with key="
+					+ key + ", type=" + type + ", expected one of " + allowed);
+		}, statement.parameters().values().toArray());
+		assertFalse(tables.isEmpty(), () -> "no table in the plan of " + statement.sql());
+		STATEMENTS.clear();
+	}
+
+	private static byte[] bytes(UUID uuid) {
+		return ByteBuffer.allocate(16)
+				.putLong(uuid.getMostSignificantBits())
+				.putLong(uuid.getLeastSignificantBits())
+				.array();
+	}
+
+	record RecordedStatement(String sql, Map<Integer, Object> parameters) {
+	}
+
+	@TestConfiguration
+	static class RecordingDataSourceConfig {
+		@Bean
+		static BeanPostProcessor recordingDataSource() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					return bean instanceof DataSource dataSource ? recording(dataSource) : bean;
+				}
+			};
+		}
+	}
+
+	private static DataSource recording(DataSource target) {
+		return proxy(DataSource.class, target, (method, args, result) ->
+				result instanceof Connection connection ? recording(connection) : result);
+	}
+
+	private static Connection recording(Connection target) {
+		return proxy(Connection.class, target, (method, args, result) -> {
+			if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+				RecordedStatement recorded = new RecordedStatement((String) args[0], new TreeMap<>());
+				STATEMENTS.add(recorded);
+				return recording(statement, recorded);
+			}
+			return result;
+		});
+	}
+
+	// setXxx(parameterIndex, value, ...) calls, in parameter order
+	private static PreparedStatement recording(PreparedStatement target, RecordedStatement recorded) {
+		return proxy(PreparedStatement.class, target, (method, args, result) -> {
+			if (method.getName().startsWith("set") && args != null && args.length >= 2
+					&& args[0] instanceof Integer index) {
+				recorded.parameters().put(index, method.getName().equals("setNull") ? null : args[1]);
+			}
+			return result;
+		});
+	}
+
+	private static <T> T proxy(Class<T> type, T target, ResultHandler handler) {
+		return type.cast(Proxy.newProxyInstance(RepositoryIndexUsageTest.class.getClassLoader(), new Class<?>[]{type},
+				(proxy, method, args) -> {
+					Object result;
+					try {
+						result = method.invoke(target, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+					return handler.handle(method, args, result);
+				}));
+	}
+
+	private interface ResultHandler {
+		Object handle(Method method, Object[] args, Object result);
+	}
+}
@@ -0,0 +1,52 @@
+package org.java.queryservice.repository.mysql;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TicketStreamRepositoryTest {
+
+	@Test
+	@DisplayName("a consumer giving up mid-stream cancels the query instead of draining the result set")
+	void forEachTicket_clientGone_cancelsStatement() throws Exception {
+		// given
+		DataSource dataSource = mock(DataSource.class);
+		Connection connection = mock(Connection.class);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		ResultSet rs = mock(ResultSet.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+		when(connection.prepareStatement(anyString())).thenReturn(statement);
+		when(statement.executeQuery()).thenReturn(rs);
+		when(rs.next()).thenReturn(true);
+		when(rs.getStatement()).thenReturn(statement);
+		UUID ticketId = UUID.randomUUID();
+		when(rs.getBytes(1)).thenReturn(ByteBuffer.allocate(16)
+				.putLong(ticketId.getMostSignificantBits())
+				.putLong(ticketId.getLeastSignificantBits())
+				.array());
+		when(rs.getString(7)).thenReturn("PAID");
+
+		TicketStreamRepository repository = new TicketStreamRepository(dataSource);
+
+		// when
+		assertThrows(UncheckedIOException.class, () -> repository.forEachTicket("E-1", dto -> {
+			throw new UncheckedIOException(new IOException("Broken pipe"));
+		}));
+
+		// then
+		verify(statement).cancel();
+		verify(rs, times(1)).next();
+	}
+}
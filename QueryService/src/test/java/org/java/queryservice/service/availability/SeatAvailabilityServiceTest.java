@@ -0,0 +1,158 @@
+package org.java.queryservice.service.availability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.java.queryservice.dto.EventAvailabilityDTO;
+import org.java.queryservice.dto.ZoneAvailabilityDTO;
+import org.java.queryservice.exception.InventoryNotFoundException;
+import org.java.queryservice.repository.mysql.EventRepository;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Venue V-1 has zones 1 and 2; the pipeline is run against a mocked connection and answers with the given replies
+class SeatAvailabilityServiceTest {
+	private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+	private final RedisConnection connection = mock(RedisConnection.class);
+	private final RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+	private final EventRepository eventRepository = mock(EventRepository.class);
+	private SetOperations<String, String> sets;
+	private SeatAvailabilityService service;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		sets = mock(SetOperations.class);
+		when(redis.opsForSet()).thenReturn(sets);
+		when(sets.members(RedisKeyUtil.getZoneSetKey("V-1"))).thenReturn(Set.of("2", "1"));
+		when(connection.stringCommands()).thenReturn(stringCommands);
+		when(eventRepository.findVenueIdByEventId("E-1")).thenReturn(Optional.of("V-1"));
+		service = new SeatAvailabilityService(redis, eventRepository, new SimpleMeterRegistry(), Duration.ofMinutes(1));
+	}
+
+	// version, then bitcount / remaining / capacity per zone, as StringRedisTemplate returns them
+	private void replies(Object... replies) {
+		when(redis.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+			invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+			return Arrays.asList(replies);
+		});
+	}
+
+	private static byte[] bytes(String key) {
+		return key.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	@DisplayName("one pipeline reads the version and each zone's bitcount, remaining counter and capacity")
+	void availability_onePipeline() {
+		// given
+		replies("4", 30L, "750", "780", 0L, "780", "780");
+
+		// when
+		EventAvailabilityDTO dto = service.getAvailability("V-1", "E-1");
+
+		// then
+		verify(redis, times(1)).executePipelined(any(RedisCallback.class));
+		InOrder pipeline = inOrder(stringCommands);
+		pipeline.verify(stringCommands).get(bytes(RedisKeyUtil.getInventoryVersionKey("E-1")));
+		for (int zoneId = 1; zoneId <= 2; zoneId++) {
+			pipeline.verify(stringCommands).bitCount(bytes(RedisKeyUtil.getZoneBitMapKey("E-1", zoneId)));
+			pipeline.verify(stringCommands).get(bytes(RedisKeyUtil.getZoneRemainedSeats("E-1", zoneId)));
+			pipeline.verify(stringCommands).get(bytes(RedisKeyUtil.getZoneCapacityKey("V-1", zoneId)));
+		}
+
+		assertEquals(4, dto.getInventoryVersion());
+		assertEquals(30, dto.getSold());
+		assertEquals(1530, dto.getRemaining());
+		assertEquals(1560, dto.getCapacity());
+		List<ZoneAvailabilityDTO> zones = dto.getZones();
+		assertEquals(List.of(1, 2), zones.stream().map(ZoneAvailabilityDTO::getZoneId).toList());
+		assertEquals(30, zones.get(0).getSold());
+		assertEquals(750, zones.get(0).getRemaining());
+		assertEquals(780, zones.get(0).getCapacity());
+	}
+
+	@Test
+	@DisplayName("a missing counter or capacity is derived from the other two values")
+	void missingValues_derived() {
+		// given: zone 1 has no remaining counter, zone 2 no capacity; no bitmap means nothing sold
+		replies("1", 10L, null, "100", null, "40", null);
+
+		// when
+		EventAvailabilityDTO dto = service.getAvailability("V-1", "E-1");
+
+		// then
+		ZoneAvailabilityDTO first = dto.getZones().get(0);
+		ZoneAvailabilityDTO second = dto.getZones().get(1);
+		assertEquals(90, first.getRemaining());
+		assertEquals(0, second.getSold());
+		assertEquals(40, second.getCapacity());
+	}
+
+	@Test
+	@DisplayName("an event without an inventory version has no seat inventory")
+	void noVersion_notFound() {
+		// given
+		replies(null, 0L, null, "780", 0L, null, "780");
+
+		// when / then
+		assertThrows(InventoryNotFoundException.class, () -> service.getAvailability("V-1", "E-1"));
+	}
+
+	@Test
+	@DisplayName("an event held at another venue is rejected before Redis is read")
+	void venueMismatch_rejected() {
+		// given
+		when(eventRepository.findVenueIdByEventId("E-2")).thenReturn(Optional.of("V-2"));
+
+		// when / then
+		assertThrows(InventoryNotFoundException.class, () -> service.getAvailability("V-1", "E-2"));
+		verifyNoInteractions(redis);
+	}
+
+	@Test
+	@DisplayName("an unknown event is rejected and looked up again next time")
+	void unknownEvent_rejectedNotCached() {
+		// given
+		when(eventRepository.findVenueIdByEventId("E-9")).thenReturn(Optional.empty());
+
+		// when
+		assertThrows(InventoryNotFoundException.class, () -> service.getAvailability("V-1", "E-9"));
+		assertThrows(InventoryNotFoundException.class, () -> service.getAvailability("V-1", "E-9"));
+
+		// then
+		verify(eventRepository, times(2)).findVenueIdByEventId("E-9");
+		verifyNoInteractions(redis);
+	}
+
+	@Test
+	@DisplayName("the event's venue and the zone ids are read once and then served from memory")
+	void venueAndZones_cached() {
+		// given
+		replies("4", 0L, "780", "780", 0L, "780", "780");
+
+		// when
+		service.getAvailability("V-1", "E-1");
+		service.getAvailability("V-1", "E-1");
+
+		// then
+		verify(eventRepository, times(1)).findVenueIdByEventId("E-1");
+		verify(sets, times(1)).members(RedisKeyUtil.getZoneSetKey("V-1"));
+	}
+}
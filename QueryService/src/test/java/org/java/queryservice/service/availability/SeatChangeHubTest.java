@@ -0,0 +1,278 @@
+package org.java.queryservice.service.availability;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.java.queryservice.dto.EventAvailabilityDTO;
+import org.java.queryservice.dto.SeatDeltaDTO;
+import org.java.queryservice.dto.ZoneDeltaDTO;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+
+class SeatChangeHubTest {
+	private static final int MAX_SEATS = 3;
+
+	private final ObjectMapper objectMapper = spy(new ObjectMapper());
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+	// holdNext makes the next write wait for release
+	private final CountDownLatch release = new CountDownLatch(1);
+	private volatile boolean holdNext;
+	private SeatChangeHub hub;
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		hub.destroy();
+	}
+
+	// the scheduled tick is an hour out, the tests tick by hand
+	private SeatChangeHub hub(Duration heartbeat) {
+		return new SeatChangeHub(objectMapper, meterRegistry, 3_600_000, Duration.ofMinutes(30), heartbeat,
+				MAX_SEATS) {
+			@Override
+			SseEmitter newEmitter() {
+				return new RecordingEmitter();
+			}
+		};
+	}
+
+	private SeatChangeHub subscribed(Duration heartbeat) throws Exception {
+		SeatChangeHub hub = hub(heartbeat);
+		hub.subscribe("E-1", null, EventAvailabilityDTO::new);
+		assertTrue(next().startsWith("event:snapshot"));
+		return hub;
+	}
+
+	private void publish(String payload) {
+		hub.onMessage(new DefaultMessage("event:E-1:seats".getBytes(StandardCharsets.UTF_8),
+				payload.getBytes(StandardCharsets.UTF_8)), null);
+	}
+
+	private String next() throws InterruptedException {
+		String event = events.poll(5, TimeUnit.SECONDS);
+		assertNotNull(event, "no event written");
+		return event;
+	}
+
+	private ZoneDeltaDTO nextDelta() throws Exception {
+		String event = next();
+		assertTrue(event.startsWith("event:delta\ndata:"), event);
+		String json = event.substring("event:delta\ndata:".length()).trim();
+		List<ZoneDeltaDTO> zones = new ObjectMapper().readValue(json, SeatDeltaDTO.class).getZones();
+		assertEquals(1, zones.size());
+		return zones.get(0);
+	}
+
+	private double skipped() {
+		return meterRegistry.get("query.seat-stream.frames").tag("result", "skipped").counter().count();
+	}
+
+	@Test
+	@DisplayName("a seat taken and released within one tick is in neither list")
+	void takeThenRelease_cancelsOut() throws Exception {
+		// given
+		hub = subscribed(Duration.ofHours(1));
+		publish("1,A,1,1,99");
+		publish("1,A,2,1,98");
+		publish("1,A,1,0,99");
+
+		// when
+		hub.tick();
+
+		// then: only the counter of the newest change is kept
+		ZoneDeltaDTO zone = nextDelta();
+		assertEquals(1, zone.getZoneId());
+		assertEquals(List.of("A-2"), zone.getTaken());
+		assertEquals(List.of(), zone.getReleased());
+		assertEquals(99, zone.getRemaining());
+		assertFalse(zone.isTruncated());
+	}
+
+	@Test
+	@DisplayName("past maxSeats changes in a tick the zone is sent truncated, without seat lists")
+	void pastMaxSeats_truncated() throws Exception {
+		// given
+		hub = subscribed(Duration.ofHours(1));
+		publish("1,A,1,1,99");
+		publish("1,A,2,1,98");
+		publish("1,A,3,1,97");
+		publish("1,A,4,1,96");
+		publish("1,A,1,0,97");
+
+		// when
+		hub.tick();
+
+		// then
+		ZoneDeltaDTO zone = nextDelta();
+		assertTrue(zone.isTruncated());
+		assertEquals(List.of(), zone.getTaken());
+		assertEquals(List.of(), zone.getReleased());
+		assertEquals(97, zone.getRemaining());
+	}
+
+	@Test
+	@DisplayName("a connection still writing skips the tick and gets a resync before its next delta")
+	void skippedTick_resyncBeforeNextDelta() throws Exception {
+		// given: the first delta write hangs
+		hub = subscribed(Duration.ofHours(1));
+		holdNext = true;
+		publish("1,A,1,1,99");
+		hub.tick();
+		publish("1,A,2,1,98");
+
+		// when: the next tick finds the connection busy
+		hub.tick();
+		assertEquals(1, skipped());
+		release.countDown();
+		assertEquals(List.of("A-1"), nextDelta().getTaken());
+		// the writer frees the connection after the send returns, tick until a tick is not skipped
+		double skipped;
+		do {
+			skipped = skipped();
+			publish("1,A,3,1,97");
+			hub.tick();
+		} while (skipped() > skipped);
+
+		// then
+		assertTrue(next().startsWith("event:resync"));
+		assertTrue(nextDelta().getTaken().contains("A-3"));
+	}
+
+	@Test
+	@DisplayName("a tick that failed to build the frame makes the next delta a resync")
+	void failedTick_resyncBeforeNextDelta() throws Exception {
+		// given
+		hub = subscribed(Duration.ofHours(1));
+		doThrow(new JsonProcessingException("boom") {
+		}).doCallRealMethod().when(objectMapper).writeValueAsString(any());
+		publish("1,A,1,1,99");
+
+		// when
+		hub.tick();
+		publish("1,A,2,1,98");
+		hub.tick();
+
+		// then: A-1 was lost with the failed tick, the resync tells the client to re-read
+		assertTrue(next().startsWith("event:resync"));
+		ZoneDeltaDTO zone = nextDelta();
+		assertEquals(List.of("A-2"), zone.getTaken());
+		assertEquals(98, zone.getRemaining());
+	}
+
+	@Test
+	@DisplayName("a resync published after an inventory rebuild reaches a quiet connection on the next tick")
+	void rebuildResync_sentOnNextTick() throws Exception {
+		// given
+		hub = subscribed(Duration.ofHours(1));
+
+		// when
+		publish(RedisKeyUtil.SEAT_CHANGE_RESYNC);
+		hub.tick();
+
+		// then: only once, the following delta comes as is
+		assertTrue(next().startsWith("event:resync"));
+		publish("1,A,1,1,99");
+		hub.tick();
+		assertEquals(List.of("A-1"), nextDelta().getTaken());
+	}
+
+	@Test
+	@DisplayName("a change ticked while the snapshot is read follows the snapshot as a delta")
+	void changeDuringSnapshot_bufferedAfterIt() throws Exception {
+		// given
+		hub = hub(Duration.ofHours(1));
+
+		// when: the change lands after the hub registered the connection, before the snapshot is sent
+		hub.subscribe("E-1", null, () -> {
+			publish("1,A,1,1,99");
+			hub.tick();
+			return new EventAvailabilityDTO();
+		});
+
+		// then: neither lost nor counted as a skipped frame
+		assertTrue(next().startsWith("event:snapshot"));
+		assertEquals(List.of("A-1"), nextDelta().getTaken());
+		assertEquals(0, skipped());
+	}
+
+	@Test
+	@DisplayName("a snapshot that fails leaves no subscriber behind")
+	void snapshotFails_unsubscribed() throws Exception {
+		// given
+		hub = hub(Duration.ofNanos(1));
+
+		// when
+		assertThrows(IllegalStateException.class, () -> hub.subscribe("E-1", null, () -> {
+			throw new IllegalStateException("unknown event");
+		}));
+		publish("1,A,1,1,99");
+		hub.tick();
+
+		// then
+		assertNull(events.poll(200, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	@DisplayName("a quiet event gets a heartbeat comment once the heartbeat interval passed")
+	void quietEvent_heartbeat() throws Exception {
+		// given
+		hub = subscribed(Duration.ofNanos(1));
+
+		// when
+		hub.tick();
+
+		// then
+		assertTrue(next().startsWith(":"));
+	}
+
+	@Test
+	@DisplayName("no heartbeat within the heartbeat interval")
+	void quietEvent_noHeartbeatWithinInterval() throws Exception {
+		// given
+		hub = subscribed(Duration.ofHours(1));
+
+		// when
+		hub.tick();
+
+		// then
+		assertNull(events.poll(200, TimeUnit.MILLISECONDS));
+	}
+
+	// records each event as its SSE text, "event:delta\ndata:{...}\n\n" or ":\n\n" for a comment
+	private class RecordingEmitter extends SseEmitter {
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (holdNext) {
+				holdNext = false;
+				try {
+					release.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			StringBuilder text = new StringBuilder();
+			builder.build().forEach(part -> text.append(part.getData()));
+			events.add(text.toString());
+		}
+	}
+}
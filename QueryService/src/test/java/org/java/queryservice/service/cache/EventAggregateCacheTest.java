@@ -0,0 +1,133 @@
+package org.java.queryservice.service.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.java.queryservice.model.EventZoneSales;
+import org.java.queryservice.repository.mysql.EventZoneSalesRepository;
+import org.java.queryservice.service.cache.EventAggregateCache.EventAggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EventAggregateCacheTest {
+	private static final Duration WATERMARK_LAG = Duration.ofSeconds(5);
+	private static final Instant T0 = Instant.parse("2025-01-02T03:00:00Z");
+
+	private EventZoneSalesRepository repository;
+	private EventAggregateCache cache;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(EventZoneSalesRepository.class);
+		cache = new EventAggregateCache(repository, new SimpleMeterRegistry(), 100, WATERMARK_LAG,
+				Duration.ofHours(1));
+	}
+
+	private static EventZoneSales zone(int zoneId, long count, String revenue, long version, Instant updatedAt) {
+		return new EventZoneSales("E-1", "V-1", zoneId, count, new BigDecimal(revenue), version, updatedAt);
+	}
+
+	@Test
+	@DisplayName("an incremental refresh reads from the lagged watermark and merges only the rows it returns")
+	void incrementalRefresh_mergesRowsPastWatermark() {
+		// given: a full read of two zones, the newest updated at T0 + 10s
+		when(repository.findByEventId("E-1")).thenReturn(List.of(
+				zone(1, 2, "100.00", 2, T0),
+				zone(2, 1, "80.00", 1, T0.plusSeconds(10))));
+		EventAggregate first = cache.get("E-1", Duration.ofMinutes(1));
+		Instant watermark = T0.plusSeconds(10).minus(WATERMARK_LAG);
+		when(repository.findByEventIdAndUpdatedAtGreaterThanEqual("E-1", watermark)).thenReturn(List.of(
+				zone(2, 3, "240.00", 3, T0.plusSeconds(20)),
+				zone(3, 1, "50.00", 1, T0.plusSeconds(21))));
+
+		// when: nothing cached is fresh enough
+		EventAggregate second = cache.get("E-1", Duration.ZERO);
+
+		// then: zone 1 kept from the full read, zone 2 replaced, zone 3 added
+		assertEquals(3, first.ticketCount());
+		assertEquals(6, second.ticketCount());
+		assertEquals(new BigDecimal("390.00"), second.revenue("V-1"));
+		assertEquals(6, second.salesVersion().getVersion());
+		assertEquals(T0.plusSeconds(21).minus(WATERMARK_LAG), second.watermark());
+		verify(repository, times(1)).findByEventId("E-1");
+		verify(repository, times(1)).findByEventIdAndUpdatedAtGreaterThanEqual("E-1", watermark);
+		verifyNoMoreInteractions(repository);
+	}
+
+	@Test
+	@DisplayName("concurrent readers of a stale event share one reload")
+	void concurrentReaders_singleReload() throws Exception {
+		// given: the reload blocks until released
+		CountDownLatch entered = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		when(repository.findByEventId("E-1")).thenAnswer(inv -> {
+			entered.countDown();
+			assertTrue(release.await(10, TimeUnit.SECONDS));
+			return List.of(zone(1, 4, "200.00", 4, T0));
+		});
+		int readers = 8;
+		AtomicReferenceArray<EventAggregate> results = new AtomicReferenceArray<>(readers);
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < readers; i++) {
+			int index = i;
+			threads.add(new Thread(() -> results.set(index, cache.get("E-1", Duration.ofMinutes(1)))));
+		}
+
+		// when: one reader starts the reload, the others arrive while it runs
+		threads.get(0).start();
+		assertTrue(entered.await(10, TimeUnit.SECONDS));
+		for (Thread thread : threads.subList(1, readers)) {
+			thread.start();
+		}
+		for (Thread thread : threads.subList(1, readers)) {
+			while (thread.getState() != Thread.State.WAITING) {
+				assertTrue(thread.isAlive(), "reader finished before the reload did");
+				Thread.onSpinWait();
+			}
+		}
+		release.countDown();
+		for (Thread thread : threads) {
+			thread.join(10_000);
+		}
+
+		// then
+		verify(repository, times(1)).findByEventId("E-1");
+		for (int i = 0; i < readers; i++) {
+			assertSame(results.get(0), results.get(i));
+		}
+		assertEquals(4, results.get(0).ticketCount());
+	}
+
+	@Test
+	@DisplayName("a failed refresh keeps the previous snapshot and watermark")
+	void failedRefresh_keepsPreviousSnapshot() {
+		// given
+		when(repository.findByEventId("E-1")).thenReturn(List.of(zone(1, 2, "100.00", 2, T0)));
+		EventAggregate previous = cache.get("E-1", Duration.ofMinutes(1));
+		Instant watermark = T0.minus(WATERMARK_LAG);
+		when(repository.findByEventIdAndUpdatedAtGreaterThanEqual("E-1", watermark))
+				.thenThrow(new IllegalStateException("reader gone"))
+				.thenReturn(List.of());
+
+		// when
+		assertThrows(IllegalStateException.class, () -> cache.get("E-1", Duration.ZERO));
+
+		// then: readers that accept it still get the old snapshot, the next refresh resumes from its watermark
+		assertSame(previous, cache.get("E-1", Duration.ofMinutes(1)));
+		EventAggregate retried = cache.get("E-1", Duration.ZERO);
+		assertEquals(2, retried.ticketCount());
+		assertEquals(watermark, retried.watermark());
+		verify(repository, times(2)).findByEventIdAndUpdatedAtGreaterThanEqual("E-1", watermark);
+	}
+}
@@ -0,0 +1,84 @@
+package org.java.queryservice.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.java.queryservice.dto.TicketInfoDTO;
+import org.java.ticketingcore.model.TicketStatus;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TicketCacheTest {
+	private static final Duration REDIS_TTL = Duration.ofMinutes(10);
+	private static final String TICKET_ID = "5f0c6a52-8a51-4d5e-9f3c-0d6c1b7f3e21";
+	private static final String KEY = RedisKeyUtil.getTicketViewKey(TICKET_ID);
+
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+	private ValueOperations<String, String> values;
+	private TicketCache cache;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		StringRedisTemplate redis = mock(StringRedisTemplate.class);
+		values = mock(ValueOperations.class);
+		when(redis.opsForValue()).thenReturn(values);
+		cache = new TicketCache(redis, objectMapper, new SimpleMeterRegistry(), 100, Duration.ofMinutes(2),
+				REDIS_TTL);
+	}
+
+	private static TicketInfoDTO ticket(TicketStatus status) {
+		return new TicketInfoDTO(TICKET_ID, "V-1", "E-1", 1, "A", "1", status, Instant.parse("2025-01-02T03:00:00Z"));
+	}
+
+	@Test
+	@DisplayName("a Redis hit is served without the loader")
+	void redisHit_skipsLoader() throws Exception {
+		// given
+		when(values.get(KEY)).thenReturn(objectMapper.writeValueAsString(ticket(TicketStatus.PAID)));
+
+		// when
+		TicketInfoDTO dto = cache.get(TICKET_ID, id -> fail("loader called on a Redis hit"));
+
+		// then
+		assertEquals(TicketStatus.PAID, dto.getStatus());
+	}
+
+	@Test
+	@DisplayName("a tombstone is a miss, and the refill only sets the key if the tombstone has expired")
+	void tombstone_missAndRefillIfAbsent() throws Exception {
+		// given: the consumer invalidated the ticket moments ago
+		when(values.get(KEY)).thenReturn(RedisKeyUtil.TICKET_VIEW_TOMBSTONE);
+
+		// when
+		TicketInfoDTO dto = cache.get(TICKET_ID, id -> ticket(TicketStatus.CANCELLED));
+
+		// then: the loaded row is returned, never written over the tombstone
+		assertEquals(TicketStatus.CANCELLED, dto.getStatus());
+		verify(values).setIfAbsent(KEY, objectMapper.writeValueAsString(dto), REDIS_TTL);
+		verify(values, never()).set(anyString(), anyString(), any(Duration.class));
+	}
+
+	@Test
+	@DisplayName("a miss the loader does not find is not cached")
+	void notFound_notCached() {
+		// when
+		TicketInfoDTO dto = cache.get(TICKET_ID, id -> null);
+
+		// then
+		assertNull(dto);
+		verify(values, never()).setIfAbsent(eq(KEY), anyString(), any(Duration.class));
+	}
+}
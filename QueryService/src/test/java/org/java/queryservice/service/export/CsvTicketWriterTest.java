@@ -0,0 +1,35 @@
+package org.java.queryservice.service.export;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvTicketWriterTest {
+
+	@Test
+	@DisplayName("long fields keep their column, including the extremes")
+	void longFields() throws Exception {
+		// given
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		CsvTicketWriter csv = new CsvTicketWriter(out, 256);
+
+		// when
+		csv.field("a");
+		csv.field(Long.MIN_VALUE);
+		csv.field(0);
+		csv.field(-42);
+		csv.field(Long.MAX_VALUE);
+		csv.field("z");
+		csv.endRow();
+		csv.drain();
+
+		// then
+		assertEquals("a,-9223372036854775808,0,-42,9223372036854775807,z\r\n",
+				out.toString(StandardCharsets.UTF_8));
+		assertEquals(1, csv.rows());
+	}
+}
@@ -1,11 +1,32 @@
 // src/test/java/org/java/queryservice/service/query/QueryServiceTest.java
 package org.java.queryservice.service.query;
 
+import org.java.queryservice.dto.EventAvailabilityDTO;
+import org.java.queryservice.dto.SalesVersionDTO;
+import org.java.queryservice.dto.TicketSearchDTO;
+import org.java.queryservice.dto.TicketSearchPageDTO;
 import org.java.queryservice.dto.TicketInfoDTO;
+import org.java.queryservice.dto.TicketLookupDTO;
 import org.java.queryservice.exception.TicketNotFoundException;
 import org.java.queryservice.mapper.TicketMapper;
 import org.java.queryservice.model.TicketInfo;
+import org.java.queryservice.repository.mysql.EventZoneSalesRepository;
 import org.java.queryservice.repository.mysql.TicketInfoRepository;
+import org.java.queryservice.repository.mysql.TicketSearchRepository;
+import org.java.queryservice.repository.mysql.TicketRow;
+import org.java.queryservice.repository.mysql.TicketStreamRepository;
+import org.java.queryservice.repository.mysql.ZoneRepository;
+import org.java.queryservice.model.EventZoneSales;
+import org.java.ticketingcore.model.TicketStatus;
+import org.java.queryservice.model.Zone;
+import org.java.queryservice.service.availability.SeatAvailabilityService;
+import org.java.queryservice.service.availability.SeatChangeHub;
+import org.java.queryservice.service.cache.EventAggregateCache;
+import org.java.queryservice.service.cache.EventAggregateCache.EventAggregate;
+import org.java.queryservice.service.cache.TicketCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -13,10 +34,31 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -27,12 +69,48 @@ class QueryServiceTests {
 	@Mock
 	TicketInfoRepository ticketInfoRepository;
 
+	@Mock
+	EventZoneSalesRepository eventZoneSalesRepository;
+
 	@Mock
 	TicketMapper ticketMapper;
 
+	@Mock
+	TicketCache ticketCache;
+
+	@Mock
+	EventAggregateCache eventAggregateCache;
+
+	@Mock
+	SeatAvailabilityService seatAvailabilityService;
+
+	@Mock
+	SeatChangeHub seatChangeHub;
+
+	@Mock
+	TicketSearchRepository ticketSearchRepository;
+
+	@Mock
+	TicketStreamRepository ticketStreamRepository;
+
+	@Mock
+	ZoneRepository zoneRepository;
+
+	@Spy
+	MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
 	@InjectMocks
 	QueryService queryService;
 
+	// cache miss by default: the loader passed by the service runs against the repository mocks
+	@BeforeEach
+	void cacheMissesByDefault() {
+		lenient().when(ticketCache.get(anyString(), any())).thenAnswer(inv -> {
+			Function<String, TicketInfoDTO> loader = inv.getArgument(1);
+			return loader.apply(inv.getArgument(0));
+		});
+	}
+
 	@Nested
 	@DisplayName("getTicket")
 	class GetTicketTests {
@@ -41,12 +119,12 @@ class QueryServiceTests {
 		@DisplayName("should return DTO when ticket exists")
 		void getTicket_ok() {
 			// given
-			String ticketId = "T-123";
+			String ticketId = "5b15a8a4-1f84-44dd-8f3d-9ae9de6e6d1b";
 			TicketInfo entity = new TicketInfo(); // 不依赖字段，作为占位
 			TicketInfoDTO dto = new TicketInfoDTO();
 			dto.setTicketId(ticketId);
 
-			when(ticketInfoRepository.findById(ticketId)).thenReturn(Optional.of(entity));
+			when(ticketInfoRepository.findById(UUID.fromString(ticketId))).thenReturn(Optional.of(entity));
 			when(ticketMapper.toInfoDto(entity)).thenReturn(dto);
 
 			// when
@@ -55,7 +133,7 @@ class QueryServiceTests {
 			// then
 			assertNotNull(result);
 			assertEquals(ticketId, result.getTicketId());
-			verify(ticketInfoRepository, times(1)).findById(ticketId);
+			verify(ticketInfoRepository, times(1)).findById(UUID.fromString(ticketId));
 			verify(ticketMapper, times(1)).toInfoDto(entity);
 			verifyNoMoreInteractions(ticketInfoRepository, ticketMapper);
 		}
@@ -64,8 +142,8 @@ class QueryServiceTests {
 		@DisplayName("should throw TicketNotFoundException when ticket does not exist")
 		void getTicket_notFound() {
 			// given
-			String ticketId = "T-404";
-			when(ticketInfoRepository.findById(ticketId)).thenReturn(Optional.empty());
+			String ticketId = "00000000-0000-0000-0000-000000000404";
+			when(ticketInfoRepository.findById(UUID.fromString(ticketId))).thenReturn(Optional.empty());
 
 			// when / then
 			TicketNotFoundException ex = assertThrows(
@@ -73,10 +151,35 @@ class QueryServiceTests {
 					() -> queryService.getTicket(ticketId)
 			);
 			assertTrue(ex.getMessage().contains(ticketId));
-			verify(ticketInfoRepository, times(1)).findById(ticketId);
+			verify(ticketInfoRepository, times(1)).findById(UUID.fromString(ticketId));
 			verifyNoInteractions(ticketMapper);
 			verifyNoMoreInteractions(ticketInfoRepository);
 		}
+
+		@Test
+		@DisplayName("should treat an id that is not a UUID as not found without querying")
+		void getTicket_malformedId() {
+			// when / then
+			assertThrows(TicketNotFoundException.class, () -> queryService.getTicket("T-404"));
+			verifyNoInteractions(ticketInfoRepository, ticketMapper);
+		}
+
+		@Test
+		@DisplayName("should serve a cached ticket without touching the repository")
+		void getTicket_cacheHit() {
+			// given
+			String ticketId = "T-777";
+			TicketInfoDTO cached = new TicketInfoDTO();
+			cached.setTicketId(ticketId);
+			when(ticketCache.get(eq(ticketId), any())).thenReturn(cached);
+
+			// when
+			TicketInfoDTO result = queryService.getTicket(ticketId);
+
+			// then
+			assertSame(cached, result);
+			verifyNoInteractions(ticketInfoRepository, ticketMapper);
+		}
 	}
 
 	@Nested
@@ -84,20 +187,64 @@ class QueryServiceTests {
 	class CountTests {
 
 		@Test
-		@DisplayName("should return repository count and log once")
+		@DisplayName("should return rollup count without touching the ticket table")
 		void count_ok() {
 			// given
 			String eventId = "E-1";
-			when(ticketInfoRepository.countByEventId(eventId)).thenReturn(42);
+			when(eventZoneSalesRepository.sumTicketCountByEventId(eventId)).thenReturn(42L);
 
 			// when
 			int count = queryService.countTicketSoldByEvent(eventId);
 
 			// then
 			assertEquals(42, count);
-			verify(ticketInfoRepository, times(1)).countByEventId(eventId);
-			verifyNoInteractions(ticketMapper);
-			verifyNoMoreInteractions(ticketInfoRepository);
+			verify(eventZoneSalesRepository, times(1)).sumTicketCountByEventId(eventId);
+			verifyNoInteractions(ticketMapper, ticketInfoRepository);
+			verifyNoMoreInteractions(eventZoneSalesRepository);
+		}
+
+		@Test
+		@DisplayName("should answer from the aggregate cache when staleness is allowed")
+		void count_cached() {
+			// given
+			String eventId = "E-2";
+			Duration staleness = Duration.ofSeconds(5);
+			EventZoneSales zone = new EventZoneSales(eventId, "V-1", 1, 12, new BigDecimal("1200.00"), 3, Instant.now());
+			EventAggregate aggregate = new EventAggregate(Map.of("V-1:1", zone), 12,
+					Map.of("V-1", new BigDecimal("1200.00")), Instant.now(), System.nanoTime(), System.nanoTime());
+			when(eventAggregateCache.get(eventId, staleness)).thenReturn(aggregate);
+
+			// when
+			int count = queryService.countTicketSoldByEvent(eventId, staleness);
+			BigDecimal revenue = queryService.sumRevenueByVenueAndEvent("V-1", eventId, staleness);
+
+			// then
+			assertEquals(12, count);
+			assertEquals(0, revenue.compareTo(new BigDecimal("1200.00")));
+			verifyNoInteractions(eventZoneSalesRepository, ticketInfoRepository);
+		}
+
+		@Test
+		@DisplayName("validators of cached answers come from the same aggregate, without a query")
+		void salesVersion_cached() {
+			// given
+			String eventId = "E-3";
+			Duration staleness = Duration.ofSeconds(5);
+			Instant older = Instant.parse("2025-01-01T10:00:00Z");
+			Instant newer = Instant.parse("2025-01-01T10:05:00Z");
+			EventAggregate aggregate = new EventAggregate(Map.of(
+					"V-1:1", new EventZoneSales(eventId, "V-1", 1, 12, new BigDecimal("1200.00"), 3, older),
+					"V-1:2", new EventZoneSales(eventId, "V-1", 2, 4, new BigDecimal("200.00"), 2, newer)), 16,
+					Map.of("V-1", new BigDecimal("1400.00")), older, System.nanoTime(), System.nanoTime());
+			when(eventAggregateCache.get(eventId, staleness)).thenReturn(aggregate);
+
+			// when
+			SalesVersionDTO version = queryService.getSalesVersion(eventId, staleness);
+
+			// then
+			assertEquals(5, version.getVersion());
+			assertEquals(newer, version.getLastModified());
+			verifyNoInteractions(eventZoneSalesRepository);
 		}
 	}
 
@@ -111,7 +258,7 @@ class QueryServiceTests {
 			// given 
 			String venueId = "V-1";
 			String eventId = "E-1";
-			when(ticketInfoRepository.sumRevenueByVenueAndEvent(venueId, eventId)).thenReturn(null);
+			when(eventZoneSalesRepository.sumRevenueByVenueAndEvent(venueId, eventId)).thenReturn(null);
 
 			// when
 			BigDecimal result = queryService.sumRevenueByVenueAndEvent(venueId, eventId);
@@ -119,9 +266,9 @@ class QueryServiceTests {
 			// then
 			assertNotNull(result);
 			assertEquals(0, result.compareTo(BigDecimal.ZERO), "null should map to 0");
-			verify(ticketInfoRepository, times(1)).sumRevenueByVenueAndEvent(venueId, eventId);
-			verifyNoInteractions(ticketMapper);
-			verifyNoMoreInteractions(ticketInfoRepository);
+			verify(eventZoneSalesRepository, times(1)).sumRevenueByVenueAndEvent(venueId, eventId);
+			verifyNoInteractions(ticketMapper, ticketInfoRepository);
+			verifyNoMoreInteractions(eventZoneSalesRepository);
 		}
 
 		@Test
@@ -131,7 +278,7 @@ class QueryServiceTests {
 			String venueId = "V-2";
 			String eventId = "E-9";
 			BigDecimal repoValue = new BigDecimal("123.45");
-			when(ticketInfoRepository.sumRevenueByVenueAndEvent(venueId, eventId)).thenReturn(repoValue);
+			when(eventZoneSalesRepository.sumRevenueByVenueAndEvent(venueId, eventId)).thenReturn(repoValue);
 
 			// when
 			BigDecimal result = queryService.sumRevenueByVenueAndEvent(venueId, eventId);
@@ -139,17 +286,160 @@ class QueryServiceTests {
 			// then
 			assertNotNull(result);
 			assertEquals(0, result.compareTo(repoValue));
-			verify(ticketInfoRepository, times(1)).sumRevenueByVenueAndEvent(venueId, eventId);
-			verifyNoInteractions(ticketMapper);
-			verifyNoMoreInteractions(ticketInfoRepository);
+			verify(eventZoneSalesRepository, times(1)).sumRevenueByVenueAndEvent(venueId, eventId);
+			verifyNoInteractions(ticketMapper, ticketInfoRepository);
+			verifyNoMoreInteractions(eventZoneSalesRepository);
 		}
 	}
 
+	@Test
+	@DisplayName("availability comes from the Redis inventory, never from MySQL")
+	void getAvailability_redisOnly() {
+		// given
+		EventAvailabilityDTO availability = new EventAvailabilityDTO("E-1", "V-1", 1, 10, 770, 780, List.of());
+		when(seatAvailabilityService.getAvailability("V-1", "E-1")).thenReturn(availability);
+
+		// when
+		EventAvailabilityDTO result = queryService.getAvailability("V-1", "E-1");
+
+		// then
+		assertSame(availability, result);
+		verifyNoInteractions(ticketInfoRepository, eventZoneSalesRepository);
+	}
+
+	@Test
+	@DisplayName("bulk lookup loads cache misses in one IN query and reports unknown and malformed ids")
+	@SuppressWarnings("unchecked")
+	void lookupTickets_foundAndMissing() {
+		// given
+		ReflectionTestUtils.setField(queryService, "lookupMaxIds", 1000);
+		ReflectionTestUtils.setField(queryService, "lookupChunkSize", 500);
+		UUID known = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+		UUID unknown = UUID.fromString("7c9e6679-7425-40de-944b-e07fc1f90ae7");
+		TicketRow row = new TicketRow(known, "V-1", "E-1", 1, "A", "1", TicketStatus.PAID, Instant.now());
+		TicketInfoDTO dto = new TicketInfoDTO();
+		dto.setTicketId(known.toString());
+		when(ticketCache.getAll(anySet(), any())).thenAnswer(inv -> inv
+				.<Function<Set<String>, Map<String, TicketInfoDTO>>>getArgument(1)
+				.apply(inv.getArgument(0)));
+		when(ticketInfoRepository.findRowsByTicketIdIn(anyCollection())).thenReturn(List.of(row));
+		when(ticketMapper.toInfoDto(row)).thenReturn(dto);
+
+		// when
+		TicketLookupDTO result = queryService.lookupTickets(
+				List.of(known.toString(), unknown.toString(), "not-a-uuid", known.toString()));
+
+		// then
+		assertEquals(List.of(dto), result.getTickets());
+		assertEquals(List.of(unknown.toString(), "not-a-uuid"), result.getMissing());
+		ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+		verify(ticketInfoRepository, times(1)).findRowsByTicketIdIn(ids.capture());
+		assertEquals(Set.of(known, unknown), Set.copyOf(ids.getValue()));
+	}
+
+	@Test
+	@DisplayName("search reads one extra projected row to set the cursor and reports its cost")
+	@SuppressWarnings("unchecked")
+	void searchTickets_paged() {
+		// given
+		TicketSearchDTO filter = new TicketSearchDTO("E-1", 2, TicketStatus.PAID, null, null);
+		UUID after = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+		List<TicketRow> rows = List.of(
+				new TicketRow(UUID.randomUUID(), "V-1", "E-1", 2, "A", "1", TicketStatus.PAID, Instant.now()),
+				new TicketRow(UUID.randomUUID(), "V-1", "E-1", 2, "A", "2", TicketStatus.PAID, Instant.now()),
+				new TicketRow(UUID.randomUUID(), "V-1", "E-1", 2, "A", "3", TicketStatus.PAID, Instant.now()));
+		doAnswer(inv -> {
+			rows.forEach(inv.<Consumer<TicketRow>>getArgument(3));
+			return null;
+		}).when(ticketSearchRepository).search(same(filter), eq(after), eq(3), any());
+		when(ticketMapper.toInfoDto(any(TicketRow.class))).thenAnswer(inv -> {
+			TicketRow row = inv.getArgument(0);
+			TicketInfoDTO dto = new TicketInfoDTO();
+			dto.setTicketId(row.ticketId().toString());
+			return dto;
+		});
+
+		// when
+		TicketSearchPageDTO page = queryService.searchTickets(filter, after.toString(), 2);
+
+		// then
+		assertEquals(2, page.getTickets().size());
+		assertEquals(rows.get(1).ticketId().toString(), page.getNextCursor());
+		assertTrue(page.getElapsedMicros() >= 0);
+		assertEquals(1, meterRegistry.get("query.search.latency").timer().count());
+		verifyNoInteractions(ticketInfoRepository);
+	}
+
+	@Test
+	@DisplayName("export encodes rows straight from the result set into gzipped CSV with zone prices")
+	void exportSales_gzipCsv() throws Exception {
+		// given
+		ReflectionTestUtils.setField(queryService, "exportBufferBytes", 512);
+		UUID ticketId = UUID.fromString("0f8fad5b-d9cb-469f-a165-70867728950e");
+		Zone zone = new Zone();
+		zone.setVenueId("V-1");
+		zone.setZoneId(2);
+		zone.setTicketPrice(new BigDecimal("80.00"));
+		when(zoneRepository.findAll()).thenReturn(List.of(zone));
+		ResultSet rs = mock(ResultSet.class);
+		when(rs.getBytes(1)).thenReturn(ByteBuffer.allocate(16)
+				.putLong(ticketId.getMostSignificantBits())
+				.putLong(ticketId.getLeastSignificantBits())
+				.array());
+		when(rs.getString(2)).thenReturn("V-1");
+		when(rs.getString(3)).thenReturn("E-1");
+		when(rs.getInt(4)).thenReturn(2);
+		when(rs.getString(5)).thenReturn("A,\"B\"");
+		when(rs.getString(6)).thenReturn("7");
+		when(rs.getString(7)).thenReturn("PAID");
+		when(rs.getTimestamp(8)).thenReturn(Timestamp.from(Instant.parse("2025-01-02T03:04:05Z")));
+		doAnswer(inv -> {
+			RowCallbackHandler handler = inv.getArgument(1);
+			handler.processRow(rs);
+			handler.processRow(rs);
+			return null;
+		}).when(ticketStreamRepository).forEachTicketRow(eq("E-1"), any());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		// when
+		long rows = queryService.exportSales("E-1", true, out);
+
+		// then
+		String row = ticketId + ",V-1,E-1,2,\"A,\"\"B\"\"\",7,PAID,2025-01-02T03:04:05Z,80.00\r\n";
+		String csv = new String(new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+				StandardCharsets.UTF_8);
+		assertEquals(2, rows);
+		assertEquals("ticket_id,venue_id,event_id,zone_id,row,column,status,created_on,ticket_price\r\n" + row + row,
+				csv);
+		verifyNoInteractions(ticketInfoRepository);
+	}
+
+	@Test
+	@DisplayName("availability stream reads the snapshot only once the hub has registered the connection")
+	void streamAvailability_snapshotAfterSubscribe() {
+		// given
+		EventAvailabilityDTO availability = new EventAvailabilityDTO("E-1", "V-1", 1, 10, 770, 780, List.of());
+		SseEmitter emitter = new SseEmitter();
+		when(seatAvailabilityService.getAvailability("V-1", "E-1")).thenReturn(availability);
+		when(seatChangeHub.subscribe(eq("E-1"), eq(2), any())).thenAnswer(invocation -> {
+			verifyNoInteractions(seatAvailabilityService);
+			assertSame(availability, invocation.<Supplier<EventAvailabilityDTO>>getArgument(2).get());
+			return emitter;
+		});
+
+		// when
+		SseEmitter result = queryService.streamAvailability("V-1", "E-1", 2);
+
+		// then
+		assertSame(emitter, result);
+		verifyNoInteractions(ticketInfoRepository, eventZoneSalesRepository);
+	}
+
 	@Test
 	@DisplayName("should pass correct parameters into repository for all methods")
 	void verifyParameters() {
 		// given
-		String ticketId = "T-xyz";
+		String ticketId = "0f8fad5b-d9cb-469f-a165-70867728950e";
 		String eventId = "E-xyz";
 		String venueId = "V-xyz";
 
@@ -157,10 +447,10 @@ class QueryServiceTests {
 		TicketInfoDTO dto = new TicketInfoDTO();
 		dto.setTicketId(ticketId);
 
-		when(ticketInfoRepository.findById(ticketId)).thenReturn(Optional.of(entity));
+		when(ticketInfoRepository.findById(UUID.fromString(ticketId))).thenReturn(Optional.of(entity));
 		when(ticketMapper.toInfoDto(entity)).thenReturn(dto);
-		when(ticketInfoRepository.countByEventId(eventId)).thenReturn(7);
-		when(ticketInfoRepository.sumRevenueByVenueAndEvent(venueId, eventId))
+		when(eventZoneSalesRepository.sumTicketCountByEventId(eventId)).thenReturn(7L);
+		when(eventZoneSalesRepository.sumRevenueByVenueAndEvent(venueId, eventId))
 				.thenReturn(new BigDecimal("9.99"));
 
 		// when
@@ -169,22 +459,22 @@ class QueryServiceTests {
 		queryService.sumRevenueByVenueAndEvent(venueId, eventId);
 
 		// then: 通过 captor 再次校验入参一致性（可选）
-		ArgumentCaptor<String> idCap = ArgumentCaptor.forClass(String.class);
+		ArgumentCaptor<UUID> idCap = ArgumentCaptor.forClass(UUID.class);
 		verify(ticketInfoRepository, times(1)).findById(idCap.capture());
-		assertEquals(ticketId, idCap.getValue());
+		assertEquals(ticketId, idCap.getValue().toString());
 
 		ArgumentCaptor<String> evCap = ArgumentCaptor.forClass(String.class);
-		verify(ticketInfoRepository, times(1)).countByEventId(evCap.capture());
+		verify(eventZoneSalesRepository, times(1)).sumTicketCountByEventId(evCap.capture());
 		assertEquals(eventId, evCap.getValue());
 
 		ArgumentCaptor<String> venueCap = ArgumentCaptor.forClass(String.class);
 		ArgumentCaptor<String> evCap2 = ArgumentCaptor.forClass(String.class);
-		verify(ticketInfoRepository, times(1))
+		verify(eventZoneSalesRepository, times(1))
 				.sumRevenueByVenueAndEvent(venueCap.capture(), evCap2.capture());
 		assertEquals(venueId, venueCap.getValue());
 		assertEquals(eventId, evCap2.getValue());
 
 		verify(ticketMapper, times(1)).toInfoDto(entity);
-		verifyNoMoreInteractions(ticketInfoRepository, ticketMapper);
+		verifyNoMoreInteractions(ticketInfoRepository, eventZoneSalesRepository, ticketMapper);
 	}
 }
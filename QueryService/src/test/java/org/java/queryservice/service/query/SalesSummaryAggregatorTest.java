@@ -0,0 +1,75 @@
+package org.java.queryservice.service.query;
+
+import org.java.queryservice.dto.SalesSummaryDTO;
+import org.java.queryservice.model.EventZoneSales;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SalesSummaryAggregatorTest {
+	private static final Instant T0 = Instant.parse("2025-01-02T03:00:00Z");
+
+	private static EventZoneSales zone(String venueId, int zoneId, long count, String revenue) {
+		return new EventZoneSales("E-1", venueId, zoneId, count, new BigDecimal(revenue), 1, T0);
+	}
+
+	@Test
+	@DisplayName("event, venue, zone and revenue totals are summed from the rollup rows")
+	void totalsFromRollup() {
+		// given
+		SalesSummaryAggregator aggregator = new SalesSummaryAggregator();
+		List<EventZoneSales> zones = List.of(
+				zone("V-1", 1, 3, "300.00"),
+				zone("V-1", 2, 2, "300.00"),
+				zone("V-2", 1, 4, "200.00"));
+
+		// when
+		SalesSummaryDTO summary = aggregator.toDto("E-1", zones);
+
+		// then: zone 1 of both venues shares one entry, as the zone map is keyed by zone id
+		assertEquals(9, summary.getTotalTicketsSold());
+		assertEquals(Map.of("E-1", 9), summary.getTicketsByEvent());
+		assertEquals(Map.of("V-1", 5, "V-2", 4), summary.getTicketsByVenue());
+		assertEquals(Map.of(1, 7, 2, 2), summary.getTicketsByZone());
+		assertEquals(new BigDecimal("800.00"), summary.getTotalRevenue());
+	}
+
+	@Test
+	@DisplayName("rows and columns are counted from the scanned seats")
+	void breakdownFromSeats() {
+		// given
+		SalesSummaryAggregator aggregator = new SalesSummaryAggregator();
+		aggregator.add("A", "1");
+		aggregator.add("A", "2");
+		aggregator.add("B", "1");
+
+		// when
+		SalesSummaryDTO summary = aggregator.toDto("E-1", List.of(zone("V-1", 1, 3, "300.00")));
+
+		// then
+		assertEquals(3, aggregator.seats());
+		assertEquals(Map.of("A", 2, "B", 1), summary.getTicketsByRow());
+		assertEquals(Map.of("1", 2, "2", 1), summary.getTicketsByColumn());
+	}
+
+	@Test
+	@DisplayName("an event without sales has zero totals and empty maps")
+	void noSales() {
+		// when
+		SalesSummaryDTO summary = new SalesSummaryAggregator().toDto("E-1", List.of());
+
+		// then
+		assertEquals(0, summary.getTotalTicketsSold());
+		assertEquals(Map.of("E-1", 0), summary.getTicketsByEvent());
+		assertEquals(Map.of(), summary.getTicketsByVenue());
+		assertEquals(Map.of(), summary.getTicketsByZone());
+		assertEquals(Map.of(), summary.getTicketsByRow());
+		assertEquals(BigDecimal.ZERO, summary.getTotalRevenue());
+	}
+}
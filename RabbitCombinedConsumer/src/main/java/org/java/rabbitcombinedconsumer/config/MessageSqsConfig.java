@@ -1,14 +1,23 @@
 package org.java.rabbitcombinedconsumer.config;
 
+import io.awspring.cloud.sqs.MessageExecutionThreadFactory;
 import io.awspring.cloud.sqs.config.SqsMessageListenerContainerFactory;
+import io.awspring.cloud.sqs.listener.ListenerMode;
 import io.awspring.cloud.sqs.listener.acknowledgement.handler.AcknowledgementMode;
 import io.awspring.cloud.sqs.operations.SqsTemplate;
+import java.net.URI;
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+import org.java.rabbitcombinedconsumer.service.concurrency.AdaptiveConcurrencyLimiter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.util.StringUtils;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -24,11 +33,14 @@ import software.amazon.awssdk.services.sqs.SqsAsyncClientBuilder;
 
 @Configuration
 public class MessageSqsConfig {
+    // ReceiveMessage returns at most 10 messages per call
+    private static final int MAX_MESSAGES_PER_POLL = 10;
 
     @Value("${AWS_REGION:us-west-2}") private String awsRegion;
     @Value("${AWS_ACCESS_KEY_ID:}") private String accessKey;
     @Value("${AWS_SECRET_ACCESS_KEY:}") private String secretKey;
     @Value("${AWS_SESSION_TOKEN:}") private String sessionToken;
+    @Value("${cloud.aws.endpoint.sqs:}") private String sqsEndpoint;
 
     @Bean
     @ConditionalOnMissingBean
@@ -43,6 +55,10 @@ public class MessageSqsConfig {
         SqsAsyncClientBuilder builder = SqsAsyncClient.builder()
                 .region(Region.of(awsRegion))
                 .credentialsProvider(resolveCredentials());
+        if (StringUtils.hasText(sqsEndpoint)) {
+            // local SQS stand-in (ElasticMQ) for the harness profile
+            builder.endpointOverride(URI.create(sqsEndpoint));
+        }
 
         return builder.build();
     }
@@ -52,19 +68,77 @@ public class MessageSqsConfig {
         return SqsTemplate.builder().sqsAsyncClient(client).build();
     }
 
+    // one message holds one write permit, so no more messages are in flight than the limiter can ever admit;
+    // listeners blocked on the limiter keep their slots and the container polls only as permits free up
     @Bean
     public SqsMessageListenerContainerFactory<Object> defaultSqsListenerContainerFactory(
-            SqsAsyncClient client) {
+            SqsAsyncClient client, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        int maxConcurrentMessages = concurrencyLimiter.maxLimit();
         SqsMessageListenerContainerFactory<Object> factory = new SqsMessageListenerContainerFactory<>();
         factory.setSqsAsyncClient(client);
         factory.configure(opts -> opts
                 .acknowledgementMode(AcknowledgementMode.ON_SUCCESS)
-                .maxMessagesPerPoll(10)
+                .maxMessagesPerPoll(Math.min(MAX_MESSAGES_PER_POLL, maxConcurrentMessages))
+                .pollTimeout(Duration.ofSeconds(20))
+                .maxConcurrentMessages(maxConcurrentMessages));
+        return factory;
+    }
+
+    // batch mode: one listener call per poll (up to 10 messages), acknowledged by the listener itself;
+    // a whole batch holds a single write permit
+    @Bean
+    public SqsMessageListenerContainerFactory<Object> batchSqsListenerContainerFactory(
+            SqsAsyncClient client, AdaptiveConcurrencyLimiter concurrencyLimiter) {
+        SqsMessageListenerContainerFactory<Object> factory = new SqsMessageListenerContainerFactory<>();
+        factory.setSqsAsyncClient(client);
+        factory.configure(opts -> opts
+                .listenerMode(ListenerMode.BATCH)
+                .acknowledgementMode(AcknowledgementMode.MANUAL)
+                .maxMessagesPerPoll(MAX_MESSAGES_PER_POLL)
                 .pollTimeout(Duration.ofSeconds(20))
-                .maxConcurrentMessages(100));
+                .maxConcurrentMessages(concurrencyLimiter.maxLimit() * MAX_MESSAGES_PER_POLL));
         return factory;
     }
 
+    // virtual mode: listeners return a future completed on a virtual thread, so a handful of
+    // platform threads can dispatch many more in-flight messages than the pool-per-message model
+    @Bean
+    @ConditionalOnProperty(name = "sqs.listener.mode", havingValue = "virtual")
+    public SqsMessageListenerContainerFactory<Object> virtualSqsListenerContainerFactory(
+            SqsAsyncClient client,
+            @Qualifier("virtualListenerDispatchExecutor") ThreadPoolTaskExecutor dispatchExecutor,
+            @Value("${sqs.listener.virtual.max-concurrent-messages:300}") int maxConcurrentMessages) {
+        SqsMessageListenerContainerFactory<Object> factory = new SqsMessageListenerContainerFactory<>();
+        factory.setSqsAsyncClient(client);
+        factory.configure(opts -> opts
+                .acknowledgementMode(AcknowledgementMode.ON_SUCCESS)
+                .maxMessagesPerPoll(MAX_MESSAGES_PER_POLL)
+                .pollTimeout(Duration.ofSeconds(20))
+                .maxConcurrentMessages(maxConcurrentMessages)
+                .componentsTaskExecutor(dispatchExecutor));
+        return factory;
+    }
+
+    // the container requires its own threads to come from MessageExecutionThreadFactory
+    @Bean
+    @ConditionalOnProperty(name = "sqs.listener.mode", havingValue = "virtual")
+    public ThreadPoolTaskExecutor virtualListenerDispatchExecutor(
+            @Value("${sqs.listener.virtual.dispatch-threads:8}") int dispatchThreads,
+            @Value("${sqs.listener.virtual.max-concurrent-messages:300}") int maxConcurrentMessages) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(new MessageExecutionThreadFactory("sqs-dispatch-"));
+        executor.setCorePoolSize(dispatchThreads);
+        executor.setMaxPoolSize(dispatchThreads);
+        executor.setQueueCapacity(maxConcurrentMessages);
+        return executor;
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "sqs.listener.mode", havingValue = "virtual")
+    public ExecutorService listenerVirtualThreadExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sqs-vt-", 0).factory());
+    }
+
     private AwsCredentialsProvider resolveCredentials() {
         if (!StringUtils.hasText(accessKey) || !StringUtils.hasText(secretKey)) {
             return DefaultCredentialsProvider.create();
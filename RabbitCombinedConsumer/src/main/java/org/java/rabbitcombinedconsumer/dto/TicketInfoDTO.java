@@ -2,7 +2,7 @@ package org.java.rabbitcombinedconsumer.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import org.java.rabbitcombinedconsumer.model.TicketStatus;
+import org.java.ticketingcore.model.TicketStatus;
 
 import java.time.Instant;
 
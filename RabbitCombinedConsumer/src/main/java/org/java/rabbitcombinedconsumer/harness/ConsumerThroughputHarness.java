@@ -0,0 +1,325 @@
+package org.java.rabbitcombinedconsumer.harness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.extern.slf4j.Slf4j;
+import org.java.ticketingcore.dto.MqDTO;
+import org.java.ticketingcore.model.TicketStatus;
+import org.java.rabbitcombinedconsumer.service.metrics.ConsumerMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+
+import java.io.BufferedReader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline throughput run for the consumer (profile "harness"): sends synthetic or recorded MqDTO
+ * messages to a local SQS stand-in, lets the real listener container persist them into a local
+ * MySQL, then logs messages/sec, end-to-end latency percentiles, MySQL statements per message and
+ * the JVM's heap, GC, platform thread and CPU figures over the measured run.
+ * Start ElasticMQ and MySQL with harness/docker-compose.yml first.
+ */
+@Slf4j
+@Component
+@Profile("harness")
+public class ConsumerThroughputHarness implements ApplicationRunner {
+	private static final int SQS_BATCH_SIZE = 10;
+	private static final double MB = 1024.0 * 1024.0;
+
+	private final SqsAsyncClient sqsAsyncClient;
+	private final ObjectMapper objectMapper;
+	private final JdbcTemplate jdbcTemplate;
+	private final ConsumerMetrics consumerMetrics;
+	private final ApplicationContext applicationContext;
+
+	@Value("${sqs.queue.ticket-sql-name}")
+	private String queueName;
+	@Value("${consumer.harness.messages:10000}")
+	private int messageCount;
+	// synthetic messages sent and drained before the measured run, so JIT and pools are warm
+	@Value("${consumer.harness.warmup-messages:0}")
+	private int warmupCount;
+	@Value("${sqs.listener.mode:single}")
+	private String listenerMode;
+	@Value("${consumer.harness.input-file:}")
+	private String inputFile;
+	@Value("${consumer.harness.venue-id:Venue1}")
+	private String venueId;
+	@Value("${consumer.harness.event-id:Event1}")
+	private String eventId;
+	@Value("${consumer.harness.timeout-seconds:600}")
+	private long timeoutSeconds;
+	@Value("${consumer.harness.exit-when-done:true}")
+	private boolean exitWhenDone;
+	// optional JSON copy of the Result, read by ListenerThreadModelBenchmark from the JVM that started this one
+	@Value("${consumer.harness.result-file:}")
+	private String resultFile;
+
+	private volatile Result result;
+
+	public ConsumerThroughputHarness(
+			SqsAsyncClient sqsAsyncClient,
+			ObjectMapper objectMapper,
+			JdbcTemplate jdbcTemplate,
+			ConsumerMetrics consumerMetrics,
+			ApplicationContext applicationContext) {
+		this.sqsAsyncClient = sqsAsyncClient;
+		this.objectMapper = objectMapper;
+		this.jdbcTemplate = jdbcTemplate;
+		this.consumerMetrics = consumerMetrics;
+		this.applicationContext = applicationContext;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		List<String> bodies = StringUtils.hasText(inputFile) ? readRecorded(Path.of(inputFile))
+				: synthetic(messageCount);
+		String queueUrl = sqsAsyncClient.getQueueUrl(GetQueueUrlRequest.builder().queueName(queueName).build())
+				.get(10, TimeUnit.SECONDS)
+				.queueUrl();
+		Timer e2e = consumerMetrics.endToEndTimer();
+		Counter dropped = consumerMetrics.droppedCounter();
+		if (warmupCount > 0) {
+			log.info("[Harness] warming up with {} messages", warmupCount);
+			List<String> warmup = synthetic(warmupCount);
+			long handledBefore = e2e.count();
+			long droppedBefore = (long) dropped.count();
+			send(queueUrl, warmup);
+			awaitDone(e2e, handledBefore, dropped, droppedBefore, warmup.size());
+		}
+		log.info("[Harness] sending {} messages to {}, listener mode {}", bodies.size(), queueUrl, listenerMode);
+
+		long handledBefore = e2e.count();
+		long droppedBefore = (long) dropped.count();
+		long questionsBefore = mysqlQuestions();
+		JvmUsage usage = JvmUsage.start();
+		long start = System.nanoTime();
+
+		send(queueUrl, bodies);
+		long sendNanos = System.nanoTime() - start;
+
+		awaitDone(e2e, handledBefore, dropped, droppedBefore, bodies.size());
+		long elapsedNanos = System.nanoTime() - start;
+		long handled = e2e.count() - handledBefore;
+		long droppedMessages = (long) dropped.count() - droppedBefore;
+		JvmUsage.Totals jvm = usage.stop();
+		// Questions counts the statement reading it, so the closing status query is not consumer work
+		long statements = mysqlQuestions() - questionsBefore - 1;
+
+		result = new Result(listenerMode, bodies.size(), handled, droppedMessages, elapsedNanos, statements, jvm);
+		report(result, sendNanos, e2e.takeSnapshot(), consumerMetrics.purchaseToCommitTimer().takeSnapshot());
+		if (StringUtils.hasText(resultFile)) {
+			Files.writeString(Path.of(resultFile), objectMapper.writeValueAsString(result));
+		}
+		if (exitWhenDone) {
+			int exitCode = result.done() < bodies.size() ? 1 : 0;
+			System.exit(SpringApplication.exit(applicationContext, () -> exitCode));
+		}
+	}
+
+	// the outcome of the last measured run, null until it finished
+	public Result result() {
+		return result;
+	}
+
+	// done once every message was handled or dropped; a dropped one never reaches the e2e timer
+	private void awaitDone(Timer e2e, long handledBefore, Counter dropped, long droppedBefore, int expected)
+			throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+		while (e2e.count() - handledBefore + (long) dropped.count() - droppedBefore < expected
+				&& System.nanoTime() < deadline) {
+			Thread.sleep(100);
+		}
+	}
+
+	private void send(String queueUrl, List<String> bodies) {
+		List<CompletableFuture<SendMessageBatchResponse>> pending = new ArrayList<>();
+		for (int from = 0; from < bodies.size(); from += SQS_BATCH_SIZE) {
+			List<SendMessageBatchRequestEntry> entries = new ArrayList<>(SQS_BATCH_SIZE);
+			for (int i = from; i < Math.min(from + SQS_BATCH_SIZE, bodies.size()); i++) {
+				entries.add(SendMessageBatchRequestEntry.builder()
+						.id(String.valueOf(i - from))
+						.messageBody(bodies.get(i))
+						.build());
+			}
+			pending.add(sqsAsyncClient.sendMessageBatch(SendMessageBatchRequest.builder()
+					.queueUrl(queueUrl)
+					.entries(entries)
+					.build()));
+			// keep a bounded number of send calls outstanding
+			if (pending.size() >= 64) {
+				pending.forEach(CompletableFuture::join);
+				pending.clear();
+			}
+		}
+		pending.forEach(CompletableFuture::join);
+	}
+
+	// raw JSON bodies, the same shape SNS delivers with raw_message_delivery
+	private List<String> synthetic(int count) throws Exception {
+		List<String> bodies = new ArrayList<>(count);
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		for (int i = 0; i < count; i++) {
+			String ticketId = UUID.randomUUID().toString();
+			MqDTO dto = MqDTO.builder()
+					.ticketId(ticketId)
+					.venueId(venueId)
+					.eventId(eventId)
+					.zoneId(1)
+					.row(String.valueOf((char) ('A' + random.nextInt(10))))
+					.column(String.valueOf(1 + random.nextInt(20)))
+					.status(TicketStatus.PENDING_PAYMENT)
+					.createdOn(Instant.now())
+					.traceId(ticketId.replace("-", ""))
+					.publishedAt(Instant.now())
+					.build();
+			bodies.add(objectMapper.writeValueAsString(dto));
+		}
+		return bodies;
+	}
+
+	// one MqDTO JSON document per line, e.g. captured from the queue or a previous run
+	private List<String> readRecorded(Path path) throws Exception {
+		List<String> bodies = new ArrayList<>();
+		try (BufferedReader reader = Files.newBufferedReader(path)) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (!line.isBlank()) {
+					bodies.add(line);
+				}
+			}
+		}
+		return bodies;
+	}
+
+	// server-wide statement counter, run the harness against a database nothing else is using
+	private long mysqlQuestions() {
+		return jdbcTemplate.query("SHOW GLOBAL STATUS LIKE 'Questions'",
+				rs -> rs.next() ? rs.getLong(2) : 0L);
+	}
+
+	private void report(Result result, long sendNanos, HistogramSnapshot snapshot,
+	                    HistogramSnapshot purchaseToCommit) {
+		long handled = result.handled();
+		long statements = result.statements();
+		JvmUsage.Totals jvm = result.jvm();
+		String percentiles = percentiles(snapshot);
+		log.info("[Harness] mode={} sent={} handled={} dropped={} sendSeconds={} totalSeconds={}",
+				result.listenerMode(), result.sent(), handled, result.dropped(), String.format("%.2f", sendNanos / 1e9),
+				String.format("%.2f", result.elapsedNanos() / 1e9));
+		log.info("[Harness] throughput={} msgs/sec, e2e latency:{} max={}ms",
+				String.format("%.0f", result.msgsPerSec()), percentiles,
+				String.format("%.1f", snapshot.max(TimeUnit.MILLISECONDS)));
+		// includes earlier runs in this JVM when the harness is started more than once
+		log.info("[Harness] purchase-to-commit latency:{} max={}ms", percentiles(purchaseToCommit),
+				String.format("%.1f", purchaseToCommit.max(TimeUnit.MILLISECONDS)));
+		log.info("[Harness] mysql statements={} per message={}",
+				statements, String.format("%.2f", handled == 0 ? 0.0 : (double) statements / handled));
+		log.info("[Harness] heap baseline={}MB peak={}MB, gc={} collections / {}ms, peak platform threads={}, "
+						+ "cpu={} cores", String.format("%.1f", jvm.heapBaselineBytes() / MB),
+				String.format("%.1f", jvm.heapPeakBytes() / MB), jvm.gcCount(), jvm.gcMillis(), jvm.peakThreads(),
+				String.format("%.2f", (double) jvm.cpuNanos() / result.elapsedNanos()));
+	}
+
+	private static String percentiles(HistogramSnapshot snapshot) {
+		StringBuilder percentiles = new StringBuilder();
+		for (ValueAtPercentile p : snapshot.percentileValues()) {
+			percentiles.append(String.format(" p%.0f=%.1fms", p.percentile() * 100, p.value(TimeUnit.MILLISECONDS)));
+		}
+		return percentiles.toString();
+	}
+
+	public record Result(String listenerMode, int sent, long handled, long dropped, long elapsedNanos,
+	                     long statements, JvmUsage.Totals jvm) {
+		public double msgsPerSec() {
+			return handled / (elapsedNanos / 1e9);
+		}
+
+		public long done() {
+			return handled + dropped;
+		}
+	}
+
+	/**
+	 * Heap, GC, platform thread and process CPU figures of this JVM between start and stop. Peak heap is
+	 * the sum of the heap pools' peak usage since start, reset after a GC so the baseline holds only live
+	 * data; the thread peak counts platform threads, virtual threads are not in it.
+	 */
+	public static final class JvmUsage {
+		private final List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+				.filter(pool -> pool.getType() == MemoryType.HEAP)
+				.toList();
+		private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		private long heapBaseline;
+		private long gcCountBefore;
+		private long gcMillisBefore;
+		private long cpuBefore;
+
+		public record Totals(long heapBaselineBytes, long heapPeakBytes, long gcCount, long gcMillis,
+		                     int peakThreads, long cpuNanos) {
+		}
+
+		public static JvmUsage start() {
+			JvmUsage usage = new JvmUsage();
+			System.gc();
+			usage.heapBaseline = usage.heapPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+			usage.heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+			usage.threads.resetPeakThreadCount();
+			usage.gcCountBefore = gcCount();
+			usage.gcMillisBefore = gcMillis();
+			usage.cpuBefore = processCpuNanos();
+			return usage;
+		}
+
+		public Totals stop() {
+			long heapPeak = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+			return new Totals(heapBaseline, heapPeak, gcCount() - gcCountBefore, gcMillis() - gcMillisBefore,
+					threads.getPeakThreadCount(), processCpuNanos() - cpuBefore);
+		}
+
+		private static long gcCount() {
+			return ManagementFactory.getGarbageCollectorMXBeans().stream()
+					.mapToLong(GarbageCollectorMXBean::getCollectionCount)
+					.sum();
+		}
+
+		private static long gcMillis() {
+			return ManagementFactory.getGarbageCollectorMXBeans().stream()
+					.mapToLong(GarbageCollectorMXBean::getCollectionTime)
+					.sum();
+		}
+
+		private static long processCpuNanos() {
+			return ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os
+					? os.getProcessCpuTime() : 0;
+		}
+	}
+}
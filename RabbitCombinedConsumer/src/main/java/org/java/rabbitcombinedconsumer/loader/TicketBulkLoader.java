@@ -0,0 +1,234 @@
+package org.java.rabbitcombinedconsumer.loader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.java.ticketingcore.dto.MqDTO;
+import org.java.rabbitcombinedconsumer.exception.TransientException;
+import org.java.rabbitcombinedconsumer.mapper.MqMapper;
+import org.java.ticketingcore.model.TicketInfo;
+import org.java.rabbitcombinedconsumer.repository.MySqlTicketDAOInterface;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bulk backfill / DLQ replay (profile "loader"): streams MqDTO JSON lines from a file and writes
+ * them with the consumer's multi-row upsert, so duplicates are skipped and the sales rollup stays
+ * exact. Lines are read in chunks; each chunk is split by event across parallel writers (one event
+ * never spans two writers, so they do not contend on the same rollup rows) and the checkpoint is
+ * advanced only after the whole chunk committed. A restart resumes after the last checkpoint and
+ * at most replays one chunk, which the upsert makes harmless.
+ */
+@Slf4j
+@Component
+@Profile("loader")
+public class TicketBulkLoader implements ApplicationRunner {
+	private static final int MAX_ATTEMPTS = 5;
+
+	private final MySqlTicketDAOInterface mySqlTicketDAO;
+	private final MqMapper mqMapper;
+	private final ObjectMapper objectMapper;
+	private final ApplicationContext applicationContext;
+
+	@Value("${consumer.loader.input-file}")
+	private String inputFile;
+	@Value("${consumer.loader.checkpoint-file:}")
+	private String checkpointFile;
+	@Value("${consumer.loader.writers:4}")
+	private int writers;
+	@Value("${consumer.loader.batch-size:1000}")
+	private int batchSize;
+	@Value("${consumer.loader.chunk-lines:50000}")
+	private int chunkLines;
+	@Value("${consumer.loader.exit-when-done:true}")
+	private boolean exitWhenDone;
+
+	public TicketBulkLoader(
+			MySqlTicketDAOInterface mySqlTicketDAO,
+			MqMapper mqMapper,
+			ObjectMapper objectMapper,
+			ApplicationContext applicationContext) {
+		this.mySqlTicketDAO = mySqlTicketDAO;
+		this.mqMapper = mqMapper;
+		this.objectMapper = objectMapper;
+		this.applicationContext = applicationContext;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		Path input = Path.of(inputFile);
+		Path checkpoint = StringUtils.hasText(checkpointFile)
+				? Path.of(checkpointFile)
+				: input.resolveSibling(input.getFileName() + ".checkpoint");
+		long resumeAfter = readCheckpoint(checkpoint);
+		log.info("[BulkLoader] input={}, checkpoint={}, resumeAfterLine={}, writers={}, batchSize={}",
+				input, checkpoint, resumeAfter, writers, batchSize);
+
+		int exitCode = 0;
+		long start = System.nanoTime();
+		LoadStats stats = new LoadStats();
+		ExecutorService pool = Executors.newFixedThreadPool(writers);
+		try (BufferedReader reader = open(input)) {
+			long lineNo = 0;
+			String line;
+			while (lineNo < resumeAfter && reader.readLine() != null) {
+				lineNo++;
+			}
+
+			List<List<TicketInfo>> partitions = newPartitions();
+			int inChunk = 0;
+			while ((line = reader.readLine()) != null) {
+				lineNo++;
+				TicketInfo ticket = parse(line, lineNo, stats);
+				if (ticket != null) {
+					partitions.get(Math.floorMod(ticket.getEventId().hashCode(), writers)).add(ticket);
+				}
+				if (++inChunk == chunkLines) {
+					writeChunk(pool, partitions, stats);
+					writeCheckpoint(checkpoint, lineNo, stats);
+					partitions = newPartitions();
+					inChunk = 0;
+				}
+			}
+			writeChunk(pool, partitions, stats);
+			writeCheckpoint(checkpoint, lineNo, stats);
+		} catch (Exception e) {
+			log.error("[BulkLoader] stopped, rerun to resume from {}: {}", checkpoint, e.getMessage(), e);
+			exitCode = 1;
+		} finally {
+			pool.shutdownNow();
+		}
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		log.info("[BulkLoader] written={}, unparseable={}, seconds={}, rows/sec={}", stats.written, stats.unparseable,
+				String.format("%.1f", seconds), String.format("%.0f", stats.written / Math.max(seconds, 0.001)));
+		if (exitWhenDone) {
+			int code = exitCode;
+			System.exit(SpringApplication.exit(applicationContext, () -> code));
+		}
+	}
+
+	private TicketInfo parse(String line, long lineNo, LoadStats stats) {
+		if (line.isBlank()) {
+			return null;
+		}
+		try {
+			TicketInfo ticket = mqMapper.toTicketInfo(objectMapper.readValue(line, MqDTO.class));
+			if (ticket.getTicketId() == null || ticket.getEventId() == null || ticket.getCreatedOn() == null) {
+				throw new IllegalArgumentException("missing ticketId, eventId or createdOn");
+			}
+			// ticket_id is stored as BINARY(16), reject here rather than fail the whole batch later
+			UUID.fromString(ticket.getTicketId());
+			return ticket;
+		} catch (Exception e) {
+			stats.unparseable++;
+			log.warn("[BulkLoader] skip line {}: {}", lineNo, e.getMessage());
+			return null;
+		}
+	}
+
+	// one task per writer, each writes its events' tickets in order; returns once the chunk committed
+	private void writeChunk(ExecutorService pool, List<List<TicketInfo>> partitions, LoadStats stats)
+			throws Exception {
+		List<Future<Integer>> futures = new ArrayList<>(partitions.size());
+		for (List<TicketInfo> partition : partitions) {
+			if (!partition.isEmpty()) {
+				futures.add(pool.submit(() -> writePartition(partition)));
+			}
+		}
+		for (Future<Integer> future : futures) {
+			stats.written += future.get();
+		}
+	}
+
+	private int writePartition(List<TicketInfo> tickets) throws InterruptedException {
+		for (int from = 0; from < tickets.size(); from += batchSize) {
+			List<TicketInfo> batch = tickets.subList(from, Math.min(from + batchSize, tickets.size()));
+			for (int attempt = 1; ; attempt++) {
+				try {
+					mySqlTicketDAO.createTickets(batch);
+					break;
+				} catch (TransientException e) {
+					if (attempt == MAX_ATTEMPTS) {
+						throw e;
+					}
+					log.warn("[BulkLoader] batch of {} failed (attempt {}), retrying: {}", batch.size(), attempt,
+							e.getMessage());
+					Thread.sleep(200L << attempt);
+				}
+			}
+		}
+		return tickets.size();
+	}
+
+	private List<List<TicketInfo>> newPartitions() {
+		List<List<TicketInfo>> partitions = new ArrayList<>(writers);
+		for (int i = 0; i < writers; i++) {
+			partitions.add(new ArrayList<>());
+		}
+		return partitions;
+	}
+
+	private static BufferedReader open(Path input) throws IOException {
+		InputStream in = Files.newInputStream(input);
+		if (input.getFileName().toString().endsWith(".gz")) {
+			in = new GZIPInputStream(in, 1 << 16);
+		}
+		Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+		return new BufferedReader(reader, 1 << 16);
+	}
+
+	private static long readCheckpoint(Path checkpoint) throws IOException {
+		if (!Files.exists(checkpoint)) {
+			return 0;
+		}
+		Properties props = new Properties();
+		try (Reader reader = Files.newBufferedReader(checkpoint)) {
+			props.load(reader);
+		}
+		return Long.parseLong(props.getProperty("lines", "0"));
+	}
+
+	// temp file + atomic rename, a crash never leaves a half-written checkpoint
+	private static void writeCheckpoint(Path checkpoint, long lines, LoadStats stats) throws IOException {
+		Properties props = new Properties();
+		props.setProperty("lines", String.valueOf(lines));
+		props.setProperty("written", String.valueOf(stats.written));
+		props.setProperty("unparseable", String.valueOf(stats.unparseable));
+		Path tmp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+		try (var writer = Files.newBufferedWriter(tmp)) {
+			props.store(writer, "TicketBulkLoader progress, lines = input lines fully committed");
+		}
+		Files.move(tmp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		log.info("[BulkLoader] checkpoint lines={}, written={}", lines, stats.written);
+	}
+
+	// only touched by the reader thread
+	private static final class LoadStats {
+		long written;
+		long unparseable;
+	}
+}
@@ -1,8 +1,8 @@
 package org.java.rabbitcombinedconsumer.mapper;
 
-import org.java.rabbitcombinedconsumer.dto.MqDTO;
-import org.java.rabbitcombinedconsumer.model.TicketInfo;
-import org.java.rabbitcombinedconsumer.model.TicketStatus;
+import org.java.ticketingcore.dto.MqDTO;
+import org.java.ticketingcore.model.TicketInfo;
+import org.java.ticketingcore.model.TicketStatus;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
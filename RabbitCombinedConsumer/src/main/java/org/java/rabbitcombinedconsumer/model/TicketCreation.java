@@ -3,6 +3,7 @@ package org.java.rabbitcombinedconsumer.model;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.java.ticketingcore.model.TicketStatus;
 
 import java.time.Instant;
 
@@ -1,21 +0,0 @@
-package org.java.rabbitcombinedconsumer.model;
-
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.time.Instant;
-
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class TicketInfo {
-	private String ticketId;
-	private String venueId;
-	private String eventId;
-	private int zoneId;
-	private String row;
-	private String column;
-	private TicketStatus status;
-	private Instant createdOn;
-}
\ No newline at end of file
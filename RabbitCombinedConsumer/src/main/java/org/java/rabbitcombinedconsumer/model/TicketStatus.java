@@ -1,7 +0,0 @@
-package org.java.rabbitcombinedconsumer.model;
-
-public enum TicketStatus {
-	PENDING_PAYMENT,
-	PAID,
-	CANCELLED
-}
@@ -1,7 +1,12 @@
 package org.java.rabbitcombinedconsumer.repository;
 
-import org.java.rabbitcombinedconsumer.model.TicketInfo;
+import org.java.ticketingcore.model.TicketInfo;
+
+import java.util.List;
 
 public interface MySqlTicketDAOInterface {
 	void createTicket(TicketInfo ticket);
+
+	// upsert all tickets with one multi-row statement
+	void createTickets(List<TicketInfo> tickets);
 }
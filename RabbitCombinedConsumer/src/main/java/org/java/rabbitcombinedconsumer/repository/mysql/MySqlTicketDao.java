@@ -1,47 +1,155 @@
 package org.java.rabbitcombinedconsumer.repository.mysql;
 
 import lombok.extern.slf4j.Slf4j;
-import org.java.rabbitcombinedconsumer.model.TicketInfo;
-import org.java.rabbitcombinedconsumer.model.TicketStatus;
+import org.java.rabbitcombinedconsumer.exception.TransientException;
+import org.java.ticketingcore.model.TicketInfo;
+import org.java.ticketingcore.model.TicketStatus;
+import org.java.ticketingcore.seat.SeatKey;
 import org.java.rabbitcombinedconsumer.repository.MySqlTicketDAOInterface;
+import org.java.rabbitcombinedconsumer.service.cache.TicketCacheInvalidator;
+import org.springframework.dao.DataAccessResourceFailureException;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.ByteBuffer;
 import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Slf4j
 @Repository
 public class MySqlTicketDao implements MySqlTicketDAOInterface {
+	private static final int COLUMNS = 9;
+	private static final String INSERT_SQL_PREFIX = """
+			  INSERT INTO ticket(
+			    ticket_id, venue_id, event_id,
+			    zone_id, row_label, col_label, status,
+			    created_on, ingest_id
+			  ) VALUES
+			""";
+	private static final String ROW_PLACEHOLDERS = "(?,?,?,?,?,?,?,?,?)";
+	// ingest_id is only written on insert, a redelivered ticket keeps the id of its first insert
+	private static final String UPSERT_SQL_SUFFIX = """
+
+			  ON DUPLICATE KEY UPDATE
+			    status = VALUES(status)
+			""";
+	// counts only the rows this transaction inserted, i.e. the ones still carrying its ingest id
+	private static final String ROLLUP_SQL_PREFIX = """
+			  INSERT INTO event_zone_sales(
+			    event_id, venue_id, zone_id, ticket_count, revenue, version
+			  )
+			  SELECT t.event_id, t.venue_id, t.zone_id, COUNT(*), SUM(z.ticket_price), 1
+			  FROM ticket t
+			  JOIN zone z ON z.venue_id = t.venue_id AND z.zone_id = t.zone_id
+			  WHERE t.ingest_id = ? AND t.ticket_id IN (
+			""";
+	private static final String ROLLUP_SQL_SUFFIX = """
+			)
+			  GROUP BY t.event_id, t.venue_id, t.zone_id
+			  ON DUPLICATE KEY UPDATE
+			    ticket_count = ticket_count + VALUES(ticket_count),
+			    revenue = revenue + VALUES(revenue),
+			    version = version + 1
+			""";
 
 	private final JdbcTemplate jdbcTemplate;
+	private final TicketCacheInvalidator ticketCacheInvalidator;
 
-	public MySqlTicketDao(JdbcTemplate jdbcTemplate) {
+	public MySqlTicketDao(JdbcTemplate jdbcTemplate, TicketCacheInvalidator ticketCacheInvalidator) {
 		this.jdbcTemplate = jdbcTemplate;
+		this.ticketCacheInvalidator = ticketCacheInvalidator;
+	}
+
+	// rollup of the rows a batch of ticketCount inserted; args are the ingest id, then the ticket ids
+	static String rollupSql(int ticketCount) {
+		return ROLLUP_SQL_PREFIX + String.join(",", Collections.nCopies(ticketCount, "?")) + ROLLUP_SQL_SUFFIX;
 	}
 
 	@Override
+	@Transactional
 	public void createTicket(TicketInfo ticketInfo) {
-		String sql = """
-				  INSERT INTO ticket(
-				    ticket_id, venue_id, event_id,
-				    zone_id, row_label, col_label, status,
-				    created_on
-				  ) VALUES(?,?,?,?,?,?,?,?)
-				  ON DUPLICATE KEY UPDATE
-				    status = VALUES(status)
-				""";
 		try {
-			jdbcTemplate.update(
-					sql,
-					ticketInfo.getTicketId(), ticketInfo.getVenueId(), ticketInfo.getEventId(),
-					ticketInfo.getZoneId(), ticketInfo.getRow(), ticketInfo.getColumn(),
-					(ticketInfo.getStatus() == null ? TicketStatus.PENDING_PAYMENT : ticketInfo.getStatus()).name(),
-					Timestamp.from(ticketInfo.getCreatedOn())
-			);
+			upsertWithRollup(List.of(ticketInfo));
 			log.debug("[MySqlTicketDao] Successfully persisted ticket with id={}", ticketInfo.getTicketId());
 		} catch (DuplicateKeyException e) {
 			log.warn("[MySqlTicketDao] ticketId = {}, exists skip", ticketInfo.getTicketId());
+		} catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+			throw new TransientException("MySQL unavailable for ticketId=" + ticketInfo.getTicketId(), e);
+		}
+	}
+
+	// two statements and one commit for the whole batch instead of one per ticket
+	@Override
+	@Transactional
+	public void createTickets(List<TicketInfo> tickets) {
+		if (tickets.isEmpty()) {
+			return;
 		}
+		try {
+			upsertWithRollup(tickets);
+			log.debug("[MySqlTicketDao] Successfully persisted batch of {} tickets", tickets.size());
+		} catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+			throw new TransientException("MySQL unavailable for batch of " + tickets.size() + " tickets", e);
+		}
+	}
+
+	// ticket rows and their sales rollup commit together, so the rollup never counts a ticket twice
+	// or misses one; a concurrent insert of the same id waits on the row lock and takes the update path
+	private void upsertWithRollup(List<TicketInfo> tickets) {
+		long ingestId = ThreadLocalRandom.current().nextLong();
+		String placeholders = String.join(",", Collections.nCopies(tickets.size(), ROW_PLACEHOLDERS));
+		jdbcTemplate.update(INSERT_SQL_PREFIX + placeholders + UPSERT_SQL_SUFFIX, toArgs(tickets, ingestId));
+
+		Object[] rollupArgs = new Object[tickets.size() + 1];
+		rollupArgs[0] = ingestId;
+		for (int i = 0; i < tickets.size(); i++) {
+			rollupArgs[i + 1] = ticketIdBytes(tickets.get(i).getTicketId());
+		}
+		jdbcTemplate.update(rollupSql(tickets.size()), rollupArgs);
+
+		// invalidating before the commit would let a reader cache the old row again
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				ticketCacheInvalidator.invalidate(tickets);
+			}
+		});
+	}
+
+	private static Object[] toArgs(List<TicketInfo> tickets, long ingestId) {
+		Object[] args = new Object[tickets.size() * COLUMNS];
+		int i = 0;
+		for (TicketInfo ticketInfo : tickets) {
+			// same seat identity as the PurchaseService bitmaps: "b"/"07" is stored as "B"/"7", a malformed
+			// label fails as a data error instead of becoming a seat no rebuild can place
+			long seat = SeatKey.parse(ticketInfo.getZoneId(), ticketInfo.getRow(), ticketInfo.getColumn());
+			args[i++] = ticketIdBytes(ticketInfo.getTicketId());
+			args[i++] = ticketInfo.getVenueId();
+			args[i++] = ticketInfo.getEventId();
+			args[i++] = SeatKey.zoneId(seat);
+			args[i++] = SeatKey.rowLabel(SeatKey.rowIndex(seat));
+			args[i++] = SeatKey.colLabel(SeatKey.colIndex(seat));
+			args[i++] = (ticketInfo.getStatus() == null ? TicketStatus.PENDING_PAYMENT : ticketInfo.getStatus()).name();
+			args[i++] = Timestamp.from(ticketInfo.getCreatedOn());
+			args[i++] = ingestId;
+		}
+		return args;
+	}
+
+	// ticket_id is BINARY(16): the UUID's 16 bytes big-endian, same as UUID_TO_BIN(id) without swap
+	static byte[] ticketIdBytes(String ticketId) {
+		UUID uuid = UUID.fromString(ticketId);
+		return ByteBuffer.allocate(16)
+				.putLong(uuid.getMostSignificantBits())
+				.putLong(uuid.getLeastSignificantBits())
+				.array();
 	}
 }
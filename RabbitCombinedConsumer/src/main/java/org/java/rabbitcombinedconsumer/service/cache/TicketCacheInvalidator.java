@@ -0,0 +1,65 @@
+package org.java.rabbitcombinedconsumer.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.java.ticketingcore.model.TicketInfo;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the QueryService ticket cache in step with MySQL: after a ticket write commits, overwrites the
+ * shared Redis entries with a short-lived tombstone and publishes the ids so every QueryService instance
+ * evicts its local copy. QueryService refills only absent keys, so a refill that read the old row before
+ * the commit cannot replace the tombstone; after it expires the next miss caches the committed row.
+ * Failures are only logged, the cache TTLs bound how long a missed invalidation stays visible.
+ */
+@Slf4j
+@Component
+public class TicketCacheInvalidator {
+	private final StringRedisTemplate redis;
+	private final Expiration tombstoneTtl;
+
+	public TicketCacheInvalidator(
+			ObjectProvider<StringRedisTemplate> redisTemplate,
+			@Value("${consumer.ticket-cache-invalidation.enabled:true}") boolean enabled,
+			@Value("${consumer.ticket-cache-invalidation.tombstone-ttl:PT10S}") Duration tombstoneTtl) {
+		this.redis = enabled ? redisTemplate.getIfAvailable() : null;
+		this.tombstoneTtl = Expiration.from(tombstoneTtl);
+	}
+
+	public void invalidate(List<TicketInfo> tickets) {
+		if (redis == null || tickets.isEmpty()) {
+			return;
+		}
+		byte[][] keys = new byte[tickets.size()][];
+		for (int i = 0; i < tickets.size(); i++) {
+			keys[i] = RedisKeyUtil.getTicketViewKey(tickets.get(i).getTicketId()).getBytes(StandardCharsets.UTF_8);
+		}
+		byte[] tombstone = RedisKeyUtil.TICKET_VIEW_TOMBSTONE.getBytes(StandardCharsets.UTF_8);
+		byte[] ids = tickets.stream()
+				.map(TicketInfo::getTicketId)
+				.collect(Collectors.joining(","))
+				.getBytes(StandardCharsets.UTF_8);
+		try {
+			redis.executePipelined((RedisCallback<Object>) connection -> {
+				for (byte[] key : keys) {
+					connection.stringCommands().set(key, tombstone, tombstoneTtl, SetOption.upsert());
+				}
+				connection.publish(RedisKeyUtil.getTicketInvalidationChannel().getBytes(StandardCharsets.UTF_8), ids);
+				return null;
+			});
+		} catch (RuntimeException e) {
+			log.warn("[TicketCacheInvalidator] invalidation of {} tickets failed: {}", tickets.size(), e.toString());
+		}
+	}
+}
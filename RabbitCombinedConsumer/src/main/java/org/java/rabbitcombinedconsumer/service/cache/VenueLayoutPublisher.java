@@ -0,0 +1,78 @@
+package org.java.rabbitcombinedconsumer.service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps QueryService's cached Venue/Zone/Event entities in step with MySQL: venue, zone and event rows
+ * only change through this service's Flyway migrations, so once a migrate run applied anything every
+ * venue id is published on the layout channel and each QueryService instance evicts that venue.
+ * Migrations do not say which rows they touched, and they are rare enough that evicting every venue
+ * costs one reload each. Failures are only logged, the cache expiry bounds how long stale rows stay.
+ */
+@Slf4j
+@Component
+public class VenueLayoutPublisher implements Callback {
+	static final String VENUE_IDS_SQL = "SELECT venue_id FROM venue";
+
+	private final ObjectProvider<StringRedisTemplate> redisTemplate;
+
+	public VenueLayoutPublisher(ObjectProvider<StringRedisTemplate> redisTemplate) {
+		this.redisTemplate = redisTemplate;
+	}
+
+	// fired once per migrate run, and only when at least one migration was applied
+	@Override
+	public boolean supports(Event event, Context context) {
+		return event == Event.AFTER_MIGRATE_APPLIED;
+	}
+
+	@Override
+	public boolean canHandleInTransaction(Event event, Context context) {
+		return true;
+	}
+
+	@Override
+	public void handle(Event event, Context context) {
+		StringRedisTemplate redis = redisTemplate.getIfAvailable();
+		if (redis == null) {
+			return;
+		}
+		try {
+			for (String venueId : venueIds(context)) {
+				redis.convertAndSend(RedisKeyUtil.getVenueLayoutChannel(), venueId);
+			}
+		} catch (SQLException | RuntimeException e) {
+			log.warn("[VenueLayoutPublisher] layout change not published: {}", e.toString());
+		}
+	}
+
+	@Override
+	public String getCallbackName() {
+		return getClass().getSimpleName();
+	}
+
+	// Flyway's own connection, which it closes itself
+	private List<String> venueIds(Context context) throws SQLException {
+		List<String> venueIds = new ArrayList<>();
+		try (Statement statement = context.getConnection().createStatement();
+				ResultSet rows = statement.executeQuery(VENUE_IDS_SQL)) {
+			while (rows.next()) {
+				venueIds.add(rows.getString(1));
+			}
+		}
+		return venueIds;
+	}
+}
@@ -0,0 +1,210 @@
+package org.java.rabbitcombinedconsumer.service.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.java.rabbitcombinedconsumer.exception.TransientException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueUrlRequest;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Caps how many listener invocations may write to MySQL at once and retunes that cap at runtime
+ * (AIMD): back off multiplicatively when inserts slow down or Hikari has waiting threads,
+ * grow additively while the queue has a backlog and the database keeps up.
+ * The listener containers are sized to {@link #maxLimit()} and a listener waiting for a permit keeps its
+ * container slot, so while the limiter is saturated the container stops polling instead of receiving
+ * messages it cannot write yet.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter implements DbWriteBulkhead {
+	private static final double DECREASE_FACTOR = 0.75;
+
+	private final SqsAsyncClient sqsAsyncClient;
+	private final HikariDataSource hikariDataSource;
+	private final Timer insertTimer;
+	private final ResizableSemaphore permits;
+	private final LongAdder windowCalls = new LongAdder();
+	private final LongAdder windowNanos = new LongAdder();
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final int increaseStep;
+	private final long targetLatencyMs;
+	private final String queueName;
+	private volatile String queueUrl;
+	private volatile int limit;
+
+	public AdaptiveConcurrencyLimiter(
+			SqsAsyncClient sqsAsyncClient,
+			DataSource dataSource,
+			MeterRegistry meterRegistry,
+			@Value("${consumer.concurrency.min-limit:4}") int minLimit,
+			@Value("${consumer.concurrency.max-limit:${spring.datasource.hikari.maximum-pool-size:60}}") int maxLimit,
+			@Value("${consumer.concurrency.target-latency-ms:50}") long targetLatencyMs,
+			@Value("${sqs.queue.ticket-sql-name}") String queueName,
+			@Value("${sqs.queue.ticket-sql-url:}") String queueUrl) {
+		this.sqsAsyncClient = sqsAsyncClient;
+		this.hikariDataSource = unwrapHikari(dataSource);
+		this.minLimit = Math.max(1, minLimit);
+		this.maxLimit = Math.max(this.minLimit, maxLimit);
+		this.increaseStep = Math.max(1, this.maxLimit / 10);
+		this.targetLatencyMs = targetLatencyMs;
+		this.queueName = queueName;
+		this.queueUrl = StringUtils.hasText(queueUrl) ? queueUrl : null;
+
+		// start in the middle and let the feedback loop find the right level
+		this.limit = Math.max(this.minLimit, this.maxLimit / 2);
+		this.permits = new ResizableSemaphore(this.limit);
+
+		this.insertTimer = Timer.builder("consumer.db.insert.latency")
+				.description("MySQL write latency seen by the SQS listeners")
+				.register(meterRegistry);
+		Gauge.builder("consumer.concurrency.limit", this, l -> l.limit)
+				.description("Current adaptive cap on concurrent MySQL writes")
+				.register(meterRegistry);
+		Gauge.builder("consumer.concurrency.in_flight", this, l -> l.limit - l.permits.availablePermits())
+				.register(meterRegistry);
+	}
+
+	@Override
+	public void run(Runnable dbWrite) {
+		execute(() -> {
+			dbWrite.run();
+			return null;
+		});
+	}
+
+	public <T> T execute(Supplier<T> dbWrite) {
+		try {
+			// backpressure, not failure: the wait holds the container slot, which throttles polling; at most
+			// maxLimit messages are in flight, so a waiter is admitted well within the visibility timeout
+			permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TransientException("Interrupted while waiting for a MySQL write permit", e);
+		}
+
+		long start = System.nanoTime();
+		try {
+			return dbWrite.get();
+		} finally {
+			long elapsed = System.nanoTime() - start;
+			permits.release();
+			windowCalls.increment();
+			windowNanos.add(elapsed);
+			insertTimer.record(elapsed, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	public int currentLimit() {
+		return limit;
+	}
+
+	public int maxLimit() {
+		return maxLimit;
+	}
+
+	@Scheduled(fixedDelayString = "${consumer.concurrency.adjust-interval-ms:5000}")
+	public void adjust() {
+		long calls = windowCalls.sumThenReset();
+		long nanos = windowNanos.sumThenReset();
+		double avgLatencyMs = calls == 0 ? 0 : nanos / 1_000_000.0 / calls;
+		int awaitingConnection = threadsAwaitingConnection();
+		long backlog = queueBacklog();
+
+		int current = limit;
+		int next = current;
+		if (awaitingConnection > 0 || avgLatencyMs > targetLatencyMs) {
+			next = Math.max(minLimit, (int) (current * DECREASE_FACTOR));
+		} else if (backlog < 0 || backlog > current) {
+			// unknown backlog counts as work waiting, the latency check above still guards the database
+			next = Math.min(maxLimit, current + increaseStep);
+		}
+
+		log.debug("[AdaptiveConcurrency] calls={}, avgLatencyMs={}, awaitingConnection={}, backlog={}, limit {} -> {}",
+				calls, String.format("%.2f", avgLatencyMs), awaitingConnection, backlog, current, next);
+		if (next != current) {
+			resize(current, next);
+			log.info("[AdaptiveConcurrency] limit {} -> {} (avgLatencyMs={}, awaitingConnection={}, backlog={})",
+					current, next, String.format("%.2f", avgLatencyMs), awaitingConnection, backlog);
+		}
+	}
+
+	private void resize(int current, int next) {
+		limit = next;
+		if (next > current) {
+			permits.release(next - current);
+		} else {
+			// permits held by running writes are not revoked, the cap shrinks as they finish
+			permits.shrink(current - next);
+		}
+	}
+
+	// ApproximateNumberOfMessages of the ticket queue, -1 when unknown
+	private long queueBacklog() {
+		try {
+			if (queueUrl == null) {
+				queueUrl = sqsAsyncClient.getQueueUrl(GetQueueUrlRequest.builder().queueName(queueName).build())
+						.get(5, TimeUnit.SECONDS)
+						.queueUrl();
+			}
+			String value = sqsAsyncClient.getQueueAttributes(GetQueueAttributesRequest.builder()
+							.queueUrl(queueUrl)
+							.attributeNames(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES)
+							.build())
+					.get(5, TimeUnit.SECONDS)
+					.attributes()
+					.get(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES);
+			return value == null ? -1 : Long.parseLong(value);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return -1;
+		} catch (Exception e) {
+			log.debug("[AdaptiveConcurrency] queue backlog unavailable: {}", e.toString());
+			return -1;
+		}
+	}
+
+	private int threadsAwaitingConnection() {
+		// the pool MXBean only exists once Hikari has opened its first connection
+		HikariPoolMXBean pool = hikariDataSource == null ? null : hikariDataSource.getHikariPoolMXBean();
+		return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+	}
+
+	private static HikariDataSource unwrapHikari(DataSource dataSource) {
+		try {
+			if (dataSource.isWrapperFor(HikariDataSource.class)) {
+				return dataSource.unwrap(HikariDataSource.class);
+			}
+		} catch (Exception e) {
+			log.warn("[AdaptiveConcurrency] Hikari pool metrics unavailable: {}", e.toString());
+		}
+		return null;
+	}
+
+	private static final class ResizableSemaphore extends Semaphore {
+		ResizableSemaphore(int permits) {
+			super(permits);
+		}
+
+		void shrink(int reduction) {
+			reducePermits(reduction);
+		}
+	}
+}
@@ -0,0 +1,6 @@
+package org.java.rabbitcombinedconsumer.service.concurrency;
+
+// caps the MySQL writes running at once; a caller past the cap waits for a permit
+public interface DbWriteBulkhead {
+	void run(Runnable dbWrite);
+}
@@ -0,0 +1,69 @@
+package org.java.rabbitcombinedconsumer.service.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.java.rabbitcombinedconsumer.exception.TransientException;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulkhead of the virtual listener mode: one permit per Hikari connection, never resized.
+ * Hundreds of messages are in flight on virtual threads, so the cap must not move with the adaptive
+ * limiter's feedback loop; past the pool size a write would only queue inside Hikari, here it parks
+ * its virtual thread on a fair semaphore instead and is admitted in arrival order.
+ */
+@Slf4j
+@Primary
+@Component
+@ConditionalOnProperty(name = "sqs.listener.mode", havingValue = "virtual")
+public class FixedDbWriteBulkhead implements DbWriteBulkhead {
+	private final Semaphore permits;
+	private final Timer insertTimer;
+
+	public FixedDbWriteBulkhead(DataSource dataSource, MeterRegistry meterRegistry) {
+		int poolSize = hikariPoolSize(dataSource);
+		this.permits = new Semaphore(poolSize, true);
+		this.insertTimer = Timer.builder("consumer.db.insert.latency")
+				.description("MySQL write latency seen by the SQS listeners")
+				.register(meterRegistry);
+		Gauge.builder("consumer.bulkhead.in_flight", permits, p -> poolSize - p.availablePermits())
+				.description("MySQL writes holding a permit of the fixed bulkhead")
+				.register(meterRegistry);
+		log.info("[FixedDbWriteBulkhead] {} permits, one per Hikari connection", poolSize);
+	}
+
+	@Override
+	public void run(Runnable dbWrite) {
+		try {
+			permits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new TransientException("Interrupted while waiting for a MySQL write permit", e);
+		}
+
+		long start = System.nanoTime();
+		try {
+			dbWrite.run();
+		} finally {
+			permits.release();
+			insertTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private static int hikariPoolSize(DataSource dataSource) {
+		try {
+			return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+		} catch (SQLException e) {
+			throw new IllegalStateException("The virtual listener mode sizes its bulkhead to a Hikari pool", e);
+		}
+	}
+}
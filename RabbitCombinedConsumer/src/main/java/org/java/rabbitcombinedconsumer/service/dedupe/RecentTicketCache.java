@@ -0,0 +1,154 @@
+package org.java.rabbitcombinedconsumer.service.dedupe;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.java.ticketingcore.model.TicketInfo;
+import org.java.ticketingcore.model.TicketStatus;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Remembers tickets that were committed to MySQL during the last few minutes so SQS redeliveries
+ * can be acknowledged without another upsert. Entries are keyed by ticket id and status, a status
+ * change is never skipped. A Redis copy shares the window between consumer instances when enabled;
+ * Redis errors only cost the lookup, the message then goes to MySQL as usual.
+ */
+@Slf4j
+@Component
+public class RecentTicketCache {
+	private static final String REDIS_KEY_PREFIX = "consumer:persisted:";
+
+	private final boolean enabled;
+	private final Cache<String, Boolean> local;
+	private final StringRedisTemplate redis;
+	private final Duration window;
+	private final Counter localHits;
+	private final Counter redisHits;
+	private final Counter misses;
+
+	public RecentTicketCache(
+			ObjectProvider<StringRedisTemplate> redisTemplate,
+			MeterRegistry meterRegistry,
+			@Value("${consumer.dedupe.enabled:true}") boolean enabled,
+			@Value("${consumer.dedupe.max-size:200000}") long maxSize,
+			@Value("${consumer.dedupe.window:PT10M}") Duration window,
+			@Value("${consumer.dedupe.redis.enabled:false}") boolean redisEnabled) {
+		this.enabled = enabled;
+		this.window = window;
+		this.local = Caffeine.newBuilder()
+				.maximumSize(maxSize)
+				.expireAfterWrite(window)
+				.recordStats()
+				.build();
+		this.redis = enabled && redisEnabled ? redisTemplate.getIfAvailable() : null;
+
+		CaffeineCacheMetrics.monitor(meterRegistry, local, "consumer.dedupe.local");
+		this.localHits = lookupCounter(meterRegistry, "local_hit");
+		this.redisHits = lookupCounter(meterRegistry, "redis_hit");
+		this.misses = lookupCounter(meterRegistry, "miss");
+		log.info("[RecentTicketCache] enabled={}, maxSize={}, window={}, redis={}", enabled, maxSize, window,
+				redis != null);
+	}
+
+	// true when this exact ticket state was committed within the window
+	public boolean isPersisted(TicketInfo ticket) {
+		return filterUnpersisted(List.of(ticket)).isEmpty();
+	}
+
+	// the tickets that still have to be written, in their original order
+	public List<TicketInfo> filterUnpersisted(List<TicketInfo> tickets) {
+		if (!enabled) {
+			return tickets;
+		}
+		List<TicketInfo> unknown = new ArrayList<>(tickets.size());
+		for (TicketInfo ticket : tickets) {
+			if (local.getIfPresent(key(ticket)) != null) {
+				localHits.increment();
+			} else {
+				unknown.add(ticket);
+			}
+		}
+		if (unknown.isEmpty() || redis == null) {
+			misses.increment(unknown.size());
+			return unknown;
+		}
+
+		List<String> values;
+		try {
+			values = redis.opsForValue().multiGet(unknown.stream().map(t -> REDIS_KEY_PREFIX + key(t)).toList());
+		} catch (RuntimeException e) {
+			log.debug("[RecentTicketCache] Redis lookup failed, treating {} tickets as new: {}", unknown.size(),
+					e.toString());
+			misses.increment(unknown.size());
+			return unknown;
+		}
+
+		List<TicketInfo> fresh = new ArrayList<>(unknown.size());
+		for (int i = 0; i < unknown.size(); i++) {
+			TicketInfo ticket = unknown.get(i);
+			if (values != null && values.get(i) != null) {
+				// another instance wrote it, keep it locally for the next redelivery
+				local.put(key(ticket), Boolean.TRUE);
+				redisHits.increment();
+			} else {
+				fresh.add(ticket);
+			}
+		}
+		misses.increment(fresh.size());
+		return fresh;
+	}
+
+	// call only after the MySQL transaction committed
+	public void markPersisted(List<TicketInfo> tickets) {
+		if (!enabled) {
+			return;
+		}
+		for (TicketInfo ticket : tickets) {
+			local.put(key(ticket), Boolean.TRUE);
+		}
+		if (redis == null || tickets.isEmpty()) {
+			return;
+		}
+		try {
+			Expiration expiration = Expiration.from(window);
+			redis.executePipelined((RedisCallback<Object>) connection -> {
+				for (TicketInfo ticket : tickets) {
+					connection.stringCommands().set(
+							(REDIS_KEY_PREFIX + key(ticket)).getBytes(StandardCharsets.UTF_8),
+							new byte[]{'1'},
+							expiration,
+							RedisStringCommands.SetOption.upsert());
+				}
+				return null;
+			});
+		} catch (RuntimeException e) {
+			log.debug("[RecentTicketCache] Redis write failed for {} tickets: {}", tickets.size(), e.toString());
+		}
+	}
+
+	private static String key(TicketInfo ticket) {
+		TicketStatus status = ticket.getStatus() == null ? TicketStatus.PENDING_PAYMENT : ticket.getStatus();
+		return ticket.getTicketId() + ":" + status.name();
+	}
+
+	private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+		return Counter.builder("consumer.dedupe.lookups")
+				.description("Dedupe lookups by result, hits are MySQL writes saved")
+				.tag("result", result)
+				.register(meterRegistry);
+	}
+}
@@ -0,0 +1,114 @@
+package org.java.rabbitcombinedconsumer.service.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.java.ticketingcore.dto.MqDTO;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the purchase pipeline as seen by the consumer, split into stages:
+ * publish-to-receive (PurchaseService's publishedAt to the listener), queue age (SQS SentTimestamp
+ * to the listener), receive-to-commit (listener to MySQL commit) and purchase-to-commit (ticket
+ * createdOn to commit, i.e. 201 to readable by QueryService's writer). Stamps from other hosts are
+ * subject to clock skew, negative differences count as 0.
+ */
+@Slf4j
+@Component
+public class ConsumerMetrics {
+	private final Timer endToEndTimer;
+	private final Timer publishToReceiveTimer;
+	private final Timer queueAgeTimer;
+	private final Timer receiveToCommitTimer;
+	private final Timer purchaseToCommitTimer;
+	private final Counter droppedCounter;
+
+	public ConsumerMetrics(MeterRegistry meterRegistry) {
+		this.endToEndTimer = lagTimer("consumer.message.e2e",
+				"SQS send to MySQL commit (or dedupe skip) per message", meterRegistry);
+		this.publishToReceiveTimer = lagTimer("consumer.lag.publish_to_receive",
+				"PurchaseService SNS publish to the listener receiving the message", meterRegistry);
+		this.queueAgeTimer = lagTimer("consumer.lag.queue_age",
+				"Time the message waited in SQS before this receive", meterRegistry);
+		this.receiveToCommitTimer = lagTimer("consumer.lag.receive_to_commit",
+				"Listener receive to MySQL commit, including waiting for a write permit", meterRegistry);
+		this.purchaseToCommitTimer = lagTimer("consumer.lag.purchase_to_commit",
+				"Ticket creation in PurchaseService to MySQL commit", meterRegistry);
+		this.droppedCounter = Counter.builder("consumer.message.dropped")
+				.description("Messages deleted without a write because they can never succeed")
+				.register(meterRegistry);
+	}
+
+	private static Timer lagTimer(String name, String description, MeterRegistry meterRegistry) {
+		return Timer.builder(name)
+				.description(description)
+				.publishPercentiles(0.5, 0.95, 0.99)
+				.publishPercentileHistogram()
+				.register(meterRegistry);
+	}
+
+	// sentTimestamp is the SentTimestamp system attribute, epoch millis as a string
+	public void recordHandled(Object sentTimestamp) {
+		Long sentMillis = parseMillis(sentTimestamp);
+		if (sentMillis != null) {
+			record(endToEndTimer, System.currentTimeMillis() - sentMillis);
+		}
+	}
+
+	// a non-retryable message that is deleted unwritten; not in the e2e timer, which only counts handled ones
+	public void recordDropped() {
+		droppedCounter.increment();
+	}
+
+	// at the listener entry, before any waiting for permits or connections
+	public void recordReceived(MqDTO dto, Object sentTimestamp, long receivedAtMillis) {
+		if (dto.getPublishedAt() != null) {
+			record(publishToReceiveTimer, receivedAtMillis - dto.getPublishedAt().toEpochMilli());
+		}
+		Long sentMillis = parseMillis(sentTimestamp);
+		if (sentMillis != null) {
+			record(queueAgeTimer, receivedAtMillis - sentMillis);
+		}
+	}
+
+	// once the ticket's row is committed; redeliveries skipped by the dedupe cache are not commits
+	public void recordCommitted(Instant createdOn, long receivedAtMillis) {
+		long now = System.currentTimeMillis();
+		record(receiveToCommitTimer, now - receivedAtMillis);
+		if (createdOn != null) {
+			record(purchaseToCommitTimer, now - createdOn.toEpochMilli());
+		}
+	}
+
+	public Timer endToEndTimer() {
+		return endToEndTimer;
+	}
+
+	public Timer purchaseToCommitTimer() {
+		return purchaseToCommitTimer;
+	}
+
+	public Counter droppedCounter() {
+		return droppedCounter;
+	}
+
+	private static void record(Timer timer, long millis) {
+		timer.record(Math.max(0, millis), TimeUnit.MILLISECONDS);
+	}
+
+	private static Long parseMillis(Object sentTimestamp) {
+		if (sentTimestamp == null) {
+			return null;
+		}
+		try {
+			return Long.parseLong(sentTimestamp.toString());
+		} catch (NumberFormatException e) {
+			log.debug("[ConsumerMetrics] unparseable SentTimestamp {}", sentTimestamp);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,107 @@
+package org.java.rabbitcombinedconsumer.service.sqs;
+
+import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.SqsHeaders;
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.java.ticketingcore.dto.MqDTO;
+import org.java.rabbitcombinedconsumer.exception.TransientException;
+import org.java.rabbitcombinedconsumer.mapper.MqMapper;
+import org.java.ticketingcore.model.TicketInfo;
+import org.java.rabbitcombinedconsumer.repository.MySqlTicketDAOInterface;
+import org.java.rabbitcombinedconsumer.service.concurrency.AdaptiveConcurrencyLimiter;
+import org.java.rabbitcombinedconsumer.service.dedupe.RecentTicketCache;
+import org.java.rabbitcombinedconsumer.service.metrics.ConsumerMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.Message;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Batch counterpart of SqsMySqlConsumer, enabled with sqs.listener.mode=batch
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "sqs.listener.mode", havingValue = "batch")
+public class SqsMySqlBatchConsumer {
+    private final MySqlTicketDAOInterface mySqlTicketDAO;
+    private final MqMapper mqMapper;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final RecentTicketCache recentTicketCache;
+    private final ConsumerMetrics consumerMetrics;
+
+    @SqsListener(value = "${sqs.queue.ticket-sql-name}", factory = "batchSqsListenerContainerFactory")
+    public void mySqlConsumeBatch(List<Message<MqDTO>> messages, BatchAcknowledgement<MqDTO> acknowledgement) {
+        long receivedAt = System.currentTimeMillis();
+        log.info("【MySqlSQS】Received batch of {} messages", messages.size());
+        for (Message<MqDTO> message : messages) {
+            consumerMetrics.recordReceived(message.getPayload(), sentTimestamp(message), receivedAt);
+        }
+
+        try {
+            List<TicketInfo> tickets = new ArrayList<>(messages.size());
+            for (Message<MqDTO> message : messages) {
+                tickets.add(mqMapper.toTicketInfo(message.getPayload()));
+            }
+            List<TicketInfo> fresh = recentTicketCache.filterUnpersisted(tickets);
+            if (!fresh.isEmpty()) {
+                concurrencyLimiter.run(() -> mySqlTicketDAO.createTickets(fresh));
+                fresh.forEach(ticket -> consumerMetrics.recordCommitted(ticket.getCreatedOn(), receivedAt));
+                recentTicketCache.markPersisted(fresh);
+            } else {
+                log.debug("【MySqlSQS】Whole batch of {} was persisted recently, ack only", messages.size());
+            }
+            acknowledgement.acknowledge(); // delete the whole batch on success
+            messages.forEach(this::recordHandled);
+            return;
+        } catch (TransientException e) {
+            // MySQL is unavailable, not one of the messages: retrying each would only add load to it.
+            // The whole batch stays unacknowledged and comes back after the visibility timeout
+            log.warn("[Retryable Error] Batch of {} left for redelivery. Error={}", messages.size(), e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.warn("[Batch Error] Batch of {} failed, retrying message by message. Error={}",
+                    messages.size(), e.getMessage());
+        }
+
+        // isolate the bad messages: ack what persisted or can never succeed; a transient failure stops the
+        // fallback and leaves it and the rest of the batch for redelivery
+        List<Message<MqDTO>> handled = new ArrayList<>(messages.size());
+        for (Message<MqDTO> message : messages) {
+            MqDTO dto = message.getPayload();
+            try {
+                TicketInfo ticket = mqMapper.toTicketInfo(dto);
+                if (!recentTicketCache.isPersisted(ticket)) {
+                    concurrencyLimiter.run(() -> mySqlTicketDAO.createTicket(ticket));
+                    consumerMetrics.recordCommitted(ticket.getCreatedOn(), receivedAt);
+                    recentTicketCache.markPersisted(List.of(ticket));
+                }
+                handled.add(message);
+                recordHandled(message);
+            } catch (TransientException e) {
+                log.warn("[Retryable Error] TicketId={}, Error={}", dto.getTicketId(), e.getMessage());
+                break;
+            } catch (Exception e) {
+                log.error("[Non-Retryable Error] Dropping message. TicketId={}, Error={}, StackTrace={}",
+                        dto.getTicketId(), e.getMessage(), e);
+                handled.add(message);
+                consumerMetrics.recordDropped();
+            }
+        }
+        if (!handled.isEmpty()) {
+            acknowledgement.acknowledge(handled);
+        }
+        log.info("【MySqlSQS】Batch fallback acknowledged {}/{} messages", handled.size(), messages.size());
+    }
+
+    private void recordHandled(Message<MqDTO> message) {
+        consumerMetrics.recordHandled(sentTimestamp(message));
+    }
+
+    private static Object sentTimestamp(Message<MqDTO> message) {
+        return message.getHeaders().get(SqsHeaders.MessageSystemAttributes.SQS_SENT_TIMESTAMP);
+    }
+}
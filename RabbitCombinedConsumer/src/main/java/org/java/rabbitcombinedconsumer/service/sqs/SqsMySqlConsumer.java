@@ -1,42 +1,31 @@
 package org.java.rabbitcombinedconsumer.service.sqs;
 
 import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.SqsHeaders;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import org.java.rabbitcombinedconsumer.dto.MqDTO;
-import org.java.rabbitcombinedconsumer.mapper.MqMapper;
-import org.java.rabbitcombinedconsumer.repository.MySqlTicketDAOInterface;
+import org.java.ticketingcore.dto.MqDTO;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
-import org.java.rabbitcombinedconsumer.exception.TransientException;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "sqs.listener.mode", havingValue = "single", matchIfMissing = true)
 public class SqsMySqlConsumer {
-    private final MySqlTicketDAOInterface mySqlTicketDAO;
-    private final MqMapper mqMapper;
+    private final TicketMessageHandler ticketMessageHandler;
 
     @SqsListener(value = "${sqs.queue.ticket-sql-name}", factory = "defaultSqsListenerContainerFactory")
     public void mySqlConsume(
             MqDTO dto,
             @Header(value = "ApproximateReceiveCount", required = false) Integer receiveCount,
-            @Header(value = "MessageId", required = false) String messageId) {
-        log.info("【MySqlSQS】Received ticketId={}, receiveCount={}, msgId={}", dto.getTicketId(), receiveCount,
-                messageId);
-
-        try {
-            mySqlTicketDAO.createTicket(mqMapper.toTicketInfo(dto)); // delete on success
-        } catch (TransientException e) {
-            // Retryable error, add back and retry
-            log.warn("[Retryable Error] TicketId={}, ReceiveCount={}, Error={}", dto.getTicketId(), receiveCount,
-                    e.getMessage());
-            throw e;
-        } catch (Exception e) {
-            // Non-retryable error, should not be retried
-            log.error("[Non-Retryable Error] Dropping message. TicketId={}, ReceiveCount={}, Error={}, StackTrace={}",
-                    dto.getTicketId(), receiveCount, e.getMessage(), e);
-        }
+            @Header(value = "MessageId", required = false) String messageId,
+            @Header(value = SqsHeaders.MessageSystemAttributes.SQS_SENT_TIMESTAMP, required = false) String sentTimestamp) {
+        long receivedAt = System.currentTimeMillis();
+        log.info("【MySqlSQS】Received ticketId={}, traceId={}, receiveCount={}, msgId={}", dto.getTicketId(),
+                dto.getTraceId(), receiveCount, messageId);
+        ticketMessageHandler.handle(dto, receiveCount, sentTimestamp, receivedAt);
     }
 }
@@ -0,0 +1,50 @@
+package org.java.rabbitcombinedconsumer.service.sqs;
+
+import io.awspring.cloud.sqs.annotation.SqsListener;
+import io.awspring.cloud.sqs.listener.SqsHeaders;
+import lombok.extern.slf4j.Slf4j;
+
+import org.java.ticketingcore.dto.MqDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Single-message mode with the JDBC work on virtual threads, enabled with sqs.listener.mode=virtual.
+ * Returning a future makes the container treat the listener as async, its few dispatch threads
+ * hand the message off and go back to polling; the message is deleted when the future completes
+ * normally. A fixed semaphore with one permit per Hikari connection (FixedDbWriteBulkhead) is the
+ * bulkhead in front of MySQL, so waiting for a connection parks a virtual thread instead of a pool thread.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "sqs.listener.mode", havingValue = "virtual")
+public class SqsMySqlVirtualConsumer {
+    private final TicketMessageHandler ticketMessageHandler;
+    private final ExecutorService virtualThreadExecutor;
+
+    public SqsMySqlVirtualConsumer(
+            TicketMessageHandler ticketMessageHandler,
+            @Qualifier("listenerVirtualThreadExecutor") ExecutorService virtualThreadExecutor) {
+        this.ticketMessageHandler = ticketMessageHandler;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+    }
+
+    @SqsListener(value = "${sqs.queue.ticket-sql-name}", factory = "virtualSqsListenerContainerFactory")
+    public CompletableFuture<Void> mySqlConsumeVirtual(
+            MqDTO dto,
+            @Header(value = "ApproximateReceiveCount", required = false) Integer receiveCount,
+            @Header(value = "MessageId", required = false) String messageId,
+            @Header(value = SqsHeaders.MessageSystemAttributes.SQS_SENT_TIMESTAMP, required = false) String sentTimestamp) {
+        long receivedAt = System.currentTimeMillis();
+        log.info("【MySqlSQS】Received ticketId={}, traceId={}, receiveCount={}, msgId={}", dto.getTicketId(),
+                dto.getTraceId(), receiveCount, messageId);
+        return CompletableFuture.runAsync(
+                () -> ticketMessageHandler.handle(dto, receiveCount, sentTimestamp, receivedAt),
+                virtualThreadExecutor);
+    }
+}
@@ -0,0 +1,59 @@
+package org.java.rabbitcombinedconsumer.service.sqs;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.java.ticketingcore.dto.MqDTO;
+import org.java.rabbitcombinedconsumer.exception.TransientException;
+import org.java.rabbitcombinedconsumer.mapper.MqMapper;
+import org.java.ticketingcore.model.TicketInfo;
+import org.java.rabbitcombinedconsumer.repository.MySqlTicketDAOInterface;
+import org.java.rabbitcombinedconsumer.service.concurrency.DbWriteBulkhead;
+import org.java.rabbitcombinedconsumer.service.dedupe.RecentTicketCache;
+import org.java.rabbitcombinedconsumer.service.metrics.ConsumerMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Per-message persistence shared by the single and virtual listener modes; the bulkhead is the adaptive
+// limiter in single mode and the fixed, pool-sized FixedDbWriteBulkhead in virtual mode
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TicketMessageHandler {
+    private final MySqlTicketDAOInterface mySqlTicketDAO;
+    private final MqMapper mqMapper;
+    private final DbWriteBulkhead writeBulkhead;
+    private final RecentTicketCache recentTicketCache;
+    private final ConsumerMetrics consumerMetrics;
+
+    // returns normally when the message can be deleted, throws TransientException to have it redelivered;
+    // receivedAtMillis is the listener entry, before any hand-off to another thread
+    public void handle(MqDTO dto, Integer receiveCount, String sentTimestamp, long receivedAtMillis) {
+        consumerMetrics.recordReceived(dto, sentTimestamp, receivedAtMillis);
+        try {
+            TicketInfo ticket = mqMapper.toTicketInfo(dto);
+            if (recentTicketCache.isPersisted(ticket)) {
+                // redelivery of a ticket already committed, ack without touching MySQL
+                log.debug("【MySqlSQS】Skip recently persisted ticketId={}, receiveCount={}", dto.getTicketId(),
+                        receiveCount);
+                consumerMetrics.recordHandled(sentTimestamp);
+                return;
+            }
+            writeBulkhead.run(() -> mySqlTicketDAO.createTicket(ticket)); // delete on success
+            consumerMetrics.recordCommitted(dto.getCreatedOn(), receivedAtMillis);
+            recentTicketCache.markPersisted(List.of(ticket));
+            consumerMetrics.recordHandled(sentTimestamp);
+        } catch (TransientException e) {
+            // Retryable error, add back and retry
+            log.warn("[Retryable Error] TicketId={}, ReceiveCount={}, Error={}", dto.getTicketId(), receiveCount,
+                    e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            // Non-retryable error, should not be retried
+            log.error("[Non-Retryable Error] Dropping message. TicketId={}, ReceiveCount={}, Error={}, StackTrace={}",
+                    dto.getTicketId(), receiveCount, e.getMessage(), e);
+            consumerMetrics.recordDropped();
+        }
+    }
+}
@@ -1,9 +1,5 @@
--- mysql -u root -p < schema.sql
-
-CREATE DATABASE IF NOT EXISTS ticketing
-    CHARACTER SET utf8mb4
-    COLLATE utf8mb4_unicode_ci;
-USE ticketing;
+-- Schema as created by the former schema.sql; existing databases are baselined at this version
+-- (spring.flyway.baseline-on-migrate) and only run the migrations after it.
 
 -- 1. Venue
 CREATE TABLE venue (
@@ -42,7 +38,22 @@ CREATE TABLE ticket (
                         col_label   VARCHAR(8)     NOT NULL,
                         status      VARCHAR(16)    NOT NULL DEFAULT 'AVAILABLE',
                         created_on  DATETIME       NOT NULL,
+                        ingest_id   BIGINT         NULL,
                         FOREIGN KEY (venue_id) REFERENCES venue(venue_id),
                         FOREIGN KEY (event_id) REFERENCES event(event_id),
                         FOREIGN KEY (venue_id, zone_id) REFERENCES zone(venue_id, zone_id)
-);
\ No newline at end of file
+);
+
+-- 5. Sales rollup per event and zone, maintained by the consumer in the ticket insert transaction
+CREATE TABLE event_zone_sales (
+                        event_id      VARCHAR(64)    NOT NULL,
+                        venue_id      VARCHAR(64)    NOT NULL,
+                        zone_id       INT            NOT NULL,
+                        ticket_count  BIGINT         NOT NULL DEFAULT 0,
+                        revenue       DECIMAL(14,2)  NOT NULL DEFAULT 0,
+                        version       BIGINT         NOT NULL DEFAULT 0,
+                        updated_at    DATETIME(3)    NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3),
+                        PRIMARY KEY (event_id, venue_id, zone_id)
+);
+
+CREATE INDEX idx_ticket_event_seat ON ticket (event_id, venue_id, zone_id, row_label, col_label);
@@ -0,0 +1,24 @@
+-- Indexes for the read paths outside the consumer, verified by QueryService's RepositoryIndexUsageTest and
+-- PurchaseService's SeatInventoryRebuildIndexTest.
+-- Point reads and keyset pages use the primary key; the rollup reads use its (event_id, venue_id, zone_id) key.
+
+-- Per-event scans (QueryService export and sales summary, PurchaseService inventory rebuild) read only this
+-- index: status and created_on are added so none of them touches the clustered rows.
+-- One statement, so the event_id foreign key is never left without a usable index. Databases baselined from
+-- the old schema.sql never had idx_ticket_event_seat, so it is only dropped where V1 created it.
+SET @ticket_event_cover = (
+    SELECT CONCAT('ALTER TABLE ticket ',
+                  IF(COUNT(*) > 0, 'DROP INDEX idx_ticket_event_seat, ', ''),
+                  'ADD INDEX idx_ticket_event_cover ',
+                  '(event_id, venue_id, zone_id, row_label, col_label, status, created_on)')
+    FROM information_schema.statistics
+    WHERE table_schema = DATABASE()
+      AND table_name = 'ticket'
+      AND index_name = 'idx_ticket_event_seat'
+);
+PREPARE ticket_event_cover FROM @ticket_event_cover;
+EXECUTE ticket_event_cover;
+DEALLOCATE PREPARE ticket_event_cover;
+
+-- Incremental aggregate refresh: rollup rows of one event updated since a watermark
+CREATE INDEX idx_event_zone_sales_updated ON event_zone_sales (event_id, updated_at);
@@ -0,0 +1,14 @@
+-- ticket_id from a 36-character string to BINARY(16): the key shrinks to 16 bytes in the clustered index
+-- and in every secondary index entry. Byte order is UUID_TO_BIN without swap, i.e. the UUID's bytes
+-- big-endian, which is what the consumer writes and QueryService reads.
+-- Copies the table; on a large existing table run it in a maintenance window.
+
+ALTER TABLE ticket ADD COLUMN ticket_id_bin BINARY(16) NULL AFTER ticket_id;
+
+UPDATE ticket SET ticket_id_bin = UUID_TO_BIN(ticket_id);
+
+ALTER TABLE ticket
+    DROP PRIMARY KEY,
+    DROP COLUMN ticket_id,
+    CHANGE COLUMN ticket_id_bin ticket_id BINARY(16) NOT NULL FIRST,
+    ADD PRIMARY KEY (ticket_id);
@@ -0,0 +1,4 @@
+-- QueryService ticket search pages by ticket_id within an event. The covering index is ordered by seat,
+-- so every page would sort all of the event's tickets; this one yields them in ticket_id order and a
+-- page stops after its LIMIT. Zone, status and created_on filters are checked on the rows it reaches.
+CREATE INDEX idx_ticket_event_id ON ticket (event_id, ticket_id);
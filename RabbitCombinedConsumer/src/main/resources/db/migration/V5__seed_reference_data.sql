@@ -0,0 +1,23 @@
+-- Reference data the services expect at startup: Venue1/Event1, which PurchaseService seeds in Redis,
+-- and the venue-test/event-test fixtures. Formerly data.sql, which stopped running once Flyway replaced
+-- spring.sql.init. Upserts, so databases that already ran data.sql migrate cleanly.
+
+INSERT INTO venue (venue_id, city)
+VALUES ('Venue1', 'Shanghai'),
+       ('venue-test', 'Beijing')
+ON DUPLICATE KEY UPDATE city = VALUES(city);
+
+INSERT INTO zone (venue_id, zone_id, ticket_price, row_count, col_count)
+VALUES ('Venue1', 1, 100.00, 10, 20),
+       ('Venue1', 2, 150.00, 8, 15),
+       ('venue-test', 1, 80.00, 12, 25)
+ON DUPLICATE KEY UPDATE ticket_price = VALUES(ticket_price),
+                        row_count    = VALUES(row_count),
+                        col_count    = VALUES(col_count);
+
+INSERT INTO event (event_id, venue_id, name, type, event_date)
+VALUES ('Event1', 'Venue1', 'Spring Concert 2025', 'Concert', '2025-12-25'),
+       ('event-test', 'venue-test', 'Test Event', 'Test', '2025-11-15')
+ON DUPLICATE KEY UPDATE name       = VALUES(name),
+                        type       = VALUES(type),
+                        event_date = VALUES(event_date);
@@ -0,0 +1,172 @@
+package org.java.rabbitcombinedconsumer.loader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.java.rabbitcombinedconsumer.mapper.MqMapper;
+import org.java.rabbitcombinedconsumer.repository.MySqlTicketDAOInterface;
+import org.java.ticketingcore.dto.MqDTO;
+import org.java.ticketingcore.model.TicketInfo;
+import org.java.ticketingcore.model.TicketStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapstruct.factory.Mappers;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class TicketBulkLoaderTest {
+	private static final int WRITERS = 2;
+
+	private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+	// every batch handed to MySQL, as ticket ids, in commit order
+	private final List<List<String>> batches = Collections.synchronizedList(new ArrayList<>());
+	// events in different writer partitions
+	private final String eventA = eventInPartition(0);
+	private final String eventB = eventInPartition(1);
+
+	@TempDir
+	Path dir;
+
+	private static String eventInPartition(int partition) {
+		for (int i = 0; ; i++) {
+			String eventId = "E-" + i;
+			if (Math.floorMod(eventId.hashCode(), WRITERS) == partition) {
+				return eventId;
+			}
+		}
+	}
+
+	// the ticket id encodes the line number, so batches can be checked against the input
+	private static String ticketId(int line) {
+		return new UUID(0, line).toString();
+	}
+
+	private Path input(String... eventPerLine) throws Exception {
+		List<String> lines = new ArrayList<>();
+		for (int i = 0; i < eventPerLine.length; i++) {
+			lines.add(objectMapper.writeValueAsString(MqDTO.builder()
+					.ticketId(ticketId(i + 1))
+					.venueId("V-1")
+					.eventId(eventPerLine[i])
+					.zoneId(1)
+					.row("A")
+					.column(String.valueOf(i + 1))
+					.status(TicketStatus.PAID)
+					.createdOn(Instant.parse("2025-01-02T03:00:00Z"))
+					.build()));
+		}
+		return Files.write(dir.resolve("tickets.jsonl"), lines);
+	}
+
+	private MySqlTicketDAOInterface recordingDao() {
+		MySqlTicketDAOInterface dao = mock(MySqlTicketDAOInterface.class);
+		doAnswer(invocation -> {
+			List<TicketInfo> batch = invocation.getArgument(0);
+			batches.add(batch.stream().map(TicketInfo::getTicketId).toList());
+			return null;
+		}).when(dao).createTickets(anyList());
+		return dao;
+	}
+
+	private void load(MySqlTicketDAOInterface dao, Path input, int chunkLines) throws Exception {
+		TicketBulkLoader loader = new TicketBulkLoader(dao, Mappers.getMapper(MqMapper.class), objectMapper,
+				mock(ApplicationContext.class));
+		ReflectionTestUtils.setField(loader, "inputFile", input.toString());
+		ReflectionTestUtils.setField(loader, "checkpointFile", "");
+		ReflectionTestUtils.setField(loader, "writers", WRITERS);
+		ReflectionTestUtils.setField(loader, "batchSize", 1000);
+		ReflectionTestUtils.setField(loader, "chunkLines", chunkLines);
+		ReflectionTestUtils.setField(loader, "exitWhenDone", false);
+		loader.run(null);
+	}
+
+	private long checkpointLines(Path input) throws Exception {
+		Properties props = new Properties();
+		try (Reader reader = Files.newBufferedReader(input.resolveSibling(input.getFileName() + ".checkpoint"))) {
+			props.load(reader);
+		}
+		return Long.parseLong(props.getProperty("lines"));
+	}
+
+	private List<String> written() {
+		return batches.stream().flatMap(List::stream).toList();
+	}
+
+	@Test
+	@DisplayName("a checkpoint skips the lines it covers and is advanced to the end of the input")
+	void checkpoint_resumesAfterIt() throws Exception {
+		// given: the first three lines committed in an earlier run
+		Path input = input(eventA, eventA, eventA, eventA, eventA);
+		Files.writeString(input.resolveSibling("tickets.jsonl.checkpoint"), "lines=3\n");
+
+		// when
+		load(recordingDao(), input, 10);
+
+		// then
+		assertEquals(List.of(ticketId(4), ticketId(5)), written());
+		assertEquals(5, checkpointLines(input));
+	}
+
+	@Test
+	@DisplayName("a chunk is split by event, each event's tickets go to one writer in input order")
+	void chunk_partitionedByEvent() throws Exception {
+		// given
+		Path input = input(eventA, eventB, eventA, eventB, eventA);
+
+		// when
+		load(recordingDao(), input, 10);
+
+		// then: one batch per writer, in either order since the writers run in parallel
+		assertEquals(2, batches.size());
+		assertTrue(batches.contains(List.of(ticketId(1), ticketId(3), ticketId(5))));
+		assertTrue(batches.contains(List.of(ticketId(2), ticketId(4))));
+	}
+
+	@Test
+	@DisplayName("a failed chunk keeps the checkpoint before it, the rerun replays the whole chunk")
+	void partialChunk_replayedOnRestart() throws Exception {
+		// given: chunks of two lines; in the second chunk event B's writer fails after event A's committed
+		Path input = input(eventA, eventB, eventA, eventB, eventA);
+		MySqlTicketDAOInterface failing = mock(MySqlTicketDAOInterface.class);
+		doAnswer(invocation -> {
+			List<TicketInfo> batch = invocation.getArgument(0);
+			List<String> ids = batch.stream().map(TicketInfo::getTicketId).toList();
+			if (ids.contains(ticketId(4))) {
+				throw new IllegalStateException("MySQL gone");
+			}
+			batches.add(ids);
+			return null;
+		}).when(failing).createTickets(anyList());
+
+		// when
+		load(failing, input, 2);
+
+		// then: only the first chunk is checkpointed
+		assertEquals(2, checkpointLines(input));
+		assertTrue(written().contains(ticketId(3)));
+
+		// when: restarted with MySQL back
+		batches.clear();
+		load(recordingDao(), input, 2);
+
+		// then: line 3 is written again, the upsert makes that harmless, and nothing is lost
+		assertEquals(List.of(ticketId(3), ticketId(4), ticketId(5)), written().stream().sorted().toList());
+		assertEquals(5, checkpointLines(input));
+	}
+}
@@ -0,0 +1,129 @@
+package org.java.rabbitcombinedconsumer.repository.mysql;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Applies db/migration to a throwaway MySQL 8 and EXPLAINs the consumer's own statements against it, built
+ * by MySqlTicketDao itself, failing when one of them stops using the index it relies on. QueryService's
+ * RepositoryIndexUsageTest and PurchaseService's SeatInventoryRebuildIndexTest do the same for their reads.
+ * Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class SchemaIndexUsageTest {
+	private static final int TICKETS_PER_EVENT = 2000;
+	// an existing row: a const lookup that matches nothing is planned without touching the table
+	private static final byte[] SAMPLE_TICKET_ID = MySqlTicketDao.ticketIdBytes(UUID.randomUUID().toString());
+
+	@Container
+	static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0").withDatabaseName("ticketing");
+
+	private static JdbcTemplate jdbcTemplate;
+
+	@BeforeAll
+	static void migrateAndSeed() {
+		Flyway.configure()
+				.dataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword())
+				.load()
+				.migrate();
+		jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(),
+				MYSQL.getPassword()));
+
+		// enough rows that the optimizer's choices match production instead of favouring full scans
+		jdbcTemplate.update("INSERT INTO venue VALUES ('V1', 'Seattle')");
+		for (int zone = 1; zone <= 4; zone++) {
+			jdbcTemplate.update("INSERT INTO zone VALUES ('V1', ?, ?, 26, 30)", zone, 50 * zone);
+		}
+		List<Object[]> tickets = new ArrayList<>();
+		for (int event = 1; event <= 5; event++) {
+			jdbcTemplate.update("INSERT INTO event VALUES (?, 'V1', 'Concert', 'MUSIC', CURRENT_DATE)", "E" + event);
+			for (int i = 0; i < TICKETS_PER_EVENT; i++) {
+				byte[] ticketId = tickets.isEmpty() ? SAMPLE_TICKET_ID
+						: MySqlTicketDao.ticketIdBytes(UUID.randomUUID().toString());
+				tickets.add(new Object[]{ticketId, "V1", "E" + event,
+						1 + i % 4, String.valueOf((char) ('A' + i / 30 % 26)), String.valueOf(1 + i % 30), "PAID",
+						Timestamp.from(Instant.now()), 1L});
+			}
+		}
+		jdbcTemplate.batchUpdate("""
+				INSERT INTO ticket(ticket_id, venue_id, event_id, zone_id, row_label, col_label, status, created_on,
+				                   ingest_id) VALUES (?,?,?,?,?,?,?,?,?)
+				""", tickets);
+		jdbcTemplate.update("""
+				INSERT INTO event_zone_sales (event_id, venue_id, zone_id, ticket_count, revenue, version)
+				SELECT t.event_id, t.venue_id, t.zone_id, COUNT(*), SUM(z.ticket_price), 1
+				FROM ticket t JOIN zone z ON z.venue_id = t.venue_id AND z.zone_id = t.zone_id
+				GROUP BY t.event_id, t.venue_id, t.zone_id
+				""");
+		jdbcTemplate.execute("ANALYZE TABLE ticket, event_zone_sales, zone");
+	}
+
+	@Test
+	@DisplayName("ticket_id is BINARY(16) after the migrations")
+	void ticketIdIsBinary() {
+		String type = jdbcTemplate.queryForObject("""
+				SELECT column_type FROM information_schema.columns
+				WHERE table_schema = DATABASE() AND table_name = 'ticket' AND column_name = 'ticket_id'
+				""", String.class);
+		assertEquals("binary(16)", type);
+	}
+
+	@ParameterizedTest(name = "{0}")
+	@MethodSource("queries")
+	@DisplayName("every consumer statement is served by its index")
+	void queryUsesIndex(IndexedQuery query) {
+		Set<String> seenTables = new HashSet<>();
+		jdbcTemplate.query("EXPLAIN " + query.sql(), (RowCallbackHandler) rs -> {
+			String table = rs.getString("table");
+			Set<String> allowed = query.keysByTable().get(table);
+			if (allowed == null) {
+				// e.g. the target row of INSERT ... SELECT, not a read
+				return;
+			}
+			seenTables.add(table);
+			String key = rs.getString("key");
+			String type = rs.getString("type");
+			assertTrue(key != null && allowed.contains(key), () -> query.name() + ": " + table + " read with key="
+					+ key + ", type=" + type + ", expected one of " + allowed);
+		}, query.args());
+		assertEquals(query.keysByTable().keySet(), seenTables, query.name() + ": tables in the plan");
+	}
+
+	static Stream<IndexedQuery> queries() {
+		return Stream.of(
+				// MySqlTicketDao rollup of a two-ticket batch, joined to the zone price
+				new IndexedQuery("consumer rollup", MySqlTicketDao.rollupSql(2),
+						Map.of("t", Set.of("PRIMARY"), "z", Set.of("PRIMARY")), 1L, SAMPLE_TICKET_ID,
+						MySqlTicketDao.ticketIdBytes(UUID.randomUUID().toString())));
+	}
+
+	record IndexedQuery(String name, String sql, Map<String, Set<String>> keysByTable, Object... args) {
+		@Override
+		public String toString() {
+			return name;
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package org.java.rabbitcombinedconsumer.service.cache;
+
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.java.ticketingcore.redis.RedisKeyUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+class VenueLayoutPublisherTest {
+	private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+	private final Context context = mock(Context.class);
+	private VenueLayoutPublisher publisher;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() throws Exception {
+		ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(redis);
+		publisher = new VenueLayoutPublisher(provider);
+
+		Connection connection = mock(Connection.class);
+		Statement statement = mock(Statement.class);
+		ResultSet rows = mock(ResultSet.class);
+		when(context.getConnection()).thenReturn(connection);
+		when(connection.createStatement()).thenReturn(statement);
+		when(statement.executeQuery(VenueLayoutPublisher.VENUE_IDS_SQL)).thenReturn(rows);
+		when(rows.next()).thenReturn(true, true, false);
+		when(rows.getString(1)).thenReturn("Venue1", "venue-test");
+	}
+
+	@Test
+	@DisplayName("only a migrate run that applied something triggers the callback")
+	void supports_onlyAppliedMigrations() {
+		assertTrue(publisher.supports(Event.AFTER_MIGRATE_APPLIED, context));
+		assertFalse(publisher.supports(Event.AFTER_MIGRATE, context));
+	}
+
+	@Test
+	@DisplayName("every venue in MySQL is published on the layout channel")
+	void appliedMigration_publishesEveryVenue() {
+		// when
+		publisher.handle(Event.AFTER_MIGRATE_APPLIED, context);
+
+		// then
+		verify(redis).convertAndSend(RedisKeyUtil.getVenueLayoutChannel(), "Venue1");
+		verify(redis).convertAndSend(RedisKeyUtil.getVenueLayoutChannel(), "venue-test");
+	}
+
+	@Test
+	@DisplayName("Redis being down does not fail the migration")
+	void redisDown_migrationNotFailed() {
+		// given
+		when(redis.convertAndSend(anyString(), anyString()))
+				.thenThrow(new RedisConnectionFailureException("Redis unavailable"));
+
+		// when / then
+		assertDoesNotThrow(() -> publisher.handle(Event.AFTER_MIGRATE_APPLIED, context));
+	}
+}
@@ -0,0 +1,150 @@
+package org.java.rabbitcombinedconsumer.service.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesRequest;
+import software.amazon.awssdk.services.sqs.model.GetQueueAttributesResponse;
+import software.amazon.awssdk.services.sqs.model.QueueAttributeName;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// min 4, max 40: starts at 20, steps up by 4, cuts by a quarter
+class AdaptiveConcurrencyLimiterTest {
+	private static final int MIN = 4;
+	private static final int MAX = 40;
+	private static final long TARGET_LATENCY_MS = 50;
+
+	private final SqsAsyncClient sqsAsyncClient = mock(SqsAsyncClient.class);
+	private final HikariDataSource dataSource = mock(HikariDataSource.class);
+	private final HikariPoolMXBean pool = mock(HikariPoolMXBean.class);
+	private AdaptiveConcurrencyLimiter limiter;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		when(dataSource.isWrapperFor(HikariDataSource.class)).thenReturn(true);
+		when(dataSource.unwrap(HikariDataSource.class)).thenReturn(dataSource);
+		when(dataSource.getHikariPoolMXBean()).thenReturn(pool);
+		limiter = new AdaptiveConcurrencyLimiter(sqsAsyncClient, dataSource, new SimpleMeterRegistry(), MIN, MAX,
+				TARGET_LATENCY_MS, "ticket-sql", "http://sqs/ticket-sql");
+	}
+
+	private void backlog(long messages) {
+		when(sqsAsyncClient.getQueueAttributes(any(GetQueueAttributesRequest.class)))
+				.thenReturn(CompletableFuture.completedFuture(GetQueueAttributesResponse.builder()
+						.attributesWithStrings(Map.of(QueueAttributeName.APPROXIMATE_NUMBER_OF_MESSAGES.toString(),
+								String.valueOf(messages)))
+						.build()));
+	}
+
+	private void awaitingConnection(int threads) {
+		when(pool.getThreadsAwaitingConnection()).thenReturn(threads);
+	}
+
+	@Test
+	@DisplayName("a backlog larger than the limit raises it by one step while MySQL keeps up")
+	void backlog_raisesLimit() {
+		// given
+		backlog(1_000);
+		awaitingConnection(0);
+
+		// when
+		limiter.adjust();
+
+		// then
+		assertEquals(24, limiter.currentLimit());
+	}
+
+	@Test
+	@DisplayName("no backlog beyond the limit leaves it unchanged")
+	void smallBacklog_keepsLimit() {
+		// given
+		backlog(5);
+		awaitingConnection(0);
+
+		// when
+		limiter.adjust();
+
+		// then
+		assertEquals(20, limiter.currentLimit());
+	}
+
+	@Test
+	@DisplayName("threads waiting for a Hikari connection cut the limit even with a backlog")
+	void awaitingConnection_cutsLimit() {
+		// given
+		backlog(1_000);
+		awaitingConnection(3);
+
+		// when
+		limiter.adjust();
+
+		// then
+		assertEquals(15, limiter.currentLimit());
+	}
+
+	@Test
+	@DisplayName("writes slower than the target latency cut the limit")
+	void slowWrites_cutLimit() {
+		// given
+		backlog(1_000);
+		awaitingConnection(0);
+		limiter.run(() -> sleep(TARGET_LATENCY_MS * 2));
+
+		// when
+		limiter.adjust();
+
+		// then
+		assertEquals(15, limiter.currentLimit());
+	}
+
+	@Test
+	@DisplayName("repeated raises stop at the max limit")
+	void raises_clampAtMax() {
+		// given
+		backlog(100_000);
+		awaitingConnection(0);
+
+		// when
+		for (int i = 0; i < 10; i++) {
+			limiter.adjust();
+		}
+
+		// then
+		assertEquals(MAX, limiter.currentLimit());
+	}
+
+	@Test
+	@DisplayName("repeated cuts stop at the min limit")
+	void cuts_clampAtMin() {
+		// given
+		backlog(1_000);
+		awaitingConnection(3);
+
+		// when
+		for (int i = 0; i < 20; i++) {
+			limiter.adjust();
+		}
+
+		// then
+		assertEquals(MIN, limiter.currentLimit());
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package org.java.rabbitcombinedconsumer.service.concurrency;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FixedDbWriteBulkheadTest {
+	private static final int POOL_SIZE = 2;
+
+	private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+
+	@AfterEach
+	void tearDown() {
+		writers.shutdownNow();
+	}
+
+	private static FixedDbWriteBulkhead bulkhead() throws Exception {
+		HikariDataSource dataSource = mock(HikariDataSource.class);
+		when(dataSource.unwrap(HikariDataSource.class)).thenReturn(dataSource);
+		when(dataSource.getMaximumPoolSize()).thenReturn(POOL_SIZE);
+		return new FixedDbWriteBulkhead(dataSource, new SimpleMeterRegistry());
+	}
+
+	@Test
+	@DisplayName("no more writes run at once than the Hikari pool has connections")
+	void writesCappedAtPoolSize() throws Exception {
+		// given: two writes holding both permits
+		FixedDbWriteBulkhead bulkhead = bulkhead();
+		CountDownLatch holding = new CountDownLatch(POOL_SIZE);
+		CountDownLatch finish = new CountDownLatch(1);
+		AtomicInteger started = new AtomicInteger();
+		for (int i = 0; i < POOL_SIZE + 1; i++) {
+			writers.execute(() -> bulkhead.run(() -> {
+				started.incrementAndGet();
+				holding.countDown();
+				await(finish);
+			}));
+		}
+
+		// when
+		assertTrue(holding.await(5, TimeUnit.SECONDS));
+
+		// then: the third waits until a permit is released
+		assertFalse(waitFor(() -> started.get() > POOL_SIZE, 200));
+		finish.countDown();
+		assertTrue(waitFor(() -> started.get() == POOL_SIZE + 1, 5_000));
+		assertEquals(POOL_SIZE + 1, started.get());
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(10, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static boolean waitFor(BooleanSupplier condition, long millis) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+		while (System.nanoTime() < deadline) {
+			if (condition.getAsBoolean()) {
+				return true;
+			}
+			Thread.sleep(10);
+		}
+		return condition.getAsBoolean();
+	}
+}
@@ -0,0 +1,133 @@
+package org.java.rabbitcombinedconsumer.service.dedupe;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.java.ticketingcore.model.TicketInfo;
+import org.java.ticketingcore.model.TicketStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecentTicketCacheTest {
+	private static final Duration WINDOW = Duration.ofMinutes(10);
+
+	@SuppressWarnings("unchecked")
+	private final ObjectProvider<StringRedisTemplate> noRedis = mock(ObjectProvider.class);
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private RecentTicketCache cache(Duration window) {
+		return new RecentTicketCache(noRedis, meterRegistry, true, 1_000, window, false);
+	}
+
+	private static TicketInfo ticket(String ticketId, TicketStatus status) {
+		return TicketInfo.builder()
+				.ticketId(ticketId)
+				.venueId("V-1")
+				.eventId("E-1")
+				.zoneId(1)
+				.row("A")
+				.column("1")
+				.status(status)
+				.createdOn(Instant.parse("2025-01-02T03:00:00Z"))
+				.build();
+	}
+
+	private double lookups(String result) {
+		return meterRegistry.get("consumer.dedupe.lookups").tag("result", result).counter().count();
+	}
+
+	@Test
+	@DisplayName("a ticket committed within the window is a hit")
+	void persisted_hit() {
+		// given
+		RecentTicketCache cache = cache(WINDOW);
+		cache.markPersisted(List.of(ticket("T-1", TicketStatus.PAID)));
+
+		// when
+		boolean persisted = cache.isPersisted(ticket("T-1", TicketStatus.PAID));
+
+		// then
+		assertTrue(persisted);
+		assertEquals(1, lookups("local_hit"));
+	}
+
+	@Test
+	@DisplayName("an unknown ticket, or a known one in another status, is a miss")
+	void unknownOrOtherStatus_miss() {
+		// given
+		RecentTicketCache cache = cache(WINDOW);
+		cache.markPersisted(List.of(ticket("T-1", TicketStatus.PAID)));
+
+		// when
+		List<TicketInfo> unpersisted = cache.filterUnpersisted(List.of(ticket("T-2", TicketStatus.PAID),
+				ticket("T-1", TicketStatus.PAID), ticket("T-1", TicketStatus.CANCELLED)));
+
+		// then: the status change is written, never skipped; order kept
+		assertEquals(List.of("T-2:PAID", "T-1:CANCELLED"), unpersisted.stream()
+				.map(t -> t.getTicketId() + ":" + t.getStatus())
+				.toList());
+		assertEquals(2, lookups("miss"));
+	}
+
+	@Test
+	@DisplayName("an entry older than the window is a miss again")
+	void pastWindow_expired() throws Exception {
+		// given
+		RecentTicketCache cache = cache(Duration.ofMillis(50));
+		cache.markPersisted(List.of(ticket("T-1", TicketStatus.PAID)));
+
+		// when
+		Thread.sleep(150);
+
+		// then
+		assertFalse(cache.isPersisted(ticket("T-1", TicketStatus.PAID)));
+	}
+
+	@Test
+	@DisplayName("a ticket another instance committed is a Redis hit, then a local one")
+	@SuppressWarnings("unchecked")
+	void otherInstance_redisHit() {
+		// given
+		StringRedisTemplate redis = mock(StringRedisTemplate.class);
+		ValueOperations<String, String> values = mock(ValueOperations.class);
+		ObjectProvider<StringRedisTemplate> provider = mock(ObjectProvider.class);
+		when(provider.getIfAvailable()).thenReturn(redis);
+		when(redis.opsForValue()).thenReturn(values);
+		when(values.multiGet(List.of("consumer:persisted:T-1:PAID", "consumer:persisted:T-2:PAID")))
+				.thenReturn(Arrays.asList("1", null));
+		RecentTicketCache cache = new RecentTicketCache(provider, meterRegistry, true, 1_000, WINDOW, true);
+
+		// when
+		List<TicketInfo> unpersisted = cache.filterUnpersisted(List.of(ticket("T-1", TicketStatus.PAID),
+				ticket("T-2", TicketStatus.PAID)));
+
+		// then
+		assertEquals(List.of("T-2"), unpersisted.stream().map(TicketInfo::getTicketId).toList());
+		assertEquals(1, lookups("redis_hit"));
+		assertTrue(cache.isPersisted(ticket("T-1", TicketStatus.PAID)));
+		assertEquals(1, lookups("local_hit"));
+	}
+
+	@Test
+	@DisplayName("a disabled cache never skips a write")
+	void disabled_alwaysMiss() {
+		// given
+		RecentTicketCache cache = new RecentTicketCache(noRedis, meterRegistry, false, 1_000, WINDOW, false);
+		cache.markPersisted(List.of(ticket("T-1", TicketStatus.PAID)));
+
+		// then
+		assertFalse(cache.isPersisted(ticket("T-1", TicketStatus.PAID)));
+	}
+}
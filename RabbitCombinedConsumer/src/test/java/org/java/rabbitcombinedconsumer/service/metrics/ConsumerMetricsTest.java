@@ -0,0 +1,103 @@
+package org.java.rabbitcombinedconsumer.service.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.java.ticketingcore.dto.MqDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsumerMetricsTest {
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final ConsumerMetrics metrics = new ConsumerMetrics(meterRegistry);
+
+	private Timer timer(String name) {
+		return meterRegistry.get(name).timer();
+	}
+
+	private double millis(String name) {
+		return timer(name).totalTime(TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	@DisplayName("a received message records publish-to-receive from publishedAt and queue age from SentTimestamp")
+	void received_recordsPublishToReceiveAndQueueAge() {
+		// given
+		long receivedAt = System.currentTimeMillis();
+		MqDTO dto = MqDTO.builder().ticketId("T-1").publishedAt(Instant.ofEpochMilli(receivedAt - 300)).build();
+
+		// when
+		metrics.recordReceived(dto, String.valueOf(receivedAt - 100), receivedAt);
+
+		// then
+		assertEquals(1, timer("consumer.lag.publish_to_receive").count());
+		assertEquals(300, millis("consumer.lag.publish_to_receive"));
+		assertEquals(1, timer("consumer.lag.queue_age").count());
+		assertEquals(100, millis("consumer.lag.queue_age"));
+	}
+
+	@Test
+	@DisplayName("a commit records receive-to-commit and purchase-to-commit up to now")
+	void committed_recordsReceiveAndPurchaseToCommit() {
+		// given
+		long now = System.currentTimeMillis();
+
+		// when
+		metrics.recordCommitted(Instant.ofEpochMilli(now - 5_000), now - 1_000);
+
+		// then: at least the elapsed time, plus whatever passed inside the call
+		assertEquals(1, timer("consumer.lag.receive_to_commit").count());
+		assertTrue(millis("consumer.lag.receive_to_commit") >= 1_000);
+		assertTrue(millis("consumer.lag.receive_to_commit") < 4_000);
+		assertEquals(1, timer("consumer.lag.purchase_to_commit").count());
+		assertTrue(millis("consumer.lag.purchase_to_commit") >= 5_000);
+	}
+
+	@Test
+	@DisplayName("a stamp from a host whose clock runs ahead counts as 0, not negative")
+	void clockSkew_clampedToZero() {
+		// given
+		long receivedAt = System.currentTimeMillis();
+		MqDTO dto = MqDTO.builder().ticketId("T-1").publishedAt(Instant.ofEpochMilli(receivedAt + 2_000)).build();
+
+		// when
+		metrics.recordReceived(dto, null, receivedAt);
+
+		// then
+		assertEquals(1, timer("consumer.lag.publish_to_receive").count());
+		assertEquals(0, millis("consumer.lag.publish_to_receive"));
+	}
+
+	@Test
+	@DisplayName("missing stamps record nothing: no publishedAt, no or unparseable SentTimestamp, no createdOn")
+	void missingStamps_notRecorded() {
+		// when
+		metrics.recordReceived(MqDTO.builder().ticketId("T-1").build(), "not-a-number", System.currentTimeMillis());
+		metrics.recordHandled(null);
+		metrics.recordCommitted(null, System.currentTimeMillis());
+
+		// then: receive-to-commit needs only the local receive time
+		assertEquals(0, timer("consumer.lag.publish_to_receive").count());
+		assertEquals(0, timer("consumer.lag.queue_age").count());
+		assertEquals(0, timer("consumer.message.e2e").count());
+		assertEquals(1, timer("consumer.lag.receive_to_commit").count());
+		assertEquals(0, timer("consumer.lag.purchase_to_commit").count());
+	}
+
+	@Test
+	@DisplayName("handled messages feed the e2e timer, dropped ones only the dropped counter")
+	void handledAndDropped_countedApart() {
+		// when
+		metrics.recordHandled(String.valueOf(System.currentTimeMillis()));
+		metrics.recordDropped();
+
+		// then
+		assertEquals(1, timer("consumer.message.e2e").count());
+		assertEquals(1, meterRegistry.get("consumer.message.dropped").counter().count());
+	}
+}
@@ -0,0 +1,94 @@
+package org.java.rabbitcombinedconsumer.service.sqs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.java.rabbitcombinedconsumer.RabbitCombinedConsumerApplication;
+import org.java.rabbitcombinedconsumer.harness.ConsumerThroughputHarness.JvmUsage;
+import org.java.rabbitcombinedconsumer.harness.ConsumerThroughputHarness.Result;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the two listener thread models on the real SQS listener containers: the platform-thread
+ * container (sqs.listener.mode=single, 100 container threads, one blocked per message) and the virtual
+ * mode (8 dispatch threads, 300 messages in flight on virtual threads behind a bulkhead of one permit per
+ * Hikari connection). Each mode runs the consumer throughput harness in its own JVM, so neither inherits
+ * the other's JIT state, heap or thread peak, against ElasticMQ and MySQL, warm-up first, and the
+ * results are logged side by side: messages/sec, heap peak over the post-GC baseline, GC work, peak
+ * platform threads and CPU.
+ *
+ * Run on JDK 21 with:
+ * docker compose -f harness/docker-compose.yml up -d
+ * mvn test -Dtest=ListenerThreadModelBenchmark -Dbenchmark=true [-Dbenchmark.messages=20000]
+ * [-Dbenchmark.jvmArgs="-Xmx1g -XX:+UseG1GC"]
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ListenerThreadModelBenchmark {
+	private static final int MESSAGES = Integer.getInteger("benchmark.messages", 20_000);
+	private static final int WARMUP_MESSAGES = Integer.getInteger("benchmark.warmupMessages", 2_000);
+	// both modes get the same heap and collector, otherwise the heap and GC columns are not comparable
+	private static final String JVM_ARGS = System.getProperty("benchmark.jvmArgs", "-Xmx1g");
+	private static final long TIMEOUT_MINUTES = 15;
+	private static final double MB = 1024.0 * 1024.0;
+	private static final String HEADER_FORMAT = "%-8s %10s %10s %10s %8s %10s %8s %10s";
+	private static final String ROW_FORMAT = "%-8s %10.0f %10.1f %10.0f %8d %10.0f %8d %10.2f";
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	@DisplayName("platform-thread container vs virtual-thread container, SQS to MySQL")
+	void compareListenerModes() throws Exception {
+		List<Result> results = List.of(run("single"), run("virtual"));
+
+		log.info("[ListenerThreadModelBenchmark] {}", String.format(HEADER_FORMAT,
+				"mode", "msgs/sec", "heap MB", "msgs/s/MB", "gc ms", "msgs/s/cpu", "threads", "stmts/msg"));
+		for (Result result : results) {
+			JvmUsage.Totals jvm = result.jvm();
+			double heapMb = Math.max(1.0, (jvm.heapPeakBytes() - jvm.heapBaselineBytes()) / MB);
+			double cores = Math.max(0.01, (double) jvm.cpuNanos() / result.elapsedNanos());
+			log.info("[ListenerThreadModelBenchmark] {}", String.format(ROW_FORMAT, result.listenerMode(),
+					result.msgsPerSec(), heapMb, result.msgsPerSec() / heapMb, jvm.gcMillis(),
+					result.msgsPerSec() / cores, jvm.peakThreads(), (double) result.statements() / result.handled()));
+		}
+		for (Result result : results) {
+			assertEquals(result.sent(), result.done(), result.listenerMode() + ": messages not handled in time");
+		}
+	}
+
+	// a fresh JVM on this test's classpath; command-line arguments win over the harness profile's defaults
+	private Result run(String listenerMode) throws Exception {
+		Path resultFile = Files.createTempFile("harness-" + listenerMode, ".json");
+		List<String> command = new ArrayList<>();
+		command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(List.of(JVM_ARGS.trim().split("\\s+")));
+		command.addAll(List.of("-cp", System.getProperty("java.class.path"),
+				RabbitCombinedConsumerApplication.class.getName(),
+				"--spring.profiles.active=harness",
+				"--sqs.listener.mode=" + listenerMode,
+				"--consumer.harness.messages=" + MESSAGES,
+				"--consumer.harness.warmup-messages=" + WARMUP_MESSAGES,
+				"--consumer.harness.input-file=",
+				"--consumer.harness.result-file=" + resultFile,
+				"--consumer.harness.exit-when-done=true"));
+		Process process = new ProcessBuilder(command).inheritIO().start();
+		try {
+			assertTrue(process.waitFor(TIMEOUT_MINUTES, TimeUnit.MINUTES), listenerMode + ": harness did not finish");
+			assertTrue(Files.size(resultFile) > 0, listenerMode + ": harness wrote no result");
+			return objectMapper.readValue(resultFile.toFile(), Result.class);
+		} finally {
+			process.destroyForcibly();
+			Files.deleteIfExists(resultFile);
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package org.java.rabbitcombinedconsumer.service.sqs;
+
+import io.awspring.cloud.sqs.listener.acknowledgement.BatchAcknowledgement;
+import org.java.rabbitcombinedconsumer.exception.TransientException;
+import org.java.rabbitcombinedconsumer.mapper.MqMapper;
+import org.java.rabbitcombinedconsumer.repository.MySqlTicketDAOInterface;
+import org.java.rabbitcombinedconsumer.service.concurrency.AdaptiveConcurrencyLimiter;
+import org.java.rabbitcombinedconsumer.service.dedupe.RecentTicketCache;
+import org.java.rabbitcombinedconsumer.service.metrics.ConsumerMetrics;
+import org.java.ticketingcore.dto.MqDTO;
+import org.java.ticketingcore.model.TicketInfo;
+import org.java.ticketingcore.model.TicketStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class SqsMySqlBatchConsumerTest {
+	private final MySqlTicketDAOInterface dao = mock(MySqlTicketDAOInterface.class);
+	private final AdaptiveConcurrencyLimiter limiter = mock(AdaptiveConcurrencyLimiter.class);
+	private final RecentTicketCache recentTicketCache = mock(RecentTicketCache.class);
+	private final ConsumerMetrics consumerMetrics = mock(ConsumerMetrics.class);
+	@SuppressWarnings("unchecked")
+	private final BatchAcknowledgement<MqDTO> acknowledgement = mock(BatchAcknowledgement.class);
+	private SqsMySqlBatchConsumer consumer;
+
+	private final Message<MqDTO> first = message("T-1");
+	private final Message<MqDTO> second = message("T-2");
+	private final Message<MqDTO> third = message("T-3");
+
+	@BeforeEach
+	void setUp() {
+		doAnswer(invocation -> {
+			invocation.<Runnable>getArgument(0).run();
+			return null;
+		}).when(limiter).run(any());
+		when(recentTicketCache.filterUnpersisted(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+		consumer = new SqsMySqlBatchConsumer(dao, Mappers.getMapper(MqMapper.class), limiter, recentTicketCache,
+				consumerMetrics);
+	}
+
+	private static Message<MqDTO> message(String ticketId) {
+		return MessageBuilder.withPayload(MqDTO.builder()
+				.ticketId(ticketId)
+				.venueId("V-1")
+				.eventId("E-1")
+				.zoneId(1)
+				.row("A")
+				.column("1")
+				.status(TicketStatus.PAID)
+				.createdOn(Instant.parse("2025-01-02T03:00:00Z"))
+				.build()).build();
+	}
+
+	private static TicketInfo ticket(String ticketId) {
+		return argThat(ticket -> ticket != null && ticketId.equals(ticket.getTicketId()));
+	}
+
+	@Test
+	@DisplayName("a transient batch failure leaves the whole batch unacknowledged, without a per-message retry")
+	void transientBatchFailure_noFallback() {
+		// given
+		doThrow(new TransientException("MySQL unavailable", null)).when(dao).createTickets(anyList());
+
+		// when
+		assertThrows(TransientException.class,
+				() -> consumer.mySqlConsumeBatch(List.of(first, second), acknowledgement));
+
+		// then
+		verify(dao, never()).createTicket(any());
+		verifyNoInteractions(acknowledgement);
+	}
+
+	@Test
+	@DisplayName("a message that can never be written is acknowledged and dropped with the ones that persisted")
+	void dataError_messageDropped() {
+		// given: the batch fails on the second ticket's data
+		doThrow(new DataIntegrityViolationException("bad row")).when(dao).createTickets(anyList());
+		doThrow(new DataIntegrityViolationException("bad row")).when(dao).createTicket(ticket("T-2"));
+
+		// when
+		consumer.mySqlConsumeBatch(List.of(first, second, third), acknowledgement);
+
+		// then: all three deleted, only the good two written
+		verify(dao).createTicket(ticket("T-1"));
+		verify(dao).createTicket(ticket("T-3"));
+		verify(acknowledgement).acknowledge(List.of(first, second, third));
+		verify(recentTicketCache, never()).markPersisted(argThat(tickets -> tickets.stream()
+				.anyMatch(ticket -> "T-2".equals(ticket.getTicketId()))));
+		verify(consumerMetrics).recordDropped();
+	}
+
+	@Test
+	@DisplayName("a transient failure during the fallback acknowledges only the messages before it")
+	void transientDuringFallback_partialAck() {
+		// given: a data error sends the batch to the fallback, where MySQL goes away at the second ticket
+		doThrow(new DataIntegrityViolationException("bad row")).when(dao).createTickets(anyList());
+		doThrow(new TransientException("MySQL unavailable", null)).when(dao).createTicket(ticket("T-2"));
+
+		// when
+		consumer.mySqlConsumeBatch(List.of(first, second, third), acknowledgement);
+
+		// then: the second and third come back for redelivery, the third is not even tried
+		verify(acknowledgement).acknowledge(List.of(first));
+		verify(dao, never()).createTicket(ticket("T-3"));
+	}
+}
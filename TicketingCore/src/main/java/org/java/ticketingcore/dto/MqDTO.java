@@ -0,0 +1,31 @@
+package org.java.ticketingcore.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.java.ticketingcore.model.TicketStatus;
+
+import java.time.Instant;
+
+// ticket event PurchaseService publishes to SNS and the consumer reads from SQS, one JSON document per message;
+// unknown fields are ignored so either side can add one before the other is redeployed
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class MqDTO {
+	private String ticketId;
+	private String venueId;
+	private String eventId;
+	private int zoneId;
+	private String row;
+	private String column;
+	private TicketStatus status;       // CREATED / PAID / CANCELLED
+	private Instant createdOn;
+	// lag tracing, null on messages published before they existed
+	private String traceId;            // 32 hex chars, W3C trace-id format
+	private Instant publishedAt;       // handed to SNS
+}
@@ -1,4 +1,4 @@
-package org.java.purchaseservice.model;
+package org.java.ticketingcore.model;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
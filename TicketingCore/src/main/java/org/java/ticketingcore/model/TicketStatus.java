@@ -1,4 +1,4 @@
-package org.java.queryservice.model;
+package org.java.ticketingcore.model;
 
 public enum TicketStatus {
 	PENDING_PAYMENT,
@@ -0,0 +1,74 @@
+package org.java.ticketingcore.redis;
+
+public class RedisKeyUtil {
+	// value the consumer writes over a ticket view it invalidates; readers treat it as a miss and only
+	// fill the key with SET NX, so a refill that read MySQL before the write cannot land after it
+	public static final String TICKET_VIEW_TOMBSTONE = "~invalidated";
+	// seat change payload sent after the event's inventory was rebuilt or re-initialized behind the deltas
+	public static final String SEAT_CHANGE_RESYNC = "resync";
+
+	// zone, row, seat count related key
+	public static String getRowCountKey(String venueId, int zoneId) {
+		return String.format("venue:%s:zone:%s:rowCount", venueId, zoneId);
+	}
+
+	public static String getSeatPerRowKey(String venueId, int zoneId) {
+		return String.format("venue:%s:zone:%s:seatPerRow", venueId, zoneId);
+	}
+
+	public static String getZoneCapacityKey(String venueId, int zoneId) {
+		return String.format("venue:%s:zone:%s:capacity", venueId, zoneId);
+	}
+
+	public static String getZoneSetKey(String venueId) {
+		return String.format("venue:%s", venueId);
+	}
+
+	//Bitmap related Key
+	public static String getZoneBitMapKey(String eventId, int zoneId) {
+		return String.format("event:%s:zone:%s:occupied", eventId, zoneId);
+	}
+
+	// staging copy of a bitmap rebuilt from MySQL, only alive inside the merge script
+	public static String getZoneBitMapRebuildKey(String eventId, int zoneId) {
+		return String.format("event:%s:zone:%s:occupied:rebuild", eventId, zoneId);
+	}
+
+	public static String getZoneRemainedSeats(String eventId, int zoneId) {
+		return String.format("event:%s:zone:%s:remainingZoneSeats", eventId, zoneId);
+	}
+
+	public static String getRowRemainedSeats(String eventId, int zoneId, int rowIndex) {
+		return String.format("event:%s:zone:%s:row:%d:remainingSeats", eventId, zoneId, rowIndex);
+	}
+
+	// pub/sub channel announcing a venue whose MySQL venue/zone/event rows may have changed, payload is the venue id
+	public static String getVenueLayoutChannel() {
+		return "venue:layout";
+	}
+
+	// pub/sub channel carrying every seat taken or released for the event, payload "zoneId,row,col,taken,zoneRemaining",
+	// or SEAT_CHANGE_RESYNC when the whole inventory changed
+	public static String getSeatChangeChannel(String eventId) {
+		return String.format("event:%s:seats", eventId);
+	}
+
+	// QueryService's shared ticket view cache, deleted by the consumer after each committed ticket write
+	public static String getTicketViewKey(String ticketId) {
+		return "ticket:view:" + ticketId;
+	}
+
+	// pub/sub channel telling QueryService instances to evict their local ticket views, payload "id1,id2,..."
+	public static String getTicketInvalidationChannel() {
+		return "ticket:invalidate";
+	}
+
+	// Inventory bookkeeping keys
+	public static String getInventoryVersionKey(String eventId) {
+		return String.format("event:%s:inventory:version", eventId);
+	}
+
+	public static String getInventoryLockKey(String eventId) {
+		return String.format("event:%s:inventory:lock", eventId);
+	}
+}
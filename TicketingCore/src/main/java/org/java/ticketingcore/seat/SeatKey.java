@@ -0,0 +1,137 @@
+package org.java.ticketingcore.seat;
+
+/**
+ * A seat as one primitive long: zone id in the high 32 bits, then the 0-based row index and the
+ * 0-based column index in 16 bits each. Keys of one zone sort by row, then column, and hold no references,
+ * so they can live in primitive arrays, bitmaps and hash keys without boxing Strings around.
+ * <p>
+ * Row labels are bijective base 26 ("A" = 0, "Z" = 25, "AA" = 26, case-insensitive), column labels
+ * are 1-based decimals ("1" = 0). Parsing reads the characters in place and allocates nothing;
+ * malformed or out-of-range labels throw IllegalArgumentException. Inside a zone bitmap the seat
+ * sits at {@code rowIndex * seatPerRow + colIndex}, rows laid out one after another.
+ */
+public final class SeatKey {
+	public static final int MAX_INDEX = 0xFFFF;
+
+	private static final int INDEX_BITS = 16;
+	private static final long INDEX_MASK = MAX_INDEX;
+
+	private SeatKey() {
+	}
+
+	public static long of(int zoneId, int rowIndex, int colIndex) {
+		checkIndex(rowIndex, "row");
+		checkIndex(colIndex, "column");
+		return (long) zoneId << 32 | (long) rowIndex << INDEX_BITS | colIndex;
+	}
+
+	public static long parse(int zoneId, CharSequence row, CharSequence col) {
+		return of(zoneId, rowIndex(row), colIndex(col));
+	}
+
+	public static int zoneId(long key) {
+		return (int) (key >>> 32);
+	}
+
+	public static int rowIndex(long key) {
+		return (int) (key >>> INDEX_BITS & INDEX_MASK);
+	}
+
+	public static int colIndex(long key) {
+		return (int) (key & INDEX_MASK);
+	}
+
+	// "A" -> 0, "Z" -> 25, "AA" -> 26
+	public static int rowIndex(CharSequence row) {
+		int length = row == null ? 0 : row.length();
+		if (length == 0) {
+			throw new IllegalArgumentException("Empty row label");
+		}
+		int index = 0;
+		for (int i = 0; i < length; i++) {
+			char c = row.charAt(i);
+			int digit = c >= 'A' && c <= 'Z' ? c - 'A' + 1 : c >= 'a' && c <= 'z' ? c - 'a' + 1 : -1;
+			if (digit < 0) {
+				throw new IllegalArgumentException("Invalid row label: " + row);
+			}
+			index = index * 26 + digit;
+			if (index > MAX_INDEX + 1) {
+				throw new IllegalArgumentException("Row label out of range: " + row);
+			}
+		}
+		return index - 1;
+	}
+
+	// "1" -> 0
+	public static int colIndex(CharSequence col) {
+		int length = col == null ? 0 : col.length();
+		if (length == 0) {
+			throw new IllegalArgumentException("Empty column label");
+		}
+		int number = 0;
+		for (int i = 0; i < length; i++) {
+			char c = col.charAt(i);
+			if (c < '0' || c > '9') {
+				throw new IllegalArgumentException("Invalid column label: " + col);
+			}
+			number = number * 10 + (c - '0');
+			if (number > MAX_INDEX + 1) {
+				throw new IllegalArgumentException("Column label out of range: " + col);
+			}
+		}
+		if (number == 0) {
+			throw new IllegalArgumentException("Column labels start at 1: " + col);
+		}
+		return number - 1;
+	}
+
+	public static String rowLabel(int rowIndex) {
+		checkIndex(rowIndex, "row");
+		char[] chars = new char[4];
+		int pos = chars.length;
+		for (int n = rowIndex + 1; n > 0; n = (n - 1) / 26) {
+			chars[--pos] = (char) ('A' + (n - 1) % 26);
+		}
+		return new String(chars, pos, chars.length - pos);
+	}
+
+	public static String colLabel(int colIndex) {
+		checkIndex(colIndex, "column");
+		return Integer.toString(colIndex + 1);
+	}
+
+	// "A-1", the seat label used in API payloads
+	public static String label(long key) {
+		return rowLabel(rowIndex(key)) + "-" + colLabel(colIndex(key));
+	}
+
+	// the seat must lie inside the zone's rowCount x seatPerRow layout, whose bitmap must fit int positions
+	public static int bitPosition(long key, int rowCount, int seatPerRow) {
+		if (rowCount <= 0 || seatPerRow <= 0 || (long) rowCount * seatPerRow > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Invalid zone layout " + rowCount + " x " + seatPerRow);
+		}
+		int rowIndex = rowIndex(key);
+		if (rowIndex >= rowCount) {
+			throw new IllegalArgumentException("Row " + rowLabel(rowIndex) + " beyond " + rowCount + " rows");
+		}
+		int colIndex = colIndex(key);
+		if (colIndex >= seatPerRow) {
+			throw new IllegalArgumentException("Column " + (colIndex + 1) + " beyond " + seatPerRow + " seats per row");
+		}
+		return rowIndex * seatPerRow + colIndex;
+	}
+
+	public static long fromBitPosition(int zoneId, int bitPosition, int seatPerRow) {
+		if (bitPosition < 0 || seatPerRow <= 0) {
+			throw new IllegalArgumentException("Invalid bit position " + bitPosition + " for " + seatPerRow
+					+ " seats per row");
+		}
+		return of(zoneId, bitPosition / seatPerRow, bitPosition % seatPerRow);
+	}
+
+	private static void checkIndex(int index, String what) {
+		if (index < 0 || index > MAX_INDEX) {
+			throw new IllegalArgumentException("Seat " + what + " index out of range: " + index);
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package org.java.ticketingcore.seat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeatKeyTest {
+
+	@ParameterizedTest(name = "{0} -> {1}")
+	@CsvSource({"A, 0", "Z, 25", "AA, 26", "AZ, 51", "BA, 52", "ZZ, 701", "AAA, 702", "z, 25", "aA, 26"})
+	@DisplayName("row labels are bijective base 26, case-insensitive")
+	void rowLabels(String label, int index) {
+		assertEquals(index, SeatKey.rowIndex(label));
+		assertEquals(label.toUpperCase(), SeatKey.rowLabel(index));
+	}
+
+	@Test
+	@DisplayName("every row and column index survives label round trips")
+	void labelRoundTrip() {
+		for (int index = 0; index <= SeatKey.MAX_INDEX; index++) {
+			assertEquals(index, SeatKey.rowIndex(SeatKey.rowLabel(index)));
+			assertEquals(index, SeatKey.colIndex(SeatKey.colLabel(index)));
+		}
+	}
+
+	@Test
+	@DisplayName("zone, row and column come back out of the packed key")
+	void packAndUnpack() {
+		long key = SeatKey.parse(7, "AB", "30");
+
+		assertEquals(7, SeatKey.zoneId(key));
+		assertEquals(27, SeatKey.rowIndex(key));
+		assertEquals(29, SeatKey.colIndex(key));
+		assertEquals("AB-30", SeatKey.label(key));
+		assertEquals(Integer.MAX_VALUE, SeatKey.zoneId(SeatKey.of(Integer.MAX_VALUE, 0, 0)));
+		assertEquals(-1, SeatKey.zoneId(SeatKey.of(-1, SeatKey.MAX_INDEX, SeatKey.MAX_INDEX)));
+	}
+
+	@Test
+	@DisplayName("keys of a zone order by row, then column")
+	void ordering() {
+		assertTrue(SeatKey.parse(1, "A", "30") < SeatKey.parse(1, "B", "1"));
+		assertTrue(SeatKey.parse(1, "B", "1") < SeatKey.parse(1, "B", "2"));
+		assertTrue(SeatKey.parse(1, "ZZ", "1") < SeatKey.parse(2, "A", "1"));
+	}
+
+	@Test
+	@DisplayName("bit positions match the zone bitmap layout, rows one after another")
+	void bitPositions() {
+		int rowCount = 27;
+		int seatPerRow = 30;
+		assertEquals(0, SeatKey.bitPosition(SeatKey.parse(1, "A", "1"), rowCount, seatPerRow));
+		assertEquals(29, SeatKey.bitPosition(SeatKey.parse(1, "A", "30"), rowCount, seatPerRow));
+		assertEquals(30, SeatKey.bitPosition(SeatKey.parse(1, "B", "1"), rowCount, seatPerRow));
+		assertEquals(26 * 30 + 4, SeatKey.bitPosition(SeatKey.parse(1, "AA", "5"), rowCount, seatPerRow));
+
+		for (int bit = 0; bit < rowCount * seatPerRow; bit++) {
+			long key = SeatKey.fromBitPosition(3, bit, seatPerRow);
+			assertEquals(3, SeatKey.zoneId(key));
+			assertEquals(bit, SeatKey.bitPosition(key, rowCount, seatPerRow));
+		}
+	}
+
+	@Test
+	@DisplayName("a column past the row width does not spill into the next row")
+	void columnBeyondRow() {
+		long key = SeatKey.parse(1, "A", "31");
+
+		assertThrows(IllegalArgumentException.class, () -> SeatKey.bitPosition(key, 26, 30));
+	}
+
+	@Test
+	@DisplayName("a row past the zone's row count does not land past the end of the bitmap")
+	void rowBeyondZone() {
+		long key = SeatKey.parse(1, "AA", "1");
+
+		assertThrows(IllegalArgumentException.class, () -> SeatKey.bitPosition(key, 26, 30));
+		assertEquals(26 * 30, SeatKey.bitPosition(key, 27, 30));
+	}
+
+	@Test
+	@DisplayName("empty layouts and layouts whose bitmap overflows int positions are rejected")
+	void invalidLayouts() {
+		long key = SeatKey.parse(1, "A", "1");
+
+		assertThrows(IllegalArgumentException.class, () -> SeatKey.bitPosition(key, 0, 30));
+		assertThrows(IllegalArgumentException.class, () -> SeatKey.bitPosition(key, 26, 0));
+		assertThrows(IllegalArgumentException.class,
+				() -> SeatKey.bitPosition(key, SeatKey.MAX_INDEX + 1, SeatKey.MAX_INDEX + 1));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"", "A1", "-", "Ä", "CRXQ"})
+	@DisplayName("malformed or out-of-range row labels are rejected")
+	void invalidRows(String row) {
+		assertThrows(IllegalArgumentException.class, () -> SeatKey.rowIndex(row));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"", "0", "-1", "1a", " 1", "65537"})
+	@DisplayName("malformed or out-of-range column labels are rejected")
+	void invalidColumns(String col) {
+		assertThrows(IllegalArgumentException.class, () -> SeatKey.colIndex(col));
+	}
+}
@@ -149,11 +149,12 @@ module "ecs" {
   autoscaling_scale_out_cooldown = local.ecs_autoscaling_configs[each.key].scale_out_cooldown
 
   # Database configuration
-  db_endpoint   = module.rds.cluster_endpoint
-  db_port       = 3306
-  db_username   = var.rds_username
-  db_password   = "" # Not used when db_secret_arn is provided
-  db_secret_arn = module.rds.secret_arn
+  db_endpoint        = module.rds.cluster_endpoint
+  db_reader_endpoint = module.rds.reader_endpoint
+  db_port            = 3306
+  db_username        = var.rds_username
+  db_password        = "" # Not used when db_secret_arn is provided
+  db_secret_arn      = module.rds.secret_arn
 
   # Redis configuration
   redis_endpoint   = module.elasticache.redis_endpoint
@@ -36,6 +36,10 @@ resource "aws_ecs_task_definition" "this" {
         name  = "DB_HOST"
         value = var.db_endpoint
       },
+      {
+        name  = "DB_READER_HOSTS"
+        value = var.db_reader_endpoint
+      },
       {
         name  = "DB_PORT"
         value = tostring(var.db_port)
@@ -146,6 +146,12 @@ variable "db_endpoint" {
   description = "Database endpoint/host"
 }
 
+variable "db_reader_endpoint" {
+  type        = string
+  default     = ""
+  description = "Database reader endpoint/host for read-only queries (empty to read from the writer)"
+}
+
 variable "db_port" {
   type        = number
   description = "Database port"